@@ -0,0 +1,79 @@
+package org.jobscraper.jobscraper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Zapis wyników do pliku CSV: dawny FileWriter bez bufora z String.format kontra CsvExportSink
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvExportBenchmark {
+    @Param({"1000", "10000"})
+    int offers;
+
+    private List<JobOffer> results;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        results = new ArrayList<>();
+        for (int i = 0; i < offers; i++) {
+            results.add(Fixtures.sampleOffer(i));
+        }
+        file = Files.createTempFile("jobscraper-bench", ".csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    // Odtworzenie dawnego HelloApplication.exportToCsv
+    @Benchmark
+    public void legacyFileWriter() throws IOException {
+        try (FileWriter writer = new FileWriter(file.toFile())) {
+            writer.write("Title,Company,Salary,Location,Type of Work,Experience,Operating Mode,URL\n");
+            for (JobOffer offer : results) {
+                writer.write(String.format("\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\"\n",
+                        offer.getTitle().replace("\"", "\"\""),
+                        offer.getCompany().replace("\"", "\"\""),
+                        offer.getSalary().replace("\"", "\"\""),
+                        offer.getLocation().replace("\"", "\"\""),
+                        offer.getTypeOfWork().replace("\"", "\"\""),
+                        offer.getExperience().replace("\"", "\"\""),
+                        offer.getOperatingMode().replace("\"", "\"\""),
+                        offer.getUrl().replace("\"", "\"\"")));
+            }
+        }
+    }
+
+    @Benchmark
+    public int csvExportSink() throws IOException {
+        try (CsvExportSink sink = new CsvExportSink(file)) {
+            sink.writeAll(results);
+            return sink.getRowsWritten();
+        }
+    }
+}
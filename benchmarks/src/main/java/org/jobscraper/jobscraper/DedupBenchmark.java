@@ -0,0 +1,77 @@
+package org.jobscraper.jobscraper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Odrzucanie duplikatów linków przy wielu producentach naraz: dawne dwa zbiory synchronizedSet
+// (offerLinksSet + processedLinks) kontra LinkFrontier
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class DedupBenchmark {
+    @Param({"2000"})
+    int distinctLinks;
+
+    private String[] links;
+    private Set<String> offerLinksSet;
+    private Set<String> processedLinks;
+    private LinkFrontier frontier;
+
+    // Każdy wątek przechodzi przez te same linki od innego miejsca - część nowych, większość powtórek
+    @State(Scope.Thread)
+    public static class Cursor {
+        int position = (int) (Math.random() * 1_000_000);
+    }
+
+    @Setup(Level.Trial)
+    public void createLinks() {
+        links = new String[distinctLinks];
+        for (int i = 0; i < distinctLinks; i++) {
+            links[i] = "https://www.pracuj.pl/praca/java-developer-krakow,oferta," + (1_000_000_000L + i * 7919L);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        offerLinksSet = Collections.synchronizedSet(new HashSet<>());
+        processedLinks = Collections.synchronizedSet(new HashSet<>());
+        frontier = new LinkFrontier(1);
+    }
+
+    @Benchmark
+    public boolean legacySynchronizedSets(Cursor cursor) {
+        String link = links[cursor.position++ % links.length];
+        offerLinksSet.add(link);
+        // Dawna pętla w Scraper: sprawdzenie i dodanie jako dwie osobne operacje
+        if (!processedLinks.contains(link)) {
+            processedLinks.add(link);
+            return true;
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean linkFrontier(Cursor cursor) {
+        return frontier.add(links[cursor.position++ % links.length]);
+    }
+}
@@ -0,0 +1,104 @@
+package org.jobscraper.jobscraper;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Wyciąganie pól oferty: jedno przejście selektorami CSS po dokumencie Jsoup
+// kontra dotychczasowy wzorzec "jedno zapytanie na pole" (findElement z XPath i obsługą wyjątku przy braku elementu).
+// Samego przejścia przez WebDriver (sieć + przeglądarka) nie da się tu zmierzyć - mierzony jest koszt wyszukiwania pól.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractionBenchmark {
+    // Odpowiedniki selektorów z PracujPlScraper w XPath, tak jak w ścieżce przeglądarkowej JustJoinItScraper
+    private static final String[] FIELD_XPATHS = {
+            "//*[@data-test='text-positionName']",
+            "//*[@data-test='text-employerName']",
+            "//*[@data-test='text-earningAmount']",
+            "//*[@data-test='sections-benefit-workplaces']//*[@data-test='offer-badge-title']",
+            "//*[@data-test='sections-benefit-contracts']//*[@data-test='offer-badge-title']",
+            "//*[@data-test='sections-benefit-employment-type-name']//*[@data-test='offer-badge-title']",
+            "//*[@data-scroll-id='work-modes']//*[@data-test='offer-badge-title']"
+    };
+
+    private String offerHtml;
+    private Document offerDocument;
+    private String pracujListingHtml;
+    private Document pracujListingDocument;
+    private String justJoinListingHtml;
+
+    @Setup
+    public void setUp() {
+        offerHtml = Fixtures.load("pracuj-offer.html");
+        offerDocument = Jsoup.parse(offerHtml, Fixtures.PRACUJ_OFFER_URL);
+        pracujListingHtml = Fixtures.load("pracuj-listing.html");
+        pracujListingDocument = Jsoup.parse(pracujListingHtml, "https://www.pracuj.pl/praca/java;kw");
+        justJoinListingHtml = Fixtures.load("justjoin-listing.html");
+    }
+
+    // Pełna ścieżka HTTP: parsowanie HTML i wyciągnięcie pól
+    @Benchmark
+    public JobOffer pracujOfferParseAndExtract() {
+        return PracujPlScraper.parseOfferDetails(Jsoup.parse(offerHtml, Fixtures.PRACUJ_OFFER_URL), Fixtures.PRACUJ_OFFER_URL);
+    }
+
+    @Benchmark
+    public JobOffer pracujOfferExtractCss() {
+        return PracujPlScraper.parseOfferDetails(offerDocument, Fixtures.PRACUJ_OFFER_URL);
+    }
+
+    @Benchmark
+    public JobOffer pracujOfferExtractPerFieldXPath() {
+        String[] values = new String[FIELD_XPATHS.length];
+        for (int i = 0; i < FIELD_XPATHS.length; i++) {
+            try {
+                Elements found = offerDocument.selectXpath(FIELD_XPATHS[i]);
+                if (found.isEmpty()) {
+                    throw new IllegalStateException("no such element"); // findElement zgłasza NoSuchElementException
+                }
+                values[i] = found.first().text();
+            } catch (IllegalStateException e) {
+                values[i] = "Brak danych";
+            }
+        }
+        return new JobOffer(values[0], values[1], values[2], values[3], Fixtures.PRACUJ_OFFER_URL, values[4], values[5], values[6]);
+    }
+
+    @Benchmark
+    public void pracujListingLinks(Blackhole blackhole) {
+        for (Element link : pracujListingDocument.select("a.tiles_cnb3rfy.core_n194fgoq")) {
+            blackhole.consume(link.absUrl("href"));
+        }
+        blackhole.consume(PracujPlScraper.parseMaxPage(pracujListingDocument));
+    }
+
+    @Benchmark
+    public void pracujListingParse(Blackhole blackhole) {
+        Document doc = Jsoup.parse(pracujListingHtml, "https://www.pracuj.pl/praca/java;kw");
+        blackhole.consume(doc.select("a.tiles_cnb3rfy.core_n194fgoq").size());
+        blackhole.consume(PracujPlScraper.parseTotalOffers(doc));
+    }
+
+    @Benchmark
+    public JustJoinItListingParser.Listing justJoinListingParse() {
+        return JustJoinItListingParser.parse(Jsoup.parse(justJoinListingHtml, "https://justjoin.it/"));
+    }
+}
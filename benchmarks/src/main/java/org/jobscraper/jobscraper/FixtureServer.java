@@ -0,0 +1,257 @@
+package org.jobscraper.jobscraper;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lokalny serwer HTTP z nagranymi stronami jednego serwisu (Pracuj.pl albo JustJoin.it).
+// Strony listingu powstają z nagranych stron przez powielenie kafelka oferty, liczba stron i ofert na stronę jest ustawiana.
+// Każde żądanie jest opóźniane o zadany czas, a część żądań o szczegóły ofert kończy się błędem 503.
+// Oferty JustJoin.it mogą powtarzać oferty z Pracuj.pl (ten sam numer, tytuł i firma) - do pomiaru wykrywania duplikatów.
+final class FixtureServer implements Closeable {
+    enum Site {
+        PRACUJ("127.0.0.1", "/praca/"),
+        // Inna nazwa hosta niż Pracuj.pl - HostRateLimiter liczy tempo per host, tak jak dla prawdziwych serwisów
+        JUSTJOIN("localhost", "/job-offers/");
+
+        final String host;
+        final String listingPath;
+
+        Site(String host, String listingPath) {
+            this.host = host;
+            this.listingPath = listingPath;
+        }
+    }
+
+    private static final long FIRST_OFFER_ID = 1_000_000_000L;
+
+    private final Site site;
+    private final int pages;
+    private final int offersPerPage;
+    private final long latencyMillis;
+    private final double errorRate;
+    private volatile double overlap; // Część ofert JustJoin.it, które są też na Pracuj.pl
+    private final Random random = new Random(42); // Powtarzalny rozkład błędów między uruchomieniami
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final Document pracujListing = Jsoup.parse(Fixtures.load("pracuj-listing.html"));
+    private final String pracujOffer = Fixtures.load("pracuj-offer.html");
+    private final Document justJoinListing = Jsoup.parse(Fixtures.load("justjoin-listing.html"));
+
+    FixtureServer(Site site, int pages, int offersPerPage, Duration latency, double errorRate) throws IOException {
+        if (pages < 1 || offersPerPage < 1 || errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Expected pages >= 1, offersPerPage >= 1, 0 <= errorRate <= 1");
+        }
+        this.site = site;
+        this.pages = pages;
+        this.offersPerPage = offersPerPage;
+        this.latencyMillis = latency.toMillis();
+        this.errorRate = errorRate;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    // Tylko JustJoin.it: ułamek ofert na każdej stronie z tym samym tytułem co oferta Pracuj.pl o tym samym numerze
+    void setOverlap(double overlap) {
+        if (overlap < 0 || overlap > 1) {
+            throw new IllegalArgumentException("Expected 0 <= overlap <= 1");
+        }
+        this.overlap = overlap;
+    }
+
+    String baseUrl() {
+        return "http://" + site.host + ":" + server.getAddress().getPort() + site.listingPath;
+    }
+
+    int totalOffers() {
+        return pages * offersPerPage;
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    long getInjectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.increment();
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            String path = URLDecoder.decode(exchange.getRequestURI().getRawPath(), StandardCharsets.UTF_8);
+            String query = exchange.getRequestURI().getRawQuery();
+
+            boolean detail = site == Site.PRACUJ ? path.contains(",oferta,") : path.startsWith("/job-offer/");
+            // Błędy tylko na stronach ofert - błąd pierwszej strony listingu kończyłby cały serwis
+            if (detail && errorRate > 0 && random.nextDouble() < errorRate) {
+                injectedErrors.increment();
+                send(exchange, 503, "Service Unavailable");
+                return;
+            }
+            if (detail) {
+                send(exchange, 200, site == Site.PRACUJ ? pracujOffer(path) : justJoinOffer(path));
+            } else if (path.startsWith(site.listingPath)) {
+                int page = pageParameter(query, site == Site.PRACUJ ? "pn" : "page");
+                if (site == Site.PRACUJ && page > pages) {
+                    // Jak pracuj.pl: strona spoza zakresu przekierowuje na pierwszą stronę listingu
+                    exchange.getResponseHeaders().set("Location", path);
+                    send(exchange, 302, "");
+                    return;
+                }
+                send(exchange, 200, site == Site.PRACUJ ? pracujListing(page) : justJoinListing(page));
+            } else {
+                send(exchange, 404, "Not Found");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static int pageParameter(String query, String name) {
+        if (query == null) {
+            return 1;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(name + "=")) {
+                try {
+                    return Integer.parseInt(pair.substring(name.length() + 1));
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private long offerId(int page, int index) {
+        return FIRST_OFFER_ID + (long) (page - 1) * offersPerPage + index;
+    }
+
+    // Nagrana strona listingu z kafelkiem oferty powielonym offersPerPage razy
+    private String pracujListing(int page) {
+        Document doc = pracujListing.clone();
+        Element tileTemplate = doc.selectFirst("[data-test='default-offer']");
+        Element container = tileTemplate.parent();
+        doc.select("[data-test='default-offer']").remove();
+        for (int i = 0; i < offersPerPage; i++) {
+            long id = offerId(page, i);
+            Element tile = tileTemplate.clone();
+            Element link = tile.selectFirst("a");
+            link.attr("href", "/praca/java-developer-" + id + "-krakow,oferta," + id);
+            link.text("Java Developer " + id);
+            container.appendChild(tile);
+        }
+        doc.select("[data-test='top-pagination-current-page-number']").html(Integer.toString(page));
+        doc.select("[data-test='top-pagination-max-page-number']").html(Integer.toString(pages));
+        Element state = doc.selectFirst("script#__NEXT_DATA__");
+        state.empty().appendChild(new DataNode("{\"props\":{\"pageProps\":{\"data\":{\"jobOffers\":{\"groupedOffersTotalCount\":"
+                + totalOffers() + "}}}}}"));
+        return doc.outerHtml();
+    }
+
+    private String pracujOffer(String path) {
+        String id = path.substring(path.lastIndexOf(',') + 1);
+        return pracujOffer.replace(">Java Developer</h1>", ">Java Developer " + id + "</h1>");
+    }
+
+    // Nagrany stan strony JustJoin.it z pierwszą ofertą powieloną offersPerPage razy; za ostatnią stroną lista jest pusta
+    private String justJoinListing(int page) {
+        Document doc = justJoinListing.clone();
+        Element state = doc.selectFirst("script#__NEXT_DATA__");
+        JsonObject root = JsonParser.parseString(state.data()).getAsJsonObject();
+        JsonObject pageData = root.getAsJsonObject("props").getAsJsonObject("pageProps").getAsJsonObject("dehydratedState")
+                .getAsJsonArray("queries").get(0).getAsJsonObject().getAsJsonObject("state").getAsJsonObject("data")
+                .getAsJsonArray("pages").get(0).getAsJsonObject();
+        JsonObject offerTemplate = pageData.getAsJsonArray("data").get(0).getAsJsonObject();
+
+        JsonArray offers = new JsonArray();
+        if (page <= pages) {
+            for (int i = 0; i < offersPerPage; i++) {
+                long id = offerId(page, i);
+                JsonObject offer = offerTemplate.deepCopy();
+                offer.addProperty("slug", "java-developer-" + id + "-krakow-java");
+                // Pozostałe oferty różnią się technologią - tytuł za daleki od "Java Developer", żeby uznać je za duplikat
+                offer.addProperty("title", (i < Math.round(offersPerPage * overlap) ? "Java Developer " : "Kotlin Developer ") + id);
+                offers.add(offer);
+            }
+        }
+        pageData.add("data", offers);
+        JsonObject meta = new JsonObject();
+        meta.addProperty("page", page);
+        meta.addProperty("totalItems", totalOffers());
+        meta.addProperty("totalPages", pages);
+        pageData.add("meta", meta);
+
+        state.empty().appendChild(new DataNode(root.toString()));
+        doc.select("#__next a").remove();
+        return doc.outerHtml();
+    }
+
+    // Nagranej strony oferty JustJoin.it nie ma - układ odtwarza bezwzględne ścieżki XPath z JustJoinItScraper
+    private static String justJoinOffer(String path) {
+        String slug = path.substring("/job-offer/".length());
+        StringBuilder details = new StringBuilder();
+        for (String value : new String[]{"B2B", "Mid", "Full-time", "Hybrid"}) {
+            details.append("<div><div></div><div><div></div><div>").append(value).append("</div></div></div>");
+        }
+        return "<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"utf-8\"><title>" + slug + " | Just Join IT</title></head><body>"
+                + "<div></div>"
+                + "<div><div><div><div>"
+                + "<div></div>"
+                + "<div><div></div>"
+                + "<div>"
+                + "<div><div></div><div><div></div><div>"
+                + "<h1>" + slug + "</h1>"
+                + "<div><div>Example</div><div><div><span>Kraków</span></div></div></div>"
+                + "</div></div></div>"
+                + "<div>" + details + "</div>"
+                + "<span class=\"css-1tka0qn\">18 000 - 24 000 PLN</span>"
+                + "</div>"
+                + "</div>"
+                + "</div></div></div></div>"
+                + "</body></html>";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,31 @@
+package org.jobscraper.jobscraper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+// Zapisane strony z src/test/resources, dołączone do jara z benchmarkami
+final class Fixtures {
+    static final String PRACUJ_OFFER_URL = "https://www.pracuj.pl/praca/java-developer-krakow,oferta,1003812345";
+
+    private Fixtures() {
+    }
+
+    static String load(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/org/jobscraper/jobscraper/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static JobOffer sampleOffer(int i) {
+        return new JobOffer("Senior Java Developer " + i, "Acme \"Software\", Sp. z o.o.", "18 000 – 24 000 zł netto (+ VAT) / mies.",
+                "Kraków, Małopolskie", "https://www.pracuj.pl/praca/java-developer,oferta," + i,
+                "kontrakt B2B", "specjalista (Mid / Regular)", "praca hybrydowa");
+    }
+}
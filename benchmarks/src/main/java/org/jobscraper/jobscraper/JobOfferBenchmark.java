@@ -0,0 +1,90 @@
+package org.jobscraper.jobscraper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Tworzenie JobOffer oraz koszt zbierania wyników (dodawanie do listy, kopia przy getJobOffers)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobOfferBenchmark {
+    @Param({"1000"})
+    int offers;
+
+    private String[] titles;
+    private List<JobOffer> results;
+    private OfferResults offerResults;
+
+    @Setup
+    public void setUp() {
+        titles = new String[offers];
+        results = new ArrayList<>();
+        for (int i = 0; i < offers; i++) {
+            titles[i] = "Senior Java Developer " + i;
+            results.add(Fixtures.sampleOffer(i));
+        }
+        offerResults = new OfferResults();
+        results.forEach(offerResults::add);
+    }
+
+    @Benchmark
+    public JobOffer construct() {
+        return new JobOffer(titles[0], "Acme", "18 000 – 24 000 zł", "Kraków", "https://www.pracuj.pl/praca/x,oferta,1",
+                "kontrakt B2B", "specjalista (Mid / Regular)", "praca hybrydowa");
+    }
+
+    // Dodawanie wszystkich wyników do CopyOnWriteArrayList, jak dawniej w Scraper - każde add kopiuje tablicę
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<JobOffer> collectIntoCopyOnWriteList() {
+        List<JobOffer> list = new CopyOnWriteArrayList<>();
+        for (JobOffer offer : results) {
+            list.add(offer);
+        }
+        return list;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public OfferResults collectIntoOfferResults() {
+        OfferResults offerResults = new OfferResults();
+        for (JobOffer offer : results) {
+            offerResults.add(offer);
+        }
+        return offerResults;
+    }
+
+    // Kopia wykonywana dawniej przez Scraper.getJobOffers()
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<JobOffer> copyResults() {
+        return new ArrayList<>(results);
+    }
+
+    // Obecne getJobOffers(): widok bez kopiowania, przejście po wszystkich ofertach
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void iterateSnapshot(Blackhole blackhole) {
+        for (JobOffer offer : offerResults.snapshot()) {
+            blackhole.consume(offer);
+        }
+    }
+}
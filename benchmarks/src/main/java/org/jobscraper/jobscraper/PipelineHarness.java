@@ -0,0 +1,201 @@
+package org.jobscraper.jobscraper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Pełny potok Scraper (listing, kolejka linków, szczegóły ofert, eksport CSV) na lokalnych serwerach z nagranymi stronami.
+// Szczegóły JustJoin.it idą przez headless Chrome otwierający strony z localhost.
+// java -cp target/benchmarks.jar org.jobscraper.jobscraper.PipelineHarness --sites pracuj,justjoin --pages 5 --latency-ms 50 --overlap 0.3
+public class PipelineHarness {
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "sites", "pracuj",
+            "pages", "5",
+            "offers-per-page", "20",
+            "latency-ms", "50",
+            "error-rate", "0",
+            "overlap", "0", // część ofert JustJoin.it powtarzających oferty z Pracuj.pl
+            "depth", "deep", // deep, shallow albo shallow-with-deep-fill
+            "tabs", "0", // kart na proces Chrome; 0 - osobny proces na stronę
+            "rate", "50" // żądań na sekundę na host - lokalny serwer nie potrzebuje ostrożnego startu
+    );
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        boolean virtualThreads = false;
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i].startsWith("--") ? args[i].substring(2) : args[i];
+            if (name.equals("virtual-threads")) {
+                virtualThreads = true;
+            } else if (DEFAULTS.containsKey(name) && i + 1 < args.length) {
+                options.put(name, args[++i]);
+            } else {
+                System.err.println("Unknown option " + args[i] + "; known: " + DEFAULTS.keySet() + ", --virtual-threads");
+                System.exit(2);
+            }
+        }
+
+        String sites = options.get("sites").toLowerCase();
+        boolean pracuj = sites.contains("pracuj");
+        boolean justJoin = sites.contains("justjoin");
+        int pages = Integer.parseInt(options.get("pages"));
+        int offersPerPage = Integer.parseInt(options.get("offers-per-page"));
+        Duration latency = Duration.ofMillis(Long.parseLong(options.get("latency-ms")));
+        double errorRate = Double.parseDouble(options.get("error-rate"));
+        double rate = Double.parseDouble(options.get("rate"));
+        double overlap = Double.parseDouble(options.get("overlap"));
+        ScrapeDepth depth = ScrapeDepth.parse(options.get("depth"));
+        int tabs = Integer.parseInt(options.get("tabs"));
+
+        Path workDir = Files.createTempDirectory("jobscraper-harness");
+        RssSampler rss = new RssSampler();
+        FixtureServer pracujServer = pracuj ? new FixtureServer(FixtureServer.Site.PRACUJ, pages, offersPerPage, latency, errorRate) : null;
+        FixtureServer justJoinServer = justJoin ? new FixtureServer(FixtureServer.Site.JUSTJOIN, pages, offersPerPage, latency, errorRate) : null;
+        if (justJoinServer != null) {
+            justJoinServer.setOverlap(overlap);
+        }
+        try {
+            Scraper scraper = new Scraper("java", "krakow", "0", pracuj, justJoin, new SilentListener());
+            if (pracujServer != null) {
+                scraper.setPracujBaseUrl(pracujServer.baseUrl());
+            }
+            if (justJoinServer != null) {
+                scraper.setJustJoinItBaseUrl(justJoinServer.baseUrl());
+            }
+            scraper.setScrapeDepth(depth);
+            scraper.setTabsPerBrowser(tabs);
+            if (virtualThreads) {
+                scraper.setExecutionMode(ExecutionMode.VIRTUAL_THREADS);
+            }
+            // Każde uruchomienie od zera: bez cache HTTP i bez ofert z poprzednich uruchomień
+            scraper.setHttpCacheEnabled(false);
+            scraper.setSeenOfferStore(SeenOfferStore.load(workDir.resolve("seen-offers.json")));
+            scraper.setReuseMaxAge(Duration.ZERO);
+            scraper.setMetricsDirectory(workDir.resolve("metrics"));
+            scraper.setJournalFile(workDir.resolve("journal.jsonl"));
+            scraper.setHostRateLimiter(new HostRateLimiter(rate, Math.min(rate, HostRateLimiter.DEFAULT_MIN_RATE), rate * 2, 8000));
+            scraper.setExportSink(new CsvExportSink(workDir.resolve("offers.csv")), false);
+
+            rss.start();
+            long start = System.nanoTime();
+            scraper.startScraping();
+            scraper.awaitCompletion();
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            rss.stop();
+
+            int offers = scraper.getJobOffers().size();
+            int duplicates = scraper.getDuplicatesSkipped();
+            int expected = (pracuj ? pages * offersPerPage : 0) + (justJoin ? pages * offersPerPage : 0) - duplicates;
+            System.out.println();
+            System.out.println("=== Pipeline harness ===");
+            System.out.printf(Locale.ROOT, "Sites: %s, %d pages x %d offers, latency %d ms, error rate %.3f, %s, %s%n",
+                    sites, pages, offersPerPage, latency.toMillis(), errorRate, scraper.getExecutionMode(), depth);
+            System.out.printf(Locale.ROOT, "Offers: %d of %d in %.2f s -> %.1f offers/s%n", offers, expected, seconds, offers / seconds);
+            if (pracuj && justJoin) {
+                System.out.printf(Locale.ROOT, "Cross-site duplicates: %d skipped (overlap %.2f)%n", duplicates, overlap);
+            }
+            MetricsRegistry metrics = scraper.getMetrics();
+            for (String site : new String[]{"pracuj", "justjoin"}) {
+                if ((site.equals("pracuj") && pracuj) || (site.equals("justjoin") && justJoin)) {
+                    MetricsRegistry.Histogram latencyHistogram = metrics.offerLatency(site);
+                    System.out.printf(Locale.ROOT, "Per-offer latency %s (discovery -> result, %d offers, histogram buckets): p50 %s, p99 %s%n",
+                            site, latencyHistogram.getCount(), millis(latencyHistogram.quantile(0.5)), millis(latencyHistogram.quantile(0.99)));
+                }
+            }
+            System.out.println("Peak RSS: " + rss.describe());
+            if (tabs > 0) {
+                System.out.println("Chrome tabs: " + tabs + " per instance");
+            }
+            System.out.println("Fixture server requests: "
+                    + (pracujServer != null ? "pracuj " + pracujServer.getRequests() + " (" + pracujServer.getInjectedErrors() + " errors) " : "")
+                    + (justJoinServer != null ? "justjoin " + justJoinServer.getRequests() + " (" + justJoinServer.getInjectedErrors() + " errors)" : ""));
+            System.out.println("Metrics and CSV: " + workDir);
+        } finally {
+            rss.stop();
+            if (pracujServer != null) {
+                pracujServer.close();
+            }
+            if (justJoinServer != null) {
+                justJoinServer.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static String millis(double seconds) {
+        return Double.isNaN(seconds) ? "n/a" : String.format(Locale.ROOT, "%.0f ms", seconds * 1000);
+    }
+
+    private static class SilentListener implements ScraperListener {
+        @Override
+        public void updateUI(int jobOffersSize, int offerLinksSize, Boolean finished) {
+        }
+
+        @Override
+        public void updateOffersCount(int count) {
+        }
+
+        @Override
+        public void updateLinksCount(int count) {
+        }
+
+        @Override
+        public void finishScraping(int offersCount) {
+        }
+    }
+
+    // Szczytowe RSS: JVM (VmHWM z /proc) oraz JVM razem z procesami potomnymi (chromedriver, Chrome),
+    // próbkowane co 100 ms. Tylko Linux - na innych systemach brak danych.
+    private static class RssSampler {
+        private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rss-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private volatile long peakTotalKb;
+
+        void start() {
+            sampler.scheduleAtFixedRate(this::sample, 0, 100, TimeUnit.MILLISECONDS);
+        }
+
+        void stop() {
+            sampler.shutdownNow();
+        }
+
+        private void sample() {
+            long total = readStatusKb(ProcessHandle.current().pid(), "VmRSS:");
+            for (ProcessHandle child : ProcessHandle.current().descendants().toList()) {
+                total += Math.max(0, readStatusKb(child.pid(), "VmRSS:"));
+            }
+            peakTotalKb = Math.max(peakTotalKb, total);
+        }
+
+        String describe() {
+            long jvmPeakKb = readStatusKb(ProcessHandle.current().pid(), "VmHWM:");
+            if (jvmPeakKb < 0) {
+                return "n/a (no /proc)";
+            }
+            return String.format(Locale.ROOT, "JVM %.1f MB (high-water mark), JVM + browsers %.1f MB (sampled)", jvmPeakKb / 1024.0, peakTotalKb / 1024.0);
+        }
+
+        private static long readStatusKb(long pid, String field) {
+            try {
+                for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                    if (line.startsWith(field)) {
+                        return Long.parseLong(line.substring(field.length()).replace("kB", "").trim());
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // Proces zakończył się między listowaniem a odczytem albo system bez /proc
+            }
+            return -1;
+        }
+    }
+}
@@ -8,9 +8,13 @@ module org.jobscraper.jobscraper {
     requires org.seleniumhq.selenium.api;
     requires org.seleniumhq.selenium.chrome_driver;
     requires org.seleniumhq.selenium.support;
+    requires org.seleniumhq.selenium.remote_driver; // HasDevTools, DevTools, Connection
+    requires org.seleniumhq.selenium.http; // Połączenie DevTools w ChromeTabPool
+    requires org.seleniumhq.selenium.devtools_v135; // Blokowanie zasobów przez CDP (RequestBlocker)
     requires dev.failsafe.core;
     requires io.github.bonigarcia.webdrivermanager;
     requires com.google.gson;
+    requires jdk.management; // Pamięć i obciążenie systemu w ResourceGovernor
     requires org.slf4j; // Dodaj dla SLF4J
     requires org.slf4j.simple; // Dodaj dla slf4j-simple
 
@@ -0,0 +1,127 @@
+package org.jobscraper.jobscraper;
+
+import com.google.gson.Gson;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Czekanie na sygnały ze strony zamiast stałych pauz: obecność pól oferty, zmiana liczby linków i "cisza" w DOM
+// (brak zmian przez QUIET_MILLIS, mierzony przez MutationObserver). Jeden skrypt sprawdza wszystko naraz - jedno
+// wywołanie WebDriver na sprawdzenie, co POLL. Cel zaczynający się od "/" to XPath, pozostałe to selektory CSS.
+final class BrowserWaits {
+    static final Duration POLL = Duration.ofMillis(50); // Domyślne 500 ms WebDriverWait to średnio 250 ms straty na czekanie
+    static final long QUIET_MILLIS = 250; // Tyle bez zmian w DOM oznacza, że strona skończyła się renderować
+
+    private static final Gson GSON = new Gson();
+    private static final String PROBE = """
+            var targets = arguments[0], countSelector = arguments[1];
+            if (window.__jobscraperMutationAt === undefined && document.documentElement) {
+                window.__jobscraperMutationAt = performance.now();
+                new MutationObserver(function () { window.__jobscraperMutationAt = performance.now(); })
+                    .observe(document.documentElement, {childList: true, subtree: true, characterData: true});
+            }
+            function exists(target) {
+                if (target.charAt(0) === '/') {
+                    return document.evaluate(target, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue !== null;
+                }
+                return document.querySelector(target) !== null;
+            }
+            var found = 0, first = false;
+            for (var i = 0; i < targets.length; i++) {
+                if (exists(targets[i])) {
+                    found++;
+                    first = first || i === 0;
+                }
+            }
+            var now = performance.now();
+            var mutatedAt = window.__jobscraperMutationAt === undefined ? now : window.__jobscraperMutationAt;
+            return {found: found, first: first, count: countSelector ? document.querySelectorAll(countSelector).length : 0,
+                    now: now, mutatedAt: mutatedAt};
+            """;
+
+    // found - liczba obecnych celów, first - czy jest pierwszy z nich, count - liczba elementów countSelector
+    private record Probe(int found, boolean first, long count, double now, double mutatedAt) {
+        double quietMillis() {
+            return now - mutatedAt;
+        }
+    }
+
+    private BrowserWaits() {
+    }
+
+    // Strona szczegółów: najpierw musi pojawić się required (inaczej TimeoutException, jak przy WebDriverWait), potem wyjście,
+    // gdy są już wszystkie targets - albo gdy DOM się uspokoił, bo części pól w danej ofercie może po prostu nie być
+    static void untilFields(WebDriver driver, Duration timeout, String required, List<String> targets) {
+        List<String> all = fields(required, targets);
+        new WebDriverWait(driver, timeout, POLL).until(d -> fieldsReady(probe(d, all, null), all.size()));
+    }
+
+    // To samo dla karty z ChromeTabPool - skrypt wykonywany przez Runtime.evaluate
+    static void untilFields(ChromeTabPool.Tab tab, Duration timeout, String required, List<String> targets) {
+        List<String> all = fields(required, targets);
+        String expression = "(function () {" + PROBE + "}).apply(null, [" + GSON.toJson(all) + ", null])";
+        new FluentWait<>(tab).withTimeout(timeout).pollingEvery(POLL)
+                .until(t -> fieldsReady(toProbe(t.evaluate(expression)), all.size()));
+    }
+
+    private static List<String> fields(String required, List<String> targets) {
+        List<String> all = new ArrayList<>(targets.size() + 1);
+        all.add(required);
+        all.addAll(targets);
+        return all;
+    }
+
+    private static boolean fieldsReady(Probe probe, int fieldCount) {
+        return probe.first() && (probe.found() == fieldCount || probe.quietMillis() >= QUIET_MILLIS);
+    }
+
+    // Pierwsze wczytanie listingu: czekanie na co najmniej jeden element countSelector i uspokojenie DOM; false po timeout
+    static boolean untilContentLoaded(WebDriver driver, Duration timeout, String countSelector) {
+        try {
+            new WebDriverWait(driver, timeout, POLL).until(d -> {
+                Probe probe = probe(d, List.of(), countSelector);
+                return probe.count() > 0 && probe.quietMillis() >= QUIET_MILLIS;
+            });
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    // Przewinięcie o ekran i czekanie, aż doczytana treść się pojawi (zmiana liczby elementów countSelector albo jakakolwiek
+    // zmiana DOM) i DOM się uspokoi. false - przez timeout nic się nie zmieniło, prawdopodobnie koniec listy.
+    static boolean scrollAndWaitForContent(WebDriver driver, Duration timeout, String countSelector) {
+        Probe start = probe(driver, List.of(), countSelector);
+        ((JavascriptExecutor) driver).executeScript("window.scrollBy(0, window.innerHeight);");
+        try {
+            new WebDriverWait(driver, timeout, POLL).until(d -> {
+                Probe probe = probe(d, List.of(), countSelector);
+                boolean changed = probe.count() != start.count() || probe.mutatedAt() > start.now();
+                return changed && probe.quietMillis() >= QUIET_MILLIS;
+            });
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    private static Probe probe(WebDriver driver, List<String> targets, String countSelector) {
+        return toProbe(((JavascriptExecutor) driver).executeScript(PROBE, targets, countSelector));
+    }
+
+    private static Probe toProbe(Object result) {
+        if (!(result instanceof Map<?, ?> values)) {
+            return new Probe(0, false, 0, 0, 0); // Strona w trakcie nawigacji
+        }
+        return new Probe(((Number) values.get("found")).intValue(), Boolean.TRUE.equals(values.get("first")),
+                ((Number) values.get("count")).longValue(),
+                ((Number) values.get("now")).doubleValue(), ((Number) values.get("mutatedAt")).doubleValue());
+    }
+}
@@ -0,0 +1,517 @@
+package org.jobscraper.jobscraper;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.CdpEndpointFinder;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.idealized.target.model.SessionID;
+import org.openqa.selenium.devtools.v135.browser.model.BrowserContextID;
+import org.openqa.selenium.devtools.v135.network.Network;
+import org.openqa.selenium.devtools.v135.page.Page;
+import org.openqa.selenium.devtools.v135.runtime.Runtime;
+import org.openqa.selenium.devtools.v135.target.Target;
+import org.openqa.selenium.devtools.v135.target.model.TargetID;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Pula kart współdzielonych przeglądarek: jeden proces Chrome obsługuje do tabsPerBrowser stron naraz, każda karta ma własny
+// kontekst przeglądarki (osobne ciasteczka i storage, jak w trybie incognito) i własną sesję CDP na wspólnym połączeniu.
+// Karta po awarii albo po maxPagesPerTab stronach jest zamykana razem ze swoim kontekstem - pozostałe karty i proces działają dalej.
+// Proces jest zamykany dopiero wtedy, gdy zerwie się połączenie DevTools i zamknięte zostaną wszystkie jego karty.
+public class ChromeTabPool {
+    private static final int DEFAULT_MAX_PAGES_PER_TAB = 50;
+    private static final Duration COMMAND_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration NAVIGATION_TIMEOUT = Duration.ofSeconds(30);
+    private static final long GOVERNOR_WAIT_MILLIS = 250; // Co tyle ponawiana próba otwarcia karty, gdy brakuje pamięci
+    private static final long GOVERNOR_TIMEOUT_SECONDS = 120; // Dłużej bez zgody na przeglądarkę - błąd zamiast czekania bez końca
+
+    private final Semaphore semaphore; // Liczba kart wypożyczonych naraz
+    private final int tabsPerBrowser;
+    private final int maxPagesPerTab;
+    private final BlockingQueue<Tab> idleTabs = new LinkedBlockingQueue<>();
+    private final List<Browser> browsers = new ArrayList<>(); // Chroniona przez this
+    private volatile RequestBlocker requestBlocker;
+    private volatile ResourceGovernor governor; // null - procesy Chrome uruchamiane bez sprawdzania wolnej pamięci
+    private volatile boolean isShutdown = false;
+
+    // Statystyki puli
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong browsersCreated = new AtomicLong();
+    private final AtomicLong tabsCreated = new AtomicLong();
+    private final AtomicLong tabsRecycled = new AtomicLong();
+    private final AtomicLong tabsCrashed = new AtomicLong();
+
+    public ChromeTabPool(int maxTabs, int tabsPerBrowser) {
+        this(maxTabs, tabsPerBrowser, DEFAULT_MAX_PAGES_PER_TAB);
+    }
+
+    public ChromeTabPool(int maxTabs, int tabsPerBrowser, int maxPagesPerTab) {
+        if (maxTabs <= 0 || tabsPerBrowser <= 0) {
+            throw new IllegalArgumentException("Tab limits must be positive: " + maxTabs + ", " + tabsPerBrowser);
+        }
+        this.semaphore = new Semaphore(maxTabs, true);
+        this.tabsPerBrowser = tabsPerBrowser;
+        this.maxPagesPerTab = maxPagesPerTab;
+    }
+
+    // Blokowanie zbędnych zasobów w kartach; ustawiane przed pierwszym wypożyczeniem
+    public void setRequestBlocker(RequestBlocker requestBlocker) {
+        this.requestBlocker = requestBlocker;
+    }
+
+    // Zgoda na każdy nowy proces Chrome; ustawiane przed pierwszym wypożyczeniem
+    public void setResourceGovernor(ResourceGovernor governor) {
+        this.governor = governor;
+        if (governor != null) {
+            governor.addIdleBrowserReclaimer(this, this::closeIdleBrowsers);
+        }
+    }
+
+    // Wypożyczenie karty - blokuje, dopóki liczba otwartych stron nie spadnie poniżej limitu.
+    // blockingProfile jak w WebDriverPool.borrowDriver(String); null - bez blokowania
+    public Tab borrowTab(String blockingProfile) throws InterruptedException {
+        if (isShutdown) {
+            throw new IllegalStateException("Pool is shutdown");
+        }
+        semaphore.acquire();
+        borrowCount.incrementAndGet();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(GOVERNOR_TIMEOUT_SECONDS);
+            Tab tab = pollIdle(0);
+            while (tab == null) {
+                if (isShutdown) {
+                    throw new IllegalStateException("Pool is shutdown");
+                }
+                tab = openTab();
+                if (tab == null) {
+                    if (System.nanoTime() - deadline > 0) {
+                        throw new IllegalStateException("No browser allowed by the resource governor within " + GOVERNOR_TIMEOUT_SECONDS + " s");
+                    }
+                    // Wszystkie przeglądarki pełne, a nowa nie zmieści się w pamięci - czekamy na zwolnioną kartę
+                    tab = pollIdle(GOVERNOR_WAIT_MILLIS);
+                }
+            }
+            try {
+                tab.applyBlocking(requestBlocker, blockingProfile);
+            } catch (RuntimeException e) {
+                // Karta nie przyjęła komendy - zamykana jak po awarii, żeby proces nie trzymał miejsca na zawsze
+                tabsCrashed.incrementAndGet();
+                closeTab(tab);
+                throw e;
+            }
+            tab.borrowed = true;
+            return tab;
+        } catch (RuntimeException | InterruptedException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    private Tab pollIdle(long timeoutMillis) throws InterruptedException {
+        Tab tab;
+        while ((tab = idleTabs.poll(timeoutMillis, TimeUnit.MILLISECONDS)) != null && (tab.browser.broken || tab.browser.retiring)) {
+            closeTab(tab); // Połączenie z procesem zerwane w trakcie bezczynności karty albo proces do zamknięcia
+        }
+        return tab;
+    }
+
+    // Zwrot sprawnej karty po obsłużeniu strony
+    public void returnTab(Tab tab) {
+        release(tab, false);
+    }
+
+    // Zwrot karty, która uległa awarii - zostanie zamknięta razem z kontekstem, proces przeglądarki zostaje
+    public void invalidateTab(Tab tab) {
+        release(tab, true);
+    }
+
+    private void release(Tab tab, boolean crashed) {
+        if (tab == null || !tab.borrowed) {
+            return;
+        }
+        tab.borrowed = false;
+        try {
+            int served = tab.pagesServed.incrementAndGet();
+            if (isShutdown || tab.browser.broken) {
+                closeTab(tab);
+            } else if (crashed) {
+                tabsCrashed.incrementAndGet();
+                closeTab(tab);
+            } else if (served >= maxPagesPerTab) {
+                tabsRecycled.incrementAndGet();
+                closeTab(tab);
+            } else if (governor != null && governor.shouldRetireBrowser()) {
+                // Za mało pamięci na tyle procesów - karty tego procesu nie wracają do puli, aż będzie go można zamknąć
+                tab.browser.retiring = true;
+                tabsRecycled.incrementAndGet();
+                closeTab(tab);
+            } else if (tab.reset()) {
+                idleTabs.offer(tab);
+            } else {
+                tabsCrashed.incrementAndGet();
+                closeTab(tab);
+            }
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    // Nowa karta w przeglądarce, która ma wolne miejsce; nowy proces Chrome, gdy wszystkie są pełne.
+    // Pod blokadą jest tylko rezerwacja miejsca na kartę - uruchomienie procesu i komendy CDP idą już bez niej,
+    // a wątki, które zarezerwowały kartę w uruchamianym procesie, czekają tylko na ten proces.
+    // null - potrzebny byłby nowy proces, a ResourceGovernor na niego nie pozwala
+    private Tab openTab() throws InterruptedException {
+        Browser browser = null;
+        boolean launch = false;
+        ResourceGovernor resources = governor;
+        synchronized (this) {
+            for (Browser candidate : browsers) {
+                if (!candidate.broken && !candidate.retiring && candidate.openTabs < tabsPerBrowser) {
+                    browser = candidate;
+                    break;
+                }
+            }
+            if (browser == null && (resources == null || resources.tryAcquireBrowser())) {
+                browser = new Browser();
+                browsers.add(browser);
+                launch = true;
+            }
+            if (browser != null) {
+                browser.openTabs++; // Miejsce zarezerwowane - zwalniane w closeTab albo releaseSlot
+            }
+        }
+        if (browser == null) {
+            resources.reclaimIdleBrowsers(this); // Procesy zamknięte w innych pulach zwolnią miejsce dla kolejnej próby
+            return null;
+        }
+        try {
+            if (launch) {
+                startBrowser(browser);
+            } else {
+                browser.awaitStarted();
+            }
+            return createTab(browser);
+        } catch (RuntimeException | InterruptedException e) {
+            if (launch) {
+                // Nowy proces bez działającej karty - zamykany od razu, razem z pozwoleniem ResourceGovernor
+                browser.broken = true;
+            }
+            releaseSlot(browser);
+            throw e;
+        }
+    }
+
+    private Tab createTab(Browser browser) {
+        BrowserContextID context = browser.send(null, Target.createBrowserContext(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty()), COMMAND_TIMEOUT);
+        try {
+            TargetID target = browser.send(null, Target.createTarget("about:blank", Optional.empty(), Optional.empty(), Optional.empty(),
+                    Optional.empty(), Optional.empty(), Optional.of(context), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty()), COMMAND_TIMEOUT);
+            // flatten - komendy karty idą tym samym połączeniem, z identyfikatorem sesji
+            SessionID session = new SessionID(browser.send(null, Target.attachToTarget(target, Optional.of(true)), COMMAND_TIMEOUT).toString());
+            browser.send(session, Network.enable(Optional.empty(), Optional.empty(), Optional.empty()), COMMAND_TIMEOUT);
+            tabsCreated.incrementAndGet();
+            return new Tab(browser, context, target, session);
+        } catch (RuntimeException e) {
+            browser.disposeContext(context);
+            throw e;
+        }
+    }
+
+    private void startBrowser(Browser browser) {
+        try {
+            WebDriverPool.ensureDriverBinary();
+            ChromeOptions options = new ChromeOptions();
+            options.addArguments("--disable-dev-shm-usage"); // dla stabilności
+            options.addArguments("--no-sandbox"); // dla stabilności
+            options.addArguments("--headless"); // zaoszczędzenie zasobów
+            options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+            ChromeDriver driver = new ChromeDriver(options);
+            try {
+                // Własne połączenie z punktem DevTools całej przeglądarki - sesja WebDriver zostaje tylko do zamknięcia procesu
+                HttpClient.Factory factory = HttpClient.Factory.createDefault();
+                URI reported = CdpEndpointFinder.getReportedUri(((HasCapabilities) driver).getCapabilities())
+                        .orElseThrow(() -> new WebDriverException("Chrome did not report a DevTools address"));
+                URI endpoint = CdpEndpointFinder.getCdpEndPoint(CdpEndpointFinder.getHttpClient(factory, reported))
+                        .orElseThrow(() -> new WebDriverException("No DevTools endpoint at " + reported));
+                Connection connection = new Connection(factory.createClient(ClientConfig.defaultConfig().baseUri(endpoint)), endpoint.toString());
+                RequestBlocker blocker = requestBlocker;
+                if (blocker != null) {
+                    blocker.listen(connection);
+                }
+                browsersCreated.incrementAndGet();
+                System.out.println("[ChromeTabPool] Started Chrome instance #" + browsersCreated.get() + " for up to " + tabsPerBrowser + " tabs");
+                browser.started(driver, connection);
+            } catch (RuntimeException e) {
+                driver.quit();
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            browser.failed(e); // Wątki czekające na ten proces dostają ten sam błąd
+            throw e;
+        }
+    }
+
+    // Zwolnienie miejsca po karcie; proces bez kart jest zamykany, jeśli jest uszkodzony, wycofywany albo pula jest zamknięta
+    private void releaseSlot(Browser browser) {
+        synchronized (this) {
+            browser.openTabs--;
+            if (browser.openTabs > 0 || !(browser.broken || browser.retiring || isShutdown)) {
+                return;
+            }
+            browsers.remove(browser);
+        }
+        quit(browser);
+    }
+
+    private void closeTab(Tab tab) {
+        Browser browser = tab.browser;
+        if (!browser.broken) {
+            try {
+                browser.send(null, Target.closeTarget(tab.target), COMMAND_TIMEOUT);
+            } catch (RuntimeException e) {
+                browser.broken = true; // Nie da się zamknąć karty - połączenie albo cały proces padł
+                System.err.println("[ChromeTabPool] Browser connection lost: " + e.getMessage());
+            }
+            browser.disposeContext(tab.context);
+        }
+        releaseSlot(browser);
+    }
+
+    // Zamknięcie procesów Chrome, których wszystkie karty są bezczynne - na prośbę ResourceGovernor, gdy inna pula
+    // (np. sesja listingu JustJoin.it w WebDriverPool) nie może uruchomić przeglądarki; true - coś zamknięto
+    private boolean closeIdleBrowsers() {
+        List<Tab> idle = new ArrayList<>();
+        idleTabs.drainTo(idle);
+        List<Tab> toClose = new ArrayList<>();
+        synchronized (this) {
+            Map<Browser, Integer> idleByBrowser = new IdentityHashMap<>();
+            for (Tab tab : idle) {
+                idleByBrowser.merge(tab.browser, 1, Integer::sum);
+            }
+            for (Tab tab : idle) {
+                // Wszystkie otwarte i zarezerwowane karty procesu leżą w puli - nikt go teraz nie używa
+                if (tab.browser.retiring || idleByBrowser.get(tab.browser) == tab.browser.openTabs) {
+                    tab.browser.retiring = true;
+                    toClose.add(tab);
+                }
+            }
+        }
+        for (Tab tab : idle) {
+            if (!toClose.contains(tab)) {
+                idleTabs.offer(tab);
+            }
+        }
+        toClose.forEach(this::closeTab);
+        return !toClose.isEmpty();
+    }
+
+    public Stats getStats() {
+        int browserCount;
+        synchronized (this) {
+            browserCount = browsers.size();
+        }
+        return new Stats(borrowCount.get(), browsersCreated.get(), browserCount, tabsCreated.get(), tabsRecycled.get(),
+                tabsCrashed.get(), idleTabs.size());
+    }
+
+    public void shutdown() {
+        isShutdown = true;
+        ResourceGovernor resources = governor;
+        if (resources != null) {
+            resources.removeIdleBrowserReclaimer(this);
+        }
+        Tab tab;
+        while ((tab = idleTabs.poll()) != null) {
+            closeTab(tab);
+        }
+        // Wypożyczone karty zostaną zamknięte przy zwrocie; przeglądarki bez kart zamykamy od razu, już poza blokadą
+        List<Browser> idleBrowsers = new ArrayList<>();
+        synchronized (this) {
+            browsers.removeIf(browser -> {
+                if (browser.openTabs == 0) {
+                    idleBrowsers.add(browser);
+                    return true;
+                }
+                return false;
+            });
+        }
+        idleBrowsers.forEach(this::quit);
+    }
+
+    private void quit(Browser browser) {
+        browser.quit();
+        ResourceGovernor resources = governor;
+        if (resources != null) {
+            resources.releaseBrowser();
+        }
+    }
+
+    // Migawka statystyk; browsers - procesy Chrome działające w tej chwili
+    public record Stats(long borrows, long browsersCreated, int browsers, long tabsCreated, long tabsRecycled,
+                        long tabsCrashed, int idle) {
+        @Override
+        public String toString() {
+            return String.format("borrows=%d, browsersCreated=%d, browsers=%d, tabsCreated=%d, tabsRecycled=%d, tabsCrashed=%d, idle=%d",
+                    borrows, browsersCreated, browsers, tabsCreated, tabsRecycled, tabsCrashed, idle);
+        }
+    }
+
+    private static final class Browser {
+        private final CompletableFuture<Void> ready = new CompletableFuture<>(); // Zakończone po uruchomieniu procesu
+        private volatile ChromeDriver driver;
+        private volatile Connection connection;
+        int openTabs; // Zarezerwowane i otwarte karty; chronione przez pulę
+        volatile boolean broken;
+        volatile boolean retiring; // Bez nowych kart - proces zostanie zamknięty po zamknięciu ostatniej
+
+        void started(ChromeDriver driver, Connection connection) {
+            this.driver = driver;
+            this.connection = connection;
+            ready.complete(null);
+        }
+
+        void failed(RuntimeException e) {
+            broken = true;
+            ready.completeExceptionally(e);
+        }
+
+        // Czekanie na uruchomienie procesu przez wątek, który zarezerwował w nim pierwszą kartę
+        void awaitStarted() throws InterruptedException {
+            try {
+                ready.get();
+            } catch (ExecutionException e) {
+                throw new WebDriverException("Chrome failed to start: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        // sessionId null - komenda dla całej przeglądarki (Target.*)
+        <X> X send(SessionID sessionId, Command<X> command, Duration timeout) {
+            return connection.sendAndWait(sessionId, command, timeout);
+        }
+
+        void disposeContext(BrowserContextID context) {
+            try {
+                send(null, Target.disposeBrowserContext(context), COMMAND_TIMEOUT);
+            } catch (RuntimeException ignored) {
+                // Kontekst zniknie razem z procesem
+            }
+        }
+
+        void quit() {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (RuntimeException ignored) {
+                }
+            }
+            if (driver == null) {
+                return; // Proces się nie uruchomił
+            }
+            try {
+                driver.quit();
+            } catch (RuntimeException e) {
+                System.err.println("[ChromeTabPool] Error closing browser: " + e.getMessage());
+            }
+        }
+    }
+
+    // Karta wypożyczona jednemu wątkowi. Błędy komend są zgłaszane jako WebDriverException (awaria karty),
+    // a upływ czasu w BrowserWaits jako TimeoutException - tak samo jak przy sesjach z WebDriverPool.
+    public static final class Tab {
+        private final Browser browser;
+        private final BrowserContextID context;
+        private final TargetID target;
+        private final SessionID session;
+        private final AtomicInteger pagesServed = new AtomicInteger();
+        private volatile boolean borrowed;
+        private List<String> blockedUrls = List.of();
+
+        private Tab(Browser browser, BrowserContextID context, TargetID target, SessionID session) {
+            this.browser = browser;
+            this.context = context;
+            this.target = target;
+            this.session = session;
+        }
+
+        // Przejście na stronę; wraca po otrzymaniu odpowiedzi, na treść czekają BrowserWaits
+        public void navigate(String url) {
+            Page.NavigateResponse response = send(Page.navigate(url, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty()), NAVIGATION_TIMEOUT);
+            if (response.getErrorText().isPresent() && !response.getErrorText().get().isEmpty()) {
+                throw new IllegalStateException("Navigation to " + url + " failed: " + response.getErrorText().get());
+            }
+        }
+
+        // Wynik wyrażenia JavaScript jako wartość JSON (Map, List, String, Number, Boolean) albo null
+        public Object evaluate(String expression) {
+            Runtime.EvaluateResponse response = send(Runtime.evaluate(expression, Optional.empty(), Optional.empty(), Optional.of(true),
+                    Optional.empty(), Optional.of(true), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                    Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty()), COMMAND_TIMEOUT);
+            if (response.getExceptionDetails().isPresent()) {
+                throw new WebDriverException("Script failed: " + response.getExceptionDetails().get().getText());
+            }
+            return response.getResult().getValue().orElse(null);
+        }
+
+        // Aktualny DOM strony (po wykonaniu skryptów) - do rozbioru przez Jsoup
+        public String html() {
+            Object html = evaluate("document.documentElement.outerHTML");
+            return html != null ? html.toString() : "";
+        }
+
+        private void applyBlocking(RequestBlocker blocker, String profile) {
+            if (blocker == null) {
+                return;
+            }
+            blocker.countPage();
+            List<String> urls = blocker.blockedUrls(profile);
+            if (!urls.equals(blockedUrls)) {
+                send(Network.setBlockedURLs(urls), COMMAND_TIMEOUT);
+                blockedUrls = urls;
+            }
+        }
+
+        // Czyszczenie stanu między stronami - jak WebDriverPool.resetState
+        private boolean reset() {
+            try {
+                send(Network.clearBrowserCookies(), COMMAND_TIMEOUT);
+                evaluate("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+                navigate("about:blank");
+                return true;
+            } catch (RuntimeException e) {
+                System.err.println("[ChromeTabPool] Failed to reset tab state: " + e.getMessage());
+                return false;
+            }
+        }
+
+        private <X> X send(Command<X> command, Duration timeout) {
+            try {
+                return browser.send(session, command, timeout);
+            } catch (WebDriverException e) {
+                throw e instanceof org.openqa.selenium.TimeoutException
+                        ? new WebDriverException("Tab did not respond: " + e.getMessage(), e) : e;
+            } catch (RuntimeException e) {
+                throw new WebDriverException("Tab command failed: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.jobscraper.jobscraper;
+
+import com.opencsv.CSVWriter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Strumieniowy eksport ofert do CSV: wiersze są zapisywane w miarę scrapowania,
+// a bufor jest opróżniany co określoną liczbę wierszy albo po upływie czasu
+public class CsvExportSink implements Closeable {
+    static final String[] HEADER = {"Title", "Company", "Salary", "Location", "Type of Work", "Experience", "Operating Mode", "URL"};
+    public static final int DEFAULT_FLUSH_EVERY_ROWS = 50;
+    private static final long FLUSH_INTERVAL_MILLIS = 2000; // Przy wolnym scrapowaniu wiersze i tak trafiają na dysk co 2 s
+
+    private final CSVWriter csvWriter;
+    private final int flushEveryRows;
+    private int rowsWritten;
+    private int rowsSinceFlush;
+    private long lastFlushMillis = System.currentTimeMillis();
+    private boolean closed;
+
+    public CsvExportSink(Path file) throws IOException {
+        this(Files.newBufferedWriter(file, StandardCharsets.UTF_8), DEFAULT_FLUSH_EVERY_ROWS);
+    }
+
+    public CsvExportSink(Writer writer, int flushEveryRows) {
+        this.csvWriter = new CSVWriter(writer instanceof BufferedWriter ? writer : new BufferedWriter(writer));
+        this.flushEveryRows = Math.max(1, flushEveryRows);
+        csvWriter.writeNext(HEADER);
+    }
+
+    public synchronized void write(JobOffer offer) throws IOException {
+        if (closed || offer == null) {
+            return;
+        }
+        csvWriter.writeNext(new String[]{
+                nullToEmpty(offer.getTitle()),
+                nullToEmpty(offer.getCompany()),
+                nullToEmpty(offer.getSalary()),
+                nullToEmpty(offer.getLocation()),
+                nullToEmpty(offer.getTypeOfWork()),
+                nullToEmpty(offer.getExperience()),
+                nullToEmpty(offer.getOperatingMode()),
+                nullToEmpty(offer.getUrl())
+        });
+        rowsWritten++;
+        rowsSinceFlush++;
+        long now = System.currentTimeMillis();
+        if (rowsSinceFlush >= flushEveryRows || now - lastFlushMillis >= FLUSH_INTERVAL_MILLIS) {
+            flush();
+        }
+    }
+
+    public synchronized void writeAll(Iterable<JobOffer> offers) throws IOException {
+        for (JobOffer offer : offers) {
+            write(offer);
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        if (closed) {
+            return;
+        }
+        csvWriter.flush();
+        rowsSinceFlush = 0;
+        lastFlushMillis = System.currentTimeMillis();
+    }
+
+    public synchronized int getRowsWritten() {
+        return rowsWritten;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            csvWriter.close();
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
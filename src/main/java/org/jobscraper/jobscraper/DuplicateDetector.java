@@ -0,0 +1,226 @@
+package org.jobscraper.jobscraper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Wykrywanie tej samej oferty opublikowanej w kilku serwisach - na podstawie danych z kafelków listingu,
+// zanim zostanie pobrana strona szczegółów. Odcisk oferty to znormalizowana firma i miasto (muszą się zgadzać dokładnie)
+// oraz SimHash tytułu, porównywany z tolerancją - "Java Developer (K/M)" i "Programista Java" z innego serwisu to ta sama oferta.
+// Porównywane są tylko oferty z różnych serwisów; w obrębie jednego serwisu duplikaty usuwa LinkFrontier po URL.
+public final class DuplicateDetector {
+    public static final int DEFAULT_MAX_DISTANCE = 10; // Maksymalna liczba różnych bitów SimHash (z 64) dla tego samego tytułu
+
+    // Końcówki nazw firm pomijane przy porównaniu: "Example Sp. z o.o." i "Example" to ta sama firma
+    private static final Set<String> COMPANY_SUFFIXES = Set.of(
+            "sp", "z", "o", "oo", "s", "a", "sa", "k", "j", "spk", "spj", "spolka", "akcyjna", "komandytowa", "jawna",
+            "ograniczona", "ograniczonej", "odpowiedzialnoscia", "odpowiedzialnosci", "gmbh", "ag", "inc", "ltd", "llc",
+            "plc", "bv", "poland", "polska", "group");
+    // Polskie i angielskie nazwy stanowisk z listingu jednego i drugiego serwisu
+    private static final Map<String, String> TITLE_SYNONYMS = Map.ofEntries(
+            Map.entry("programista", "developer"),
+            Map.entry("programistka", "developer"),
+            Map.entry("dev", "developer"),
+            Map.entry("inzynier", "engineer"),
+            Map.entry("mlodszy", "junior"),
+            Map.entry("mlodsza", "junior"),
+            Map.entry("jr", "junior"),
+            Map.entry("starszy", "senior"),
+            Map.entry("starsza", "senior"),
+            Map.entry("sr", "senior"),
+            Map.entry("specjalista", "specialist"),
+            Map.entry("kierownik", "manager"),
+            Map.entry("tester", "qa"),
+            Map.entry("testerka", "qa"));
+    // Poziom stanowiska musi się zgadzać dokładnie - w SimHash jedno słowo krótkiego tytułu zmienia za mało bitów
+    private static final Map<String, String> SENIORITY = Map.ofEntries(
+            Map.entry("intern", "intern"),
+            Map.entry("stazysta", "intern"),
+            Map.entry("trainee", "intern"),
+            Map.entry("junior", "junior"),
+            Map.entry("mid", "mid"),
+            Map.entry("regular", "mid"),
+            Map.entry("senior", "senior"),
+            Map.entry("lead", "lead"),
+            Map.entry("principal", "principal"),
+            Map.entry("staff", "principal"),
+            Map.entry("head", "head"));
+    // Oznaczenia płci w tytułach, np. "(K/M)", "(m/f/d)"
+    private static final Set<String> GENDER_MARKERS = Set.of("k", "m", "f", "d", "x", "n", "w", "kmx", "mfd", "mkx", "mwd");
+
+    // Odcisk oferty; key - firma, miasto, poziom i liczby z tytułu (np. "Java 17"), titleHash - SimHash pozostałych słów tytułu
+    public record Fingerprint(String key, long titleHash) {
+    }
+
+    private record Registered(String site, String url, long titleHash) {
+    }
+
+    private final int maxDistance;
+    private final Map<String, List<Registered>> buckets = new ConcurrentHashMap<>(); // Oferty o tej samej firmie i mieście
+    private final Map<String, String> canonicalByUrl = new ConcurrentHashMap<>(); // URL duplikatu -> URL oferty, która zostaje
+    private final Map<String, List<String>> alternatesByUrl = new ConcurrentHashMap<>(); // URL oferty -> URL-e duplikatów
+    private final Set<String> registeredUrls = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger duplicates = new AtomicInteger();
+
+    public DuplicateDetector() {
+        this(DEFAULT_MAX_DISTANCE);
+    }
+
+    public DuplicateDetector(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    // Rejestracja oferty z kafelka. Zwraca URL wcześniej zarejestrowanej oferty z innego serwisu, jeśli to prawdopodobnie ta sama
+    // oferta (wtedy szczegółów nie trzeba pobierać), albo null - oferta jest nowa lub brakuje danych do porównania.
+    public String register(String site, String url, String title, String company, String city) {
+        if (url == null || !registeredUrls.add(url)) {
+            return canonicalByUrl.get(url);
+        }
+        Fingerprint fingerprint = fingerprint(title, company, city);
+        if (fingerprint == null) {
+            return null;
+        }
+        List<Registered> bucket = buckets.computeIfAbsent(fingerprint.key(), key -> new ArrayList<>());
+        synchronized (bucket) { // Sprawdzenie i dopisanie razem - dwa serwisy nie uznają się nawzajem za duplikat
+            for (Registered registered : bucket) {
+                if (!registered.site().equals(site) && Long.bitCount(registered.titleHash() ^ fingerprint.titleHash()) <= maxDistance) {
+                    canonicalByUrl.put(url, registered.url());
+                    alternatesByUrl.computeIfAbsent(registered.url(), key -> new CopyOnWriteArrayList<>()).add(url);
+                    duplicates.incrementAndGet();
+                    return registered.url();
+                }
+            }
+            bucket.add(new Registered(site, url, fingerprint.titleHash()));
+        }
+        return null;
+    }
+
+    // Adresy tej samej oferty w innych serwisach (pominięte przy pobieraniu szczegółów)
+    public List<String> alternateUrls(String url) {
+        List<String> alternates = alternatesByUrl.get(url);
+        return alternates != null ? List.copyOf(alternates) : List.of();
+    }
+
+    // Liczba ofert pominiętych jako duplikaty
+    public int getDuplicates() {
+        return duplicates.get();
+    }
+
+    // null, gdy brakuje tytułu, firmy albo miasta - bez nich ryzyko pomyłki jest zbyt duże
+    public static Fingerprint fingerprint(String title, String company, String city) {
+        List<String> titleTokens = titleTokens(title);
+        String normalizedCompany = normalizeCompany(company);
+        String normalizedCity = normalizeCity(city);
+        if (titleTokens.isEmpty() || normalizedCompany.isEmpty() || normalizedCity.isEmpty()) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(normalizedCompany).append('|').append(normalizedCity);
+        List<String> words = new ArrayList<>(titleTokens.size());
+        for (String token : titleTokens) {
+            if (Character.isDigit(token.charAt(0))) {
+                key.append('|').append(token); // "Level 2" i "Level 3" to różne stanowiska - liczby muszą się zgadzać
+            } else if (SENIORITY.containsKey(token)) {
+                key.append('|').append(SENIORITY.get(token));
+            } else {
+                words.add(token);
+            }
+        }
+        return new Fingerprint(key.toString(), simHash(words.isEmpty() ? titleTokens : words));
+    }
+
+    // SimHash po trygramach znaków każdego słowa - literówki i odmiany ("developer"/"developers") zmieniają tylko część bitów
+    static long simHash(List<String> tokens) {
+        int[] weights = new int[64];
+        for (String token : tokens) {
+            String padded = " " + token + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                long hash = fnv1a(padded, i, i + 3);
+                for (int bit = 0; bit < 64; bit++) {
+                    weights[bit] += ((hash >>> bit) & 1) != 0 ? 1 : -1;
+                }
+            }
+        }
+        long result = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                result |= 1L << bit;
+            }
+        }
+        return result;
+    }
+
+    private static long fnv1a(String text, int from, int to) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        // Dodatkowe wymieszanie bitów - FNV na trzech znakach słabo rozprasza wyższe bity
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    // Słowa tytułu bez oznaczeń płci, z ujednoliconymi nazwami stanowisk, posortowane - kolejność słów nie ma znaczenia
+    static List<String> titleTokens(String title) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : words(title)) {
+            if (GENDER_MARKERS.contains(token)) {
+                continue;
+            }
+            tokens.add(TITLE_SYNONYMS.getOrDefault(token, token));
+        }
+        tokens.sort(null);
+        return tokens;
+    }
+
+    static String normalizeCompany(String company) {
+        List<String> tokens = words(company);
+        int end = tokens.size();
+        while (end > 1 && COMPANY_SUFFIXES.contains(tokens.get(end - 1))) {
+            end--;
+        }
+        return String.join(" ", tokens.subList(0, end));
+    }
+
+    // Pierwsza część lokalizacji: "Kraków, Podgórze" -> "krakow"
+    static String normalizeCity(String city) {
+        if (city == null) {
+            return "";
+        }
+        int end = city.length();
+        for (char separator : new char[]{',', '(', ';', '/'}) {
+            int index = city.indexOf(separator);
+            if (index >= 0) {
+                end = Math.min(end, index);
+            }
+        }
+        return String.join(" ", words(city.substring(0, end)));
+    }
+
+    // Małe litery bez polskich znaków, podział na wszystkim, co nie jest literą ani cyfrą; wartości zastępcze jak "No data" to brak danych
+    private static List<String> words(String text) {
+        if (JobOffer.isPlaceholder(text)) {
+            return List.of();
+        }
+        String ascii = Scraper.replacePolishLetters(text).toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= ascii.length(); i++) {
+            boolean wordChar = i < ascii.length() && Character.isLetterOrDigit(ascii.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(ascii.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
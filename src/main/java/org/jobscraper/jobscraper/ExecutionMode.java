@@ -0,0 +1,29 @@
+package org.jobscraper.jobscraper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Sposób uruchamiania pracy scrapera: stała pula wątków platformowych albo wątki wirtualne.
+// Przy wątkach wirtualnych współbieżność ogranicza HostRateLimiter (i pula przeglądarek), a nie liczba wątków.
+public enum ExecutionMode {
+    FIXED_POOL,
+    VIRTUAL_THREADS;
+
+    // Pula wykonująca pobieranie szczegółów ofert
+    public ExecutorService newWorkerExecutor(int fixedPoolSize) {
+        if (this == VIRTUAL_THREADS) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("scraper-worker-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(fixedPoolSize);
+    }
+
+    // Wątek pomocniczy (zbieranie linków, zarządzanie procesem) - nie blokuje zamknięcia programu
+    public Thread newThread(String name, Runnable task) {
+        if (this == VIRTUAL_THREADS) {
+            return Thread.ofVirtual().name(name).unstarted(task); // Wątki wirtualne są zawsze typu daemon
+        }
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -13,25 +13,48 @@ import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-
-public class HelloApplication extends Application {
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HelloApplication extends Application implements ScraperListener {
     private TextField keywordsField;
     private TextField locationField;
     private TextField distanceField;
     private CheckBox scrapePracujCheckBox;
     private CheckBox scrapeJustJoinItCheckBox;
+    private CheckBox exportOnlyNewCheckBox;
+    private CheckBox streamCsvCheckBox;
+    private CheckBox shallowCheckBox;
+    private CheckBox resumeCheckBox;
     private Label offersCountLabel;
     private Label linksCountLabel;
     private Label timeRemainingLabel;
     private Button startButton;
     private Button cancelButton;
     private Button exportButton;
+    private Button metricsButton;
     private ProgressBar scrapingProgressBar;
     private Scraper scraper;
     private Stage primaryStage;
-    private Boolean finished = true;
+    private volatile Boolean finished = true;
+
+    // Postęp zbierany bez blokad z wątków scrapera i publikowany do UI w stałym rytmie -
+    // w kolejce FX jest najwyżej jedna aktualizacja, niezależnie od liczby pobieranych ofert
+    private static final long FRAME_MILLIS = 100;
+    private final AtomicInteger scrapedOffers = new AtomicInteger();
+    private final AtomicInteger collectedLinks = new AtomicInteger();
+    private final AtomicInteger progressTotal = new AtomicInteger();
+    private final AtomicBoolean progressDirty = new AtomicBoolean();
+    private final AtomicBoolean frameInFlight = new AtomicBoolean();
+    private final ThroughputEstimator throughput = new ThroughputEstimator();
+    private volatile boolean scrapingActive;
+    private ScheduledExecutorService progressPublisher;
 
     @Override
     public void start(Stage stage) {
@@ -63,15 +86,30 @@ public class HelloApplication extends Application {
         scrapeJustJoinItCheckBox = new CheckBox("JustJoin.it");
         scrapeJustJoinItCheckBox.setId("scrapeJustJoinItCheckBox");
 
+        exportOnlyNewCheckBox = new CheckBox("Eksportuj tylko nowe oferty");
+        exportOnlyNewCheckBox.setId("exportOnlyNewCheckBox");
+
+        streamCsvCheckBox = new CheckBox("Zapisuj oferty do CSV na bieżąco");
+        streamCsvCheckBox.setId("streamCsvCheckBox");
+
+        shallowCheckBox = new CheckBox("Szybki tryb: dane z listy ofert (strona oferty tylko przy brakujących danych)");
+        shallowCheckBox.setId("shallowCheckBox");
+
+        resumeCheckBox = new CheckBox("Wznów przerwane wyszukiwanie (pomiń pobrane już oferty)");
+        resumeCheckBox.setId("resumeCheckBox");
+
         startButton = new Button("Start");
         startButton.setId("startButton");
         cancelButton = new Button("Cancel");
         cancelButton.setId("cancelButton");
         exportButton = new Button("Export CSV");
+        metricsButton = new Button("Zapisz metryki");
+        metricsButton.setId("metricsButton");
         cancelButton.setId("exportButton");
 
         cancelButton.setDisable(true);
         exportButton.setDisable(true);
+        metricsButton.setDisable(true);
 
         offersCountLabel = new Label("Liczba ofert: 0");
         offersCountLabel.setId("offersCountLabel");
@@ -100,11 +138,15 @@ public class HelloApplication extends Application {
         gridPane.add(scrapeLabel, 0, 3);
         gridPane.add(scrapePracujCheckBox, 1, 3);
         gridPane.add(scrapeJustJoinItCheckBox, 1, 4);
+        gridPane.add(exportOnlyNewCheckBox, 1, 5);
+        gridPane.add(streamCsvCheckBox, 1, 6);
+        gridPane.add(shallowCheckBox, 1, 7);
+        gridPane.add(resumeCheckBox, 1, 8);
 
         // Create button container
         HBox buttonBox = new HBox(10);
         buttonBox.setAlignment(Pos.CENTER);
-        buttonBox.getChildren().addAll(startButton, cancelButton, exportButton);
+        buttonBox.getChildren().addAll(startButton, cancelButton, exportButton, metricsButton);
 
         // Create status container
         VBox statusBox = new VBox(5);
@@ -126,6 +168,14 @@ public class HelloApplication extends Application {
         startButton.setOnAction(e -> startScraping());
         cancelButton.setOnAction(e -> cancelScraping());
         exportButton.setOnAction(e -> exportToCsv());
+        metricsButton.setOnAction(e -> dumpMetrics());
+
+        progressPublisher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ui-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progressPublisher.scheduleAtFixedRate(this::publishProgressFrame, FRAME_MILLIS, FRAME_MILLIS, TimeUnit.MILLISECONDS);
     }
 
     private void startScraping() {
@@ -133,46 +183,51 @@ public class HelloApplication extends Application {
             showAlert("Validation Error", "Please select at least one website to scrape.");
             return;
         }
+        // Eksport strumieniowy - plik wybierany przed startem, wiersze zapisywane w trakcie scrapowania
+        CsvExportSink exportSink = null;
+        if (streamCsvCheckBox.isSelected()) {
+            File file = chooseCsvFile();
+            if (file == null) {
+                return;
+            }
+            try {
+                exportSink = new CsvExportSink(file.toPath());
+            } catch (IOException e) {
+                showAlert("Export Error", "Failed to open file: " + e.getMessage());
+                return;
+            }
+        }
+
         finished = false;
+        scrapedOffers.set(0);
+        collectedLinks.set(0);
+        progressTotal.set(0);
+        throughput.reset();
+        scrapingActive = true;
         startButton.setDisable(true);
         cancelButton.setDisable(false);
         exportButton.setDisable(true);
         timeRemainingLabel.setText("Status: Scraping...");
 
         scraper = new Scraper(
-                replacePolishLetters(keywordsField.getText()).toLowerCase(),
-                replacePolishLetters(locationField.getText()).toLowerCase(),
+                Scraper.replacePolishLetters(keywordsField.getText()).toLowerCase(),
+                Scraper.replacePolishLetters(locationField.getText()).toLowerCase(),
                 distanceGetText(),
                 scrapePracujCheckBox.isSelected(),
                 scrapeJustJoinItCheckBox.isSelected(),
                 this
         );
-        scraper.startScraping();
-    }
-    private String replacePolishLetters(String text) {
-        if (text == null) {
-            return null;
+        if (exportSink != null) {
+            scraper.setExportSink(exportSink, exportOnlyNewCheckBox.isSelected());
+        }
+        if (shallowCheckBox.isSelected()) {
+            // Oferty z niepełnym kafelkiem i tak są otwierane, żeby nie brakowało pól w eksporcie
+            scraper.setScrapeDepth(ScrapeDepth.SHALLOW_WITH_DEEP_FILL);
         }
-        return text.replace("ą", "a")
-                   .replace("ć", "c")
-                   .replace("ę", "e")
-                   .replace("ł", "l")
-                   .replace("ń", "n")
-                   .replace("ó", "o")
-                   .replace("ś", "s")
-                   .replace("ź", "z")
-                   .replace("ż", "z")
-                   .replace("Ą", "A")
-                   .replace("Ć", "C")
-                   .replace("Ę", "E")
-                   .replace("Ł", "L")
-                   .replace("Ń", "N")
-                   .replace("Ó", "O")
-                   .replace("Ś", "S")
-                   .replace("Ź", "Z")
-                   .replace("Ż", "Z");
+        scraper.setResume(resumeCheckBox.isSelected());
+        scraper.startScraping();
+        metricsButton.setDisable(false);
     }
-
     private String distanceGetText() {
         String distance = distanceField.getText();
         if (distance.isEmpty()) {
@@ -192,36 +247,21 @@ public class HelloApplication extends Application {
     }
 
     private void exportToCsv() {
-        if (scraper == null || scraper.getJobOffers().isEmpty()) {
+        if (scraper == null) {
+            showAlert("Export Error", "No job offers to export.");
+            return;
+        }
+        // Pełny zbiór albo tylko oferty nowe względem poprzednich uruchomień
+        List<JobOffer> offers = exportOnlyNewCheckBox.isSelected() ? scraper.getNewJobOffers() : scraper.getJobOffers();
+        if (offers.isEmpty()) {
             showAlert("Export Error", "No job offers to export.");
             return;
         }
 
-        FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("Save CSV File");
-        fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("CSV Files", "*.csv")
-        );
-
-        File file = fileChooser.showSaveDialog(primaryStage);
+        File file = chooseCsvFile();
         if (file != null) {
-            try (FileWriter writer = new FileWriter(file)) {
-                // Write CSV header
-                writer.write("Title,Company,Salary,Location,Type of Work,Experience,Operating Mode,URL\n");
-
-                // Write job offers
-                for (JobOffer offer : scraper.getJobOffers()) {
-                    writer.write(String.format("\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\"\n",
-                            escapeCsv(offer.getTitle()),
-                            escapeCsv(offer.getCompany()),
-                            escapeCsv(offer.getSalary()),
-                            escapeCsv(offer.getLocation()),
-                            escapeCsv(offer.getTypeOfWork()),
-                            escapeCsv(offer.getExperience()),
-                            escapeCsv(offer.getOperatingMode()),
-                            escapeCsv(offer.getUrl())
-                    ));
-                }
+            try (CsvExportSink sink = new CsvExportSink(file.toPath())) {
+                sink.writeAll(offers);
                 showAlert("Success", "Data exported successfully.");
             } catch (IOException e) {
                 showAlert("Export Error", "Failed to export data: " + e.getMessage());
@@ -229,9 +269,29 @@ public class HelloApplication extends Application {
         }
     }
 
-    private String escapeCsv(String field) {
-        return field.replace("\"", "\"\"");
+    // Zrzut metryk na żądanie - także w trakcie scrapowania
+    private void dumpMetrics() {
+        if (scraper == null) {
+            return;
+        }
+        try {
+            scraper.dumpMetrics();
+            showAlert("Metrics", "Metrics written to " + scraper.getMetricsDirectory().toAbsolutePath());
+        } catch (IOException e) {
+            showAlert("Metrics Error", "Failed to write metrics: " + e.getMessage());
+        }
     }
+
+    private File chooseCsvFile() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save CSV File");
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("CSV Files", "*.csv")
+        );
+        return fileChooser.showSaveDialog(primaryStage);
+    }
+
+    @Override
     public void updateUI(int jobOffersSize, int offerLinksSize, Boolean finishedTemp) {
         if (finishedTemp != null) {
             finished = finishedTemp;
@@ -242,22 +302,55 @@ public class HelloApplication extends Application {
             return;
         }
         updateProgress(jobOffersSize, offerLinksSize);
-        updateOffersCount(jobOffersSize);
         updateLinksCount(offerLinksSize);
     }
 
+    // Liczniki tylko rosną - starsza wartość z innego wątku nie cofa postępu
+    @Override
     public void updateOffersCount(int count) {
-        Platform.runLater(() -> offersCountLabel.setText("Liczba ofert: " + count));
+        scrapedOffers.accumulateAndGet(count, Math::max);
+        progressDirty.set(true);
     }
 
+    @Override
     public void updateLinksCount(int count) {
-        Platform.runLater(() -> linksCountLabel.setText("Liczba zebranych linków: " + count));
+        collectedLinks.accumulateAndGet(count, Math::max);
+        progressDirty.set(true);
     }
 
     public void updateProgress(int jobOffersSize, int offerLinksSize) {
+        scrapedOffers.accumulateAndGet(jobOffersSize, Math::max);
+        progressTotal.accumulateAndGet(offerLinksSize, Math::max);
+        progressDirty.set(true);
+    }
+
+    // Wywoływane co FRAME_MILLIS przez wątek ui-progress
+    private void publishProgressFrame() {
+        if (scrapingActive) {
+            throughput.update(scrapedOffers.get(), System.nanoTime());
+        }
+        if (!progressDirty.get() || !frameInFlight.compareAndSet(false, true)) {
+            return; // Brak zmian albo poprzednia klatka jeszcze czeka w kolejce FX
+        }
+        progressDirty.set(false);
+
+        int offers = scrapedOffers.get();
+        int links = collectedLinks.get();
+        int total = Math.max(progressTotal.get(), offers);
+        double rate = throughput.ratePerSecond();
+        Duration remaining = throughput.estimateRemaining(total - offers);
         Platform.runLater(() -> {
-            scrapingProgressBar.setProgress((double) jobOffersSize / offerLinksSize);
-            timeRemainingLabel.setText("Status: Scraping... " + jobOffersSize + " z " + offerLinksSize + " ofert.");
+            try {
+                offersCountLabel.setText("Liczba ofert: " + offers);
+                linksCountLabel.setText("Liczba zebranych linków: " + links);
+                if (scrapingActive) {
+                    scrapingProgressBar.setProgress(total > 0 ? (double) offers / total : 0);
+                    String eta = remaining != null ? ", pozostało ~" + ThroughputEstimator.format(remaining) : "";
+                    timeRemainingLabel.setText(String.format("Status: Scraping... %d z %d ofert (%.1f ofert/s%s)", offers, total, rate, eta));
+                }
+            } finally {
+                frameInFlight.set(false);
+            }
         });
     }
 
@@ -265,7 +358,9 @@ public class HelloApplication extends Application {
         Platform.runLater(() -> scrapingProgressBar.setProgress(progress));
     }
 
+    @Override
     public void finishScraping(int offersCount) {
+        scrapingActive = false; // Późniejsze klatki postępu nie nadpiszą statusu zakończenia
         Platform.runLater(() -> {
             startButton.setDisable(false);
             cancelButton.setDisable(true);
@@ -276,6 +371,7 @@ public class HelloApplication extends Application {
     }
 
     public void finishScraping(int offersCount, int linksCount) {
+        scrapingActive = false;
         Platform.runLater(() -> {
             startButton.setDisable(false);
             cancelButton.setDisable(true);
@@ -300,6 +396,9 @@ public class HelloApplication extends Application {
         if (scraper != null) {
             scraper.cancel();
         }
+        if (progressPublisher != null) {
+            progressPublisher.shutdownNow();
+        }
     }
 
     public static void main(String[] args) {
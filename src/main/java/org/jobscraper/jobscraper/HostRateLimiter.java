@@ -0,0 +1,163 @@
+package org.jobscraper.jobscraper;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Ogranicznik liczby żądań per host (token bucket) z adaptacją AIMD:
+// tempo rośnie liniowo przy szybkich, poprawnych odpowiedziach i spada o połowę po 429/5xx, błędach lub wolnych odpowiedziach.
+// Zamiast usypiać wątek, tryAcquire() zwraca czas, po którym warto zapytać ponownie (kolejki per host - RateLimitedDispatcher).
+public class HostRateLimiter {
+    public static final double DEFAULT_INITIAL_RATE = 0.5; // żądań na sekundę - odpowiada dawnym 2 s przerwy
+    public static final double DEFAULT_MIN_RATE = 0.1;
+    public static final double DEFAULT_MAX_RATE = 4.0;
+    private static final double ADDITIVE_INCREASE = 0.05;
+    private static final double MULTIPLICATIVE_DECREASE = 0.5;
+    private static final double BURST_SECONDS = 2.0; // Ile sekund "zaoszczędzonego" tempa można wykorzystać naraz
+    private static final long DEFAULT_SLOW_RESPONSE_MILLIS = 8000;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final double initialRate;
+    private final double minRate;
+    private final double maxRate;
+    private final long slowResponseMillis;
+
+    public HostRateLimiter() {
+        this(DEFAULT_INITIAL_RATE, DEFAULT_MIN_RATE, DEFAULT_MAX_RATE, DEFAULT_SLOW_RESPONSE_MILLIS);
+    }
+
+    public HostRateLimiter(double initialRate, double minRate, double maxRate, long slowResponseMillis) {
+        if (minRate <= 0 || minRate > initialRate || initialRate > maxRate) {
+            throw new IllegalArgumentException("Expected 0 < minRate <= initialRate <= maxRate");
+        }
+        this.initialRate = initialRate;
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.slowResponseMillis = slowResponseMillis;
+    }
+
+    // Pobranie tokena tylko wtedy, gdy jest dostępny: 0 = token pobrany, w przeciwnym razie czas do pojawienia się tokena (ns).
+    // Nic nie jest rezerwowane z góry, więc zmiana tempa dotyczy też żądań, które już czekają
+    public long tryAcquire(String host) {
+        return bucket(host).tryAcquire(System.nanoTime());
+    }
+
+    // Blokująca wersja dla wątków, które i tak są dedykowane jednemu hostowi (np. kolejne strony listingu JustJoin.it)
+    public void acquire(String host) throws InterruptedException {
+        long delay;
+        while ((delay = tryAcquire(host)) > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+    }
+
+    // Informacja zwrotna o odpowiedzi serwera
+    public void onResponse(String host, int statusCode, long latencyMillis) {
+        Bucket bucket = bucket(host);
+        if (statusCode == 429 || statusCode >= 500 || latencyMillis > slowResponseMillis) {
+            bucket.decrease();
+        } else {
+            bucket.increase();
+        }
+    }
+
+    // Błąd bez kodu odpowiedzi (timeout, zerwane połączenie, awaria przeglądarki)
+    public void onFailure(String host) {
+        bucket(host).decrease();
+    }
+
+    public double getRate(String host) {
+        Bucket bucket = buckets.get(normalizeHost(host));
+        return bucket != null ? bucket.rate() : initialRate;
+    }
+
+    // Aktualne tempo (żądań/s) dla każdego hosta, z którym już się łączono
+    public Map<String, Double> getRates() {
+        Map<String, Double> rates = new TreeMap<>();
+        buckets.forEach((host, bucket) -> rates.put(host, bucket.rate()));
+        return rates;
+    }
+
+    private Bucket bucket(String host) {
+        return buckets.computeIfAbsent(normalizeHost(host), h -> new Bucket(initialRate, System.nanoTime()));
+    }
+
+    private static String normalizeHost(String host) {
+        return host == null ? "" : host.toLowerCase();
+    }
+
+    // Nazwa hosta z adresu URL; "www." jest pomijane, żeby pracuj.pl i www.pracuj.pl dzieliły limit
+    public static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            if (host == null) {
+                return "";
+            }
+            host = host.toLowerCase();
+            return host.startsWith("www.") ? host.substring(4) : host;
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    // Czy adres należy do serwisu o podanym adresie bazowym: ten sam host (razem z portem) albo jego subdomena,
+    // np. it.pracuj.pl dla https://www.pracuj.pl/praca/
+    public static boolean isSameSite(String url, String baseUrl) {
+        String site = authorityOf(baseUrl);
+        String authority = authorityOf(url);
+        return !site.isEmpty() && (authority.equals(site) || authority.endsWith("." + site));
+    }
+
+    private static String authorityOf(String url) {
+        String host = hostOf(url);
+        if (host.isEmpty()) {
+            return "";
+        }
+        int port = URI.create(url).getPort();
+        return port == -1 ? host : host + ":" + port;
+    }
+
+    private final class Bucket {
+        private double rate;
+        private double tokens;
+        private long lastRefillNanos;
+
+        Bucket(double rate, long now) {
+            this.rate = rate;
+            this.tokens = 1.0; // Pierwsze żądanie bez czekania
+            this.lastRefillNanos = now;
+        }
+
+        synchronized long tryAcquire(long now) {
+            refill(now);
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return 0;
+            }
+            return Math.max(1, (long) ((1.0 - tokens) / rate * 1_000_000_000L));
+        }
+
+        private void refill(long now) {
+            double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+            if (elapsedSeconds > 0) {
+                tokens = Math.min(Math.max(1.0, rate * BURST_SECONDS), tokens + elapsedSeconds * rate);
+                lastRefillNanos = now;
+            }
+        }
+
+        synchronized void increase() {
+            refill(System.nanoTime());
+            rate = Math.min(maxRate, rate + ADDITIVE_INCREASE);
+        }
+
+        synchronized void decrease() {
+            refill(System.nanoTime());
+            rate = Math.max(minRate, rate * MULTIPLICATIVE_DECREASE);
+        }
+
+        synchronized double rate() {
+            return rate;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package org.jobscraper.jobscraper;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Dyskowy cache odpowiedzi HTTP: klucz to kanoniczny URL, przechowywane są ETag/Last-Modified do rewalidacji,
+// świeżość zależy od typu treści, a rozmiar jest ograniczony (usuwane są najdawniej używane wpisy)
+public class HttpCache {
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+    private static final String BODY_SUFFIX = ".body";
+    private static final String META_SUFFIX = ".meta";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final Map<String, Duration> ttlByContentType;
+    private final Duration defaultTtl;
+    private final Clock clock;
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true); // klucz -> rozmiar, kolejność LRU
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public HttpCache(Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_BYTES, defaultTtls(), DEFAULT_TTL, Clock.systemUTC());
+    }
+
+    public HttpCache(Path directory, long maxBytes, Map<String, Duration> ttlByContentType, Duration defaultTtl,
+                     Clock clock) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.ttlByContentType = Map.copyOf(ttlByContentType);
+        this.defaultTtl = defaultTtl;
+        this.clock = clock;
+        Files.createDirectories(directory);
+        loadIndex();
+    }
+
+    // Domyślny cache w katalogu domowym użytkownika; null, gdy nie da się go utworzyć
+    public static HttpCache openDefault() {
+        Path directory = Path.of(System.getProperty("user.home"), ".jobscraper", "http-cache");
+        try {
+            return new HttpCache(directory);
+        } catch (IOException e) {
+            System.err.println("[HttpCache] Cache disabled, cannot open " + directory + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Listingi zmieniają się często, JSON z danymi jeszcze częściej; statyczne zasoby można trzymać długo
+    public static Map<String, Duration> defaultTtls() {
+        return Map.of(
+                "text/html", Duration.ofMinutes(30),
+                "application/json", Duration.ofMinutes(10),
+                "image/", Duration.ofDays(7),
+                "text/css", Duration.ofDays(1)
+        );
+    }
+
+    public record CachedResponse(String url, String finalUrl, byte[] body, String contentType, String charset,
+                                 String etag, String lastModified, Instant storedAt, Instant expiresAt) {
+        public boolean isFresh(Instant now) {
+            return now.isBefore(expiresAt);
+        }
+
+        public Document toDocument() throws IOException {
+            return Jsoup.parse(new ByteArrayInputStream(body), charset, finalUrl);
+        }
+    }
+
+    public CachedResponse lookup(String url) {
+        String key = keyOf(url);
+        synchronized (index) {
+            if (index.get(key) == null) { // get() przesuwa wpis na koniec kolejki LRU
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+        try {
+            Properties meta = readMeta(key);
+            byte[] body = Files.readAllBytes(directory.resolve(key + BODY_SUFFIX));
+            Instant storedAt = Instant.ofEpochMilli(Long.parseLong(meta.getProperty("storedAt")));
+            String contentType = meta.getProperty("contentType", "");
+            Files.setLastModifiedTime(directory.resolve(key + META_SUFFIX), FileTime.from(clock.instant())); // Kolejność LRU między uruchomieniami
+            return new CachedResponse(meta.getProperty("url"), meta.getProperty("finalUrl", url), body, contentType,
+                    emptyToNull(meta.getProperty("charset")), emptyToNull(meta.getProperty("etag")),
+                    emptyToNull(meta.getProperty("lastModified")), storedAt, storedAt.plus(ttlFor(contentType)));
+        } catch (IOException | RuntimeException e) {
+            // Uszkodzony albo usunięty w międzyczasie wpis traktujemy jak brak
+            remove(key);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    public void store(String url, String finalUrl, byte[] body, String contentType, String charset,
+                      String etag, String lastModified) {
+        String key = keyOf(url);
+        Properties meta = new Properties();
+        meta.setProperty("url", canonicalUrl(url));
+        meta.setProperty("finalUrl", finalUrl != null ? finalUrl : url);
+        meta.setProperty("contentType", contentType != null ? contentType : "");
+        meta.setProperty("charset", charset != null ? charset : "");
+        meta.setProperty("etag", etag != null ? etag : "");
+        meta.setProperty("lastModified", lastModified != null ? lastModified : "");
+        meta.setProperty("storedAt", Long.toString(clock.millis()));
+        try {
+            writeAtomically(directory.resolve(key + BODY_SUFFIX), body);
+            writeMeta(key, meta);
+        } catch (IOException e) {
+            System.err.println("[HttpCache] Failed to store " + url + ": " + e.getMessage());
+            remove(key);
+            return;
+        }
+        synchronized (index) {
+            Long previous = index.put(key, (long) body.length);
+            totalBytes += body.length - (previous != null ? previous : 0);
+            evictIfNeeded();
+        }
+    }
+
+    // Odpowiedź 304 - treść w cache jest aktualna, odnawiamy jej świeżość
+    public void markRevalidated(String url) {
+        String key = keyOf(url);
+        revalidations.incrementAndGet();
+        try {
+            Properties meta = readMeta(key);
+            meta.setProperty("storedAt", Long.toString(clock.millis()));
+            writeMeta(key, meta);
+        } catch (IOException e) {
+            remove(key);
+        }
+    }
+
+    // Trafienie bez żadnego żądania do serwera
+    public void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getTotalBytes() {
+        synchronized (index) {
+            return totalBytes;
+        }
+    }
+
+    public int size() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    Duration ttlFor(String contentType) {
+        if (contentType == null) {
+            return defaultTtl;
+        }
+        String type = contentType.toLowerCase();
+        Duration best = null;
+        int bestLength = -1;
+        // Najdłuższy pasujący prefiks wygrywa, np. "image/" pasuje do "image/png"
+        for (Map.Entry<String, Duration> entry : ttlByContentType.entrySet()) {
+            if (type.startsWith(entry.getKey()) && entry.getKey().length() > bestLength) {
+                best = entry.getValue();
+                bestLength = entry.getKey().length();
+            }
+        }
+        return best != null ? best : defaultTtl;
+    }
+
+    // Kanoniczna postać URL: małe litery w schemacie i hoście, bez domyślnego portu i fragmentu, posortowane parametry
+    static String canonicalUrl(String url) {
+        try {
+            URI uri = new URI(url.trim());
+            String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase() : "https";
+            String host = uri.getHost() != null ? uri.getHost().toLowerCase() : "";
+            int port = uri.getPort();
+            boolean defaultPort = port == -1 || ("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443);
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+
+            StringBuilder canonical = new StringBuilder(scheme).append("://").append(host);
+            if (!defaultPort) {
+                canonical.append(':').append(port);
+            }
+            canonical.append(path);
+            String query = uri.getRawQuery();
+            if (query != null && !query.isEmpty()) {
+                String[] params = query.split("&");
+                Arrays.sort(params);
+                canonical.append('?').append(String.join("&", params));
+            }
+            return canonical.toString();
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+    }
+
+    private static String keyOf(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(canonicalUrl(url).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            totalBytes -= entry.getValue();
+            eldest.remove();
+            deleteFiles(entry.getKey());
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (index) {
+            Long size = index.remove(key);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        }
+        deleteFiles(key);
+    }
+
+    private void deleteFiles(String key) {
+        try {
+            Files.deleteIfExists(directory.resolve(key + BODY_SUFFIX));
+            Files.deleteIfExists(directory.resolve(key + META_SUFFIX));
+        } catch (IOException e) {
+            System.err.println("[HttpCache] Failed to delete entry " + key + ": " + e.getMessage());
+        }
+    }
+
+    // Odtworzenie indeksu z dysku - kolejność LRU według czasu ostatniego użycia pliku meta
+    private void loadIndex() throws IOException {
+        List<Path> metas = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + META_SUFFIX)) {
+            stream.forEach(metas::add);
+        }
+        metas.sort((a, b) -> {
+            try {
+                return Files.getLastModifiedTime(a).compareTo(Files.getLastModifiedTime(b));
+            } catch (IOException e) {
+                return 0;
+            }
+        });
+        synchronized (index) {
+            for (Path meta : metas) {
+                String fileName = meta.getFileName().toString();
+                String key = fileName.substring(0, fileName.length() - META_SUFFIX.length());
+                Path body = directory.resolve(key + BODY_SUFFIX);
+                if (!Files.exists(body)) {
+                    Files.deleteIfExists(meta);
+                    continue;
+                }
+                long size = Files.size(body);
+                index.put(key, size);
+                totalBytes += size;
+            }
+            evictIfNeeded();
+        }
+    }
+
+    private Properties readMeta(String key) throws IOException {
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(directory.resolve(key + META_SUFFIX))) {
+            meta.load(in);
+        }
+        return meta;
+    }
+
+    private void writeMeta(String key, Properties meta) throws IOException {
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            meta.store(out, null);
+        }
+        Files.move(temp, directory.resolve(key + META_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeAtomically(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        Files.write(temp, content);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
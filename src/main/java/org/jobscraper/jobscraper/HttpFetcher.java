@@ -0,0 +1,122 @@
+package org.jobscraper.jobscraper;
+
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+
+// Wspólna ścieżka pobierania stron przez Jsoup: losowy User-Agent, limit żądań per host
+// i raportowanie kodów odpowiedzi oraz czasu do ogranicznika. Opcjonalnie strony są brane z dyskowego cache
+// (świeży wpis - bez żądania, nieświeży - żądanie warunkowe, na które serwer może odpowiedzieć 304)
+public class HttpFetcher {
+    private static final int TIMEOUT_MILLIS = 10000;
+    private static final String[] USER_AGENTS = {
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/123.0.0.0 Safari/537.36",
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/123.0.0.0 Safari/537.36",
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/123.0.0.0 Safari/537.36",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 14_6 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/14.1 Mobile/15E148 Safari/604.1",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:123.0) Gecko/20100101 Firefox/123.0"
+    };
+
+    private final HostRateLimiter rateLimiter;
+    private final HttpCache cache; // null = bez cache
+
+    public HttpFetcher(HostRateLimiter rateLimiter) {
+        this(rateLimiter, null);
+    }
+
+    public HttpFetcher(HostRateLimiter rateLimiter, HttpCache cache) {
+        this.rateLimiter = rateLimiter;
+        this.cache = cache;
+    }
+
+    public HttpCache getCache() {
+        return cache;
+    }
+
+    public HostRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public static String getRandomUserAgent() {
+        int index = (int) (Math.random() * USER_AGENTS.length);
+        return USER_AGENTS[index];
+    }
+
+    // Pobranie i sparsowanie strony
+    public Document get(String url) throws IOException, InterruptedException {
+        return get(url, true);
+    }
+
+    // Wariant dla zadań, które dostały token przed uruchomieniem (RateLimitedDispatcher)
+    public Document get(String url, boolean acquirePermit) throws IOException, InterruptedException {
+        if (cache == null) {
+            return execute(url, acquirePermit).parse();
+        }
+
+        HttpCache.CachedResponse cached = cache.lookup(url);
+        if (cached != null && cached.isFresh(Instant.now())) {
+            cache.recordHit();
+            return cached.toDocument();
+        }
+
+        Connection.Response response = send(url, acquirePermit, cached);
+        if (response.statusCode() == 304 && cached != null) {
+            cache.markRevalidated(url);
+            return cached.toDocument();
+        }
+
+        byte[] body = response.bodyAsBytes();
+        String finalUrl = response.url().toExternalForm();
+        String cacheControl = response.header("Cache-Control");
+        if (response.statusCode() == 200 && (cacheControl == null || !cacheControl.contains("no-store"))) {
+            cache.store(url, finalUrl, body, response.contentType(), response.charset(),
+                    response.header("ETag"), response.header("Last-Modified"));
+        }
+        return Jsoup.parse(new ByteArrayInputStream(body), response.charset(), finalUrl);
+    }
+
+    // Pobranie strony z dostępem do nagłówków odpowiedzi (z pominięciem cache); czeka na wolny token dla hosta
+    public Connection.Response execute(String url) throws IOException, InterruptedException {
+        return execute(url, true);
+    }
+
+    public Connection.Response execute(String url, boolean acquirePermit) throws IOException, InterruptedException {
+        return send(url, acquirePermit, null);
+    }
+
+    private Connection.Response send(String url, boolean acquirePermit, HttpCache.CachedResponse cached)
+            throws IOException, InterruptedException {
+        String host = HostRateLimiter.hostOf(url);
+        if (acquirePermit) {
+            rateLimiter.acquire(host);
+        }
+        long start = System.currentTimeMillis();
+        try {
+            Connection connection = Jsoup.connect(url)
+                    .userAgent(getRandomUserAgent())
+                    .timeout(TIMEOUT_MILLIS)
+                    .followRedirects(true);
+            // Żądanie warunkowe - przy niezmienionej stronie serwer odpowiada 304 bez treści
+            if (cached != null && cached.etag() != null) {
+                connection.header("If-None-Match", cached.etag());
+            }
+            if (cached != null && cached.lastModified() != null) {
+                connection.header("If-Modified-Since", cached.lastModified());
+            }
+            Connection.Response response = connection.execute();
+            rateLimiter.onResponse(host, response.statusCode(), System.currentTimeMillis() - start);
+            return response;
+        } catch (HttpStatusException e) {
+            rateLimiter.onResponse(host, e.getStatusCode(), System.currentTimeMillis() - start);
+            throw e;
+        } catch (IOException e) {
+            rateLimiter.onFailure(host);
+            throw e;
+        }
+    }
+}
@@ -1,24 +1,68 @@
 package org.jobscraper.jobscraper;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Pola o niewielu różnych wartościach (firma, wynagrodzenie, lokalizacja, typ umowy, doświadczenie, tryb pracy) są trzymane
+// jako numery we wspólnym OfferDictionary - przy tysiącach ofert te same napisy nie są powielane w pamięci
 public class JobOffer {
+    private static final SalaryParser.Currency[] CURRENCIES = SalaryParser.Currency.values(); // values() kopiuje tablicę przy każdym wywołaniu
+    private static final SalaryParser.Period[] PERIODS = SalaryParser.Period.values();
+    private static final SalaryParser.Basis[] BASES = SalaryParser.Basis.values();
+    private static final SalaryParser.ContractType[] CONTRACT_TYPES = SalaryParser.ContractType.values();
+    // Rozbiór wynagrodzenia dla pary (wynagrodzenie, typ umowy) - par jest tyle, ile różnych wartości w słowniku,
+    // a ta sama para wraca w setkach ofert
+    private static final Map<Long, SalaryParser.Salary> PARSED_SALARIES = new ConcurrentHashMap<>();
+    // Wartości zastępcze wpisywane przez scrapery, gdy pola nie udało się odczytać
+    private static final Set<String> PLACEHOLDERS = Set.of("no data", "brak danych", "brak firmy", "brak lokalizacji", "brak tytułu");
+
     private final String title;
-    private final String company;
-    private final String salary;
-    private final String location;
     private final String url;
-    private final String typeOfWork;
-    private final String experience;
-    private final String operatingMode;
+    private final int companyCode;
+    private final int salaryCode; // Widełki i "Undisclosed Salary" powtarzają się prawie tak często jak typ umowy
+    private final int locationCode;
+    private final int typeOfWorkCode;
+    private final int experienceCode;
+    private final int operatingModeCode;
+    // Wynagrodzenie rozłożone raz, przy tworzeniu oferty - sortowanie i filtrowanie nie parsuje już napisów
+    private final int salaryMin;
+    private final int salaryMax;
+    private final int monthlySalaryMinPln;
+    private final int monthlySalaryMaxPln;
+    private final byte salaryCurrency; // Numer w SalaryParser.Currency, -1 gdy kwota nie jest podana
+    private final byte salaryPeriod;
+    private final byte salaryBasis;
+    private final byte contractType;
+    private volatile List<String> alternateUrls; // Ta sama oferta w innych serwisach; null, gdy brak - większość ofert
 
     public JobOffer(String title, String company, String salary, String location, String url, String typeOfWork, String experience, String operatingMode) {
+        OfferDictionary dictionary = OfferDictionary.shared();
         this.title = title;
-        this.company = company;
-        this.salary = salary;
-        this.location = location;
         this.url = url;
-        this.typeOfWork = typeOfWork;
-        this.experience = experience;
-        this.operatingMode = operatingMode;
+        this.companyCode = dictionary.encode(company);
+        this.salaryCode = dictionary.encode(salary);
+        this.locationCode = dictionary.encode(location);
+        this.typeOfWorkCode = dictionary.encode(typeOfWork);
+        this.experienceCode = dictionary.encode(experience);
+        this.operatingModeCode = dictionary.encode(operatingMode);
+
+        long salaryKey = ((long) salaryCode << 32) | (typeOfWorkCode & 0xFFFFFFFFL);
+        SalaryParser.Salary parsed = PARSED_SALARIES.get(salaryKey);
+        if (parsed == null) {
+            parsed = PARSED_SALARIES.computeIfAbsent(salaryKey, key -> SalaryParser.parse(salary, typeOfWork));
+        }
+        this.salaryMin = parsed.min();
+        this.salaryMax = parsed.max();
+        this.monthlySalaryMinPln = parsed.monthlyMinPln();
+        this.monthlySalaryMaxPln = parsed.monthlyMaxPln();
+        this.salaryCurrency = (byte) (parsed.currency() == null ? -1 : parsed.currency().ordinal());
+        this.salaryPeriod = (byte) (parsed.period() == null ? -1 : parsed.period().ordinal());
+        this.salaryBasis = (byte) parsed.basis().ordinal();
+        this.contractType = (byte) parsed.contractType().ordinal();
     }
 
     public String getTitle() {
@@ -26,15 +70,15 @@ public class JobOffer {
     }
 
     public String getCompany() {
-        return company;
+        return OfferDictionary.shared().decode(companyCode);
     }
 
     public String getSalary() {
-        return salary;
+        return OfferDictionary.shared().decode(salaryCode);
     }
 
     public String getLocation() {
-        return location;
+        return OfferDictionary.shared().decode(locationCode);
     }
 
     public String getUrl() {
@@ -42,28 +86,99 @@ public class JobOffer {
     }
 
     public String getTypeOfWork() {
-        return typeOfWork;
+        return OfferDictionary.shared().decode(typeOfWorkCode);
     }
 
     public String getExperience() {
-        return experience;
+        return OfferDictionary.shared().decode(experienceCode);
     }
 
     public String getOperatingMode() {
-        return operatingMode;
+        return OfferDictionary.shared().decode(operatingModeCode);
+    }
+
+    // Adresy tej samej oferty w innych serwisach, rozpoznanej przy zbieraniu linków
+    public List<String> getAlternateUrls() {
+        List<String> alternates = alternateUrls;
+        return alternates != null ? alternates : List.of();
+    }
+
+    synchronized void addAlternateUrls(List<String> urls) {
+        List<String> merged = new ArrayList<>(getAlternateUrls());
+        for (String url : urls) {
+            if (!merged.contains(url) && !url.equals(this.url)) {
+                merged.add(url);
+            }
+        }
+        if (!merged.isEmpty()) {
+            alternateUrls = List.copyOf(merged);
+        }
+    }
+
+    // Czy brakuje któregoś z pól opisowych (wynagrodzenie bywa nieujawnione także na stronie szczegółów, więc się nie liczy)
+    public boolean isMissingDetails() {
+        return isPlaceholder(title) || isPlaceholder(getCompany()) || isPlaceholder(getLocation())
+                || isPlaceholder(getTypeOfWork()) || isPlaceholder(getExperience()) || isPlaceholder(getOperatingMode());
+    }
+
+    // Brak wartości albo wartość zastępcza, np. "No data", "Brak danych"
+    static boolean isPlaceholder(String value) {
+        if (value == null) {
+            return true;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() || PLACEHOLDERS.contains(trimmed.toLowerCase(Locale.ROOT));
+    }
+
+    public boolean hasSalary() {
+        return salaryCurrency >= 0;
+    }
+
+    // Dolna i górna granica widełek w walucie i okresie z ogłoszenia; 0, gdy brak kwoty
+    public int getSalaryMin() {
+        return salaryMin;
+    }
+
+    public int getSalaryMax() {
+        return salaryMax;
+    }
+
+    // Widełki przeliczone na miesięczne PLN; 0, gdy brak kwoty
+    public int getMonthlySalaryMinPln() {
+        return monthlySalaryMinPln;
+    }
+
+    public int getMonthlySalaryMaxPln() {
+        return monthlySalaryMaxPln;
+    }
+
+    public SalaryParser.Currency getSalaryCurrency() {
+        return salaryCurrency < 0 ? null : CURRENCIES[salaryCurrency];
+    }
+
+    public SalaryParser.Period getSalaryPeriod() {
+        return salaryPeriod < 0 ? null : PERIODS[salaryPeriod];
+    }
+
+    public SalaryParser.Basis getSalaryBasis() {
+        return BASES[salaryBasis];
+    }
+
+    public SalaryParser.ContractType getContractType() {
+        return CONTRACT_TYPES[contractType];
     }
 
     @Override
     public String toString() {
         return "JobOffer{" +
                 "title='" + title + '\'' +
-                ", company='" + company + '\'' +
-                ", salary='" + salary + '\'' +
-                ", location='" + location + '\'' +
+                ", company='" + getCompany() + '\'' +
+                ", salary='" + getSalary() + '\'' +
+                ", location='" + getLocation() + '\'' +
                 ", url='" + url + '\'' +
-                ", typeOfWork='" + typeOfWork + '\'' +
-                ", experience='" + experience + '\'' +
-                ", operatingMode='" + operatingMode + '\'' +
+                ", typeOfWork='" + getTypeOfWork() + '\'' +
+                ", experience='" + getExperience() + '\'' +
+                ", operatingMode='" + getOperatingMode() + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package org.jobscraper.jobscraper;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Odczyt listy ofert JustJoin.it ze stanu strony osadzonego w HTML (__NEXT_DATA__ / application/json),
+// bez przewijania strony w przeglądarce
+public class JustJoinItListingParser {
+    static final String OFFER_URL_PREFIX = "https://justjoin.it/job-offer/";
+
+    private JustJoinItListingParser() {
+    }
+
+    // Wynik parsowania jednej strony listingu: oferty z kafelków i liczba stron wyników (0 gdy nieznana)
+    public record Listing(List<JobOffer> offers, int totalPages, int totalItems) {
+    }
+
+    public static Listing parse(Document doc) {
+        return parse(doc, OFFER_URL_PREFIX);
+    }
+
+    // offerUrlPrefix - początek adresu oferty, do którego doklejany jest slug (inny np. dla lokalnego serwera testowego)
+    public static Listing parse(Document doc, String offerUrlPrefix) {
+        Map<String, JobOffer> offers = new LinkedHashMap<>(); // Zachowanie kolejności i usunięcie duplikatów
+        int[] meta = {0, 0}; // totalPages, totalItems
+
+        for (Element script : doc.select("script#__NEXT_DATA__, script[type=application/json]")) {
+            String json = script.data();
+            if (json.isBlank()) {
+                continue;
+            }
+            try {
+                collect(JsonParser.parseString(json), offerUrlPrefix, offers, meta);
+            } catch (JsonParseException e) {
+                System.err.println("[JustJoin.It] Skipping malformed embedded JSON: " + e.getMessage());
+            }
+        }
+        return new Listing(new ArrayList<>(offers.values()), meta[0], meta[1]);
+    }
+
+    // Rekurencyjne przejście po drzewie JSON - struktura stanu strony zmienia się między wdrożeniami,
+    // więc szukamy obiektów wyglądających jak oferta zamiast polegać na konkretnej ścieżce
+    private static void collect(JsonElement element, String offerUrlPrefix, Map<String, JobOffer> offers, int[] meta) {
+        if (element == null || element.isJsonNull() || element.isJsonPrimitive()) {
+            return;
+        }
+        if (element.isJsonArray()) {
+            for (JsonElement child : element.getAsJsonArray()) {
+                collect(child, offerUrlPrefix, offers, meta);
+            }
+            return;
+        }
+        JsonObject object = element.getAsJsonObject();
+        if (isOffer(object)) {
+            JobOffer offer = toJobOffer(object, offerUrlPrefix);
+            offers.putIfAbsent(offer.getUrl(), offer);
+            return;
+        }
+        if (object.has("meta") && object.get("meta").isJsonObject()) {
+            JsonObject metaObject = object.getAsJsonObject("meta");
+            meta[0] = Math.max(meta[0], getInt(metaObject, "totalPages"));
+            meta[1] = Math.max(meta[1], getInt(metaObject, "totalItems"));
+        }
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            collect(entry.getValue(), offerUrlPrefix, offers, meta);
+        }
+    }
+
+    private static boolean isOffer(JsonObject object) {
+        return isString(object, "slug") && isString(object, "title")
+                && (isString(object, "companyName") || object.has("employmentTypes"));
+    }
+
+    private static JobOffer toJobOffer(JsonObject object, String offerUrlPrefix) {
+        String title = getString(object, "title", "No data");
+        String company = getString(object, "companyName", "No data");
+        String location = getString(object, "city", "No data");
+        String experience = getString(object, "experienceLevel", "No data");
+        String operatingMode = getString(object, "workplaceType", "No data");
+
+        String typeOfWork = "No data";
+        String salary = "Undisclosed Salary";
+        if (object.has("employmentTypes") && object.get("employmentTypes").isJsonArray()) {
+            JsonArray employmentTypes = object.getAsJsonArray("employmentTypes");
+            List<String> types = new ArrayList<>();
+            for (JsonElement typeElement : employmentTypes) {
+                if (!typeElement.isJsonObject()) {
+                    continue;
+                }
+                JsonObject type = typeElement.getAsJsonObject();
+                String typeName = getString(type, "type", null);
+                if (typeName != null) {
+                    types.add(typeName);
+                }
+                // Pierwsze widełki z podaną kwotą trafiają do pola wynagrodzenia
+                if ("Undisclosed Salary".equals(salary)) {
+                    salary = formatSalary(type);
+                }
+            }
+            if (!types.isEmpty()) {
+                typeOfWork = String.join(", ", types);
+            }
+        }
+
+        String url = offerUrlPrefix + object.get("slug").getAsString();
+        return new JobOffer(title, company, salary, location, url, typeOfWork, experience, operatingMode);
+    }
+
+    private static String formatSalary(JsonObject type) {
+        long from = getLong(type, "from");
+        long to = getLong(type, "to");
+        if (from <= 0 && to <= 0) {
+            return "Undisclosed Salary";
+        }
+        StringBuilder salary = new StringBuilder();
+        if (from > 0 && to > 0 && from != to) {
+            salary.append(from).append(" - ").append(to);
+        } else {
+            salary.append(Math.max(from, to));
+        }
+        String currency = getString(type, "currency", null);
+        if (currency != null) {
+            salary.append(' ').append(currency.toUpperCase());
+        }
+        String unit = getString(type, "unit", null);
+        if (unit != null) {
+            salary.append('/').append(unit);
+        }
+        Boolean gross = type.has("gross") && type.get("gross").isJsonPrimitive() ? type.get("gross").getAsBoolean() : null;
+        if (gross != null) {
+            salary.append(gross ? " gross" : " net");
+        }
+        return salary.toString();
+    }
+
+    private static boolean isString(JsonObject object, String key) {
+        JsonElement value = object.get(key);
+        return value != null && value.isJsonPrimitive() && value.getAsJsonPrimitive().isString();
+    }
+
+    private static String getString(JsonObject object, String key, String defaultValue) {
+        if (!isString(object, key)) {
+            return defaultValue;
+        }
+        String value = object.get(key).getAsString();
+        return value.isEmpty() ? defaultValue : value;
+    }
+
+    private static long getLong(JsonObject object, String key) {
+        JsonElement value = object.get(key);
+        if (value == null || !value.isJsonPrimitive() || !value.getAsJsonPrimitive().isNumber()) {
+            return 0;
+        }
+        return value.getAsLong();
+    }
+
+    private static int getInt(JsonObject object, String key) {
+        return (int) getLong(object, key);
+    }
+}
@@ -1,58 +1,131 @@
 package org.jobscraper.jobscraper;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
 import org.openqa.selenium.By;
-import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.io.IOException;
+import java.net.URI;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class JustJoinItScraper {
     private final WebDriverPool driverPool;
-    private final List<JobOffer> jobOffers;
+    private final OfferResults jobOffers;
     private final String keywords;
     private final String location;
-    private final Set<String> offerLinksSet; // Use Set to avoid duplicates
-    private final List<String> offerLinks;
+    private final LinkFrontier frontier; // Wspólna kolejka linków, sama odrzuca duplikaty
     private final AtomicBoolean finished = new AtomicBoolean(false);
     private final AtomicBoolean finishedScrolling = new AtomicBoolean(false);
     private final AtomicBoolean cancelled = new AtomicBoolean(false);
     private final AtomicInteger scrollCounter = new AtomicInteger(0);
     private final int MAX_SCROLL_ATTEMPTS = 20; // Increased to capture more offers
-    private final int SCROLL_WAIT_TIME = 2000; // milliseconds
+    private final int SCROLL_WAIT_TIME = 2000; // milliseconds - maximum; usually returns as soon as new tiles are rendered
+    private static final String OFFER_LINK_SELECTOR = "a[href*='/job-offer/']";
+    private static final String COOKIES_BUTTON_SELECTOR = "#cookiescript_accept";
+    // Pola strony oferty; na tytuł czekamy zawsze, na resztę - dopóki DOM się zmienia
+    private static final String TITLE_XPATH = "/html/body/div[2]/div/div/div/div[2]/div[2]/div[1]/div[2]/div[2]/h1";
+    private static final String TYPE_OF_WORK_XPATH = "/html/body/div[2]/div/div/div/div[2]/div[2]/div[2]/div[1]/div[2]/div[2]";
+    private static final String EXPERIENCE_XPATH = "/html/body/div[2]/div/div/div/div[2]/div[2]/div[2]/div[2]/div[2]/div[2]";
+    private static final String EMPLOYMENT_TYPE_XPATH = "/html/body/div[2]/div/div/div/div[2]/div[2]/div[2]/div[3]/div[2]/div[2]";
+    private static final String OPERATING_MODE_XPATH = "/html/body/div[2]/div/div/div/div[2]/div[2]/div[2]/div[4]/div[2]/div[2]";
+    private static final String COMPANY_XPATH = "/html/body/div[2]/div/div/div/div[2]/div[2]/div[1]/div[2]/div[2]/div/div[1]";
+    private static final String LOCATION_XPATH = "/html/body/div[2]/div/div/div/div[2]/div[2]/div[1]/div[2]/div[2]/div/div[2]/div/span";
+    // Kilka lokalizacji - przycisk z pierwszą z nich i liczbą pozostałych
+    private static final String LOCATION_BUTTON_XPATH = "/html/body/div[2]/div/div/div/div[2]/div[2]/div[1]/div[2]/div[2]/div/div[2]/button/div/span[1]";
+    private static final String LOCATION_MORE_XPATH = "/html/body/div[2]/div/div/div/div[2]/div[2]/div[1]/div[2]/div[2]/div/div[2]/button/div/span[2]";
+    private static final String SALARY_SELECTOR = "span.css-1tka0qn";
+    private static final List<String> DETAIL_FIELDS = List.of(TYPE_OF_WORK_XPATH, EXPERIENCE_XPATH, EMPLOYMENT_TYPE_XPATH,
+            OPERATING_MODE_XPATH, COMPANY_XPATH, SALARY_SELECTOR);
     private WebDriver driver;
+    private volatile ChromeTabPool tabPool;
     private boolean driverInitialized = false;
-    private final HelloApplication ui;
+    private final ScraperListener listener;
     private Thread scraperThread;
+    private volatile ExecutionMode executionMode = ExecutionMode.FIXED_POOL;
+    private volatile MetricsRegistry metrics = new MetricsRegistry();
+    private static final String SITE = "justjoin"; // Etykieta w metrykach
+    public static final String DEFAULT_BASE_URL = "https://justjoin.it/job-offers/";
+    private volatile String baseUrl = DEFAULT_BASE_URL;
+    private volatile ListingMode listingMode = ListingMode.EMBEDDED_DATA;
+    private volatile boolean expectedAnnounced; // Liczba ofert z danych listingu została przekazana do frontier
+    private final Map<String, JobOffer> prefilledOffers = new ConcurrentHashMap<>(); // Dane z kafelków listingu, kluczem jest URL oferty
+    private final HttpFetcher fetcher; // Pobieranie przez Jsoup z limitem żądań per host
+    private volatile DuplicateDetector duplicateDetector; // Wspólny dla wszystkich serwisów; null wyłącza wykrywanie duplikatów
+
+    // Sposób zbierania linków z listingu
+    public enum ListingMode {
+        EMBEDDED_DATA,  // Stan strony osadzony w HTML, pobierany przez Jsoup strona po stronie
+        BROWSER_SCROLL  // Przewijanie strony w headless Chrome
+    }
 
-    // Rate limiting
-    private final long requestDelay = 2000; // 2 seconds between requests
-
-    public JustJoinItScraper(List<JobOffer> jobOffers, String keywords, String location,
-                             List<String> offerLinks, Set<String> offerLinksSet, HelloApplication ui) {
+    public JustJoinItScraper(OfferResults jobOffers, String keywords, String location,
+                             LinkFrontier frontier, WebDriverPool driverPool, HttpFetcher fetcher,
+                             ScraperListener listener) {
         this.jobOffers = jobOffers;
         this.keywords = keywords;
         this.location = location;
-        this.offerLinks = offerLinks;
-        this.offerLinksSet = offerLinksSet;
-        this.ui = ui;
-        this.driverPool = new WebDriverPool(3); // Create pool with 3 drivers
+        this.frontier = frontier;
+        this.listener = listener;
+        this.driverPool = driverPool; // Pula współdzielona z pozostałymi scraperami
+        this.fetcher = fetcher;
+    }
+
+    public void setMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    // Strony szczegółów jako karty współdzielonych przeglądarek zamiast osobnych sesji z driverPool; null - sesje z puli
+    public void setTabPool(ChromeTabPool tabPool) {
+        this.tabPool = tabPool;
+    }
+
+    public void setDuplicateDetector(DuplicateDetector duplicateDetector) {
+        this.duplicateDetector = duplicateDetector;
+    }
+
+    // Adres listingu, np. lokalny serwer ze stronami testowymi; musi zostać ustawiony przed startScraping()
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    // Czy link do oferty pochodzi z tego serwisu
+    public boolean ownsLink(String url) {
+        return HostRateLimiter.isSameSite(url, baseUrl);
+    }
+
+    // Schemat i host serwisu, np. https://justjoin.it - oferty leżą pod /job-offer/ obok listingu
+    private String origin() {
+        URI uri = URI.create(baseUrl);
+        return uri.getScheme() + "://" + uri.getRawAuthority();
     }
 
     public void startScraping() {
-        scraperThread = new Thread(() -> {
+        scraperThread = executionMode.newThread("justjoinit-listing", () -> {
             try {
+                if (listingMode == ListingMode.EMBEDDED_DATA && collectLinksFromEmbeddedData()) {
+                    finishedScrolling.set(true);
+                    System.out.println("[JustJoin.It] Finished reading embedded listing data. Total links collected: " + frontier.size());
+                    return;
+                }
                 initializeDriver();
                 if (!finishedScrolling.get()) {
                     scrollAndCollectLinks();
@@ -64,44 +137,129 @@ public class JustJoinItScraper {
                 e.printStackTrace();
                 finished.set(true);
                 closeDriver();
+            } finally {
+                // Koniec zbierania linków - także po błędzie, żeby Scraper nie czekał w nieskończoność
+                finishedScrolling.set(true);
+                frontier.producerFinished();
             }
         });
-        scraperThread.setDaemon(true);
         scraperThread.start();
     }
 
-    private void initializeDriver() {
+    public void setListingMode(ListingMode listingMode) {
+        this.listingMode = listingMode;
+    }
+
+    public ListingMode getListingMode() {
+        return listingMode;
+    }
+
+    // Zbieranie linków z danych osadzonych w stronie - zwraca false, gdy trzeba wrócić do przewijania w przeglądarce
+    private boolean collectLinksFromEmbeddedData() {
+        int page = 1;
+        int totalPages = 1;
         try {
-            System.out.println("[JustJoin.It] Setting up ChromeDriver for JustJoinIt...");
-            WebDriverManager.chromedriver().setup();
+            do {
+                String url = buildUrl(page);
+                System.out.println("[JustJoin.It] Reading embedded listing data: " + url);
+                long start = System.nanoTime();
+                Document doc = fetcher.get(url); // Czeka na token dla hosta justjoin.it
+
+                JustJoinItListingParser.Listing listing = JustJoinItListingParser.parse(doc, origin() + "/job-offer/");
+                metrics.listingFetch(SITE).observeSince(start);
+                if (page == 1) {
+                    frontier.addExpected(listing.totalItems());
+                    expectedAnnounced = listing.totalItems() > 0;
+                }
+                if (addListingOffers(listing.offers()) == 0) {
+                    break; // Pusta strona albo same powtórki - koniec wyników
+                }
+                totalPages = Math.max(totalPages, listing.totalPages());
+                page++;
+            } while (page <= totalPages && !cancelled.get());
+        } catch (IOException e) {
+            metrics.failure(SITE, e);
+            System.err.println("[JustJoin.It] Failed to read embedded listing data: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
 
-            ChromeOptions options = new ChromeOptions();
-            options.addArguments("--disable-dev-shm-usage");
-            options.addArguments("--no-sandbox");
-            options.addArguments("--headless"); // Run in headless mode to reduce resource usage
+        if (prefilledOffers.isEmpty()) {
+            System.out.println("[JustJoin.It] No embedded listing data found, falling back to browser scrolling.");
+            return false;
+        }
+        return true;
+    }
 
-            driver = new ChromeDriver(options);
+    // Dodanie ofert z kafelków do wspólnej kolejki linków; zwraca liczbę nowych linków (razem z pominiętymi duplikatami,
+    // żeby strona złożona z samych duplikatów nie kończyła listingu)
+    int addListingOffers(List<JobOffer> offers) {
+        int added = 0;
+        DuplicateDetector detector = duplicateDetector;
+        for (JobOffer offer : offers) {
+            if (prefilledOffers.putIfAbsent(offer.getUrl(), offer) != null) {
+                continue;
+            }
+            if (detector != null) {
+                // Ta sama oferta odkryta już w innym serwisie - bez pobierania szczegółów
+                String original = detector.register(SITE, offer.getUrl(), offer.getTitle(), offer.getCompany(), offer.getLocation());
+                if (original != null) {
+                    metrics.duplicateSkipped(SITE);
+                    if (expectedAnnounced) {
+                        frontier.removeExpected(1); // Zapowiedziana oferta nie trafi do kolejki
+                    }
+                    System.out.println("[JustJoin.It] Skipping probable duplicate of " + original + ": " + offer.getUrl());
+                    added++;
+                    continue;
+                }
+            }
+            // false także dla linku z dziennika przerwanego uruchomienia - dla listingu to wciąż nowa oferta
+            frontier.add(offer.getUrl());
+            added++;
+        }
+        return added;
+    }
+
+    // Dane kafelka z dziennika przerwanego uruchomienia - przy wznowieniu bez ponownego przeglądania listingu
+    void restoreTile(JobOffer tile) {
+        prefilledOffers.putIfAbsent(tile.getUrl(), tile);
+    }
+
+    // Oferta z kafelka listingu (dane osadzone w stronie) dla linku z kolejki; null dla linków zebranych przewijaniem
+    public JobOffer tileOffer(String offerUrl) {
+        return prefilledOffers.get(offerUrl);
+    }
+
+    private void initializeDriver() {
+        try {
+            System.out.println("[JustJoin.It] Borrowing ChromeDriver for JustJoinIt listing...");
+            driver = driverPool.borrowDriver(RequestBlocker.JUSTJOIN_LISTING);
             driverInitialized = true;
-            System.out.println("[JustJoin.It] ChromeDriver initialized successfully.");
+            System.out.println("[JustJoin.It] ChromeDriver borrowed successfully.");
 
             String url = buildUrl();
             System.out.println("[JustJoin.It] Scraping: " + url);
             driver.get(url);
-            waitForPageLoad();
-
-            // Accept cookies if needed
-            try {
-                WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-                WebElement cookiesButton = wait.until(ExpectedConditions.elementToBeClickable(
-                        By.xpath("//*[@id='cookiescript_accept']")));
-                cookiesButton.click();
-                System.out.println("[JustJoin.It] Cookies accepted.");
-            } catch (Exception e) {
-                System.out.println("[JustJoin.It] Cookie button not found or not needed: " + e.getMessage());
+            // Zamiast readyState i stałej pauzy: pierwsze kafelki ofert są wyrenderowane, a DOM przestał się zmieniać
+            if (BrowserWaits.untilContentLoaded(driver, Duration.ofSeconds(10), OFFER_LINK_SELECTOR)) {
+                System.out.println("[JustJoin.It] Page loaded successfully.");
+            } else {
+                System.out.println("[JustJoin.It] No offers rendered within 10 s, continuing anyway.");
             }
 
-            waitForPageLoad();
-            Thread.sleep(3000); // Initial waiting for page load
+            // Accept cookies if needed - baner jest już na stronie, jeśli w ogóle się pojawia
+            List<WebElement> cookiesButtons = driver.findElements(By.cssSelector(COOKIES_BUTTON_SELECTOR));
+            if (!cookiesButtons.isEmpty()) {
+                try {
+                    cookiesButtons.get(0).click();
+                    System.out.println("[JustJoin.It] Cookies accepted.");
+                } catch (WebDriverException e) {
+                    System.out.println("[JustJoin.It] Cookie button not clickable: " + e.getMessage());
+                }
+            } else {
+                System.out.println("[JustJoin.It] Cookie button not found or not needed.");
+            }
         } catch (Exception e) {
             System.err.println("[JustJoin.It] Error initializing ChromeDriver: " + e.getMessage());
             throw new RuntimeException("[JustJoin.It] Failed to initialize driver", e);
@@ -115,7 +273,6 @@ public class JustJoinItScraper {
                 return;
             }
 
-            JavascriptExecutor js = (JavascriptExecutor) driver;
             int previousLinkCount = 0;
             int noNewLinksCounter = 0;
 
@@ -124,7 +281,7 @@ public class JustJoinItScraper {
                 collectOfferLinks();
 
                 // Check if new links were found
-                int currentLinkCount = offerLinksSet.size();
+                int currentLinkCount = frontier.size();
                 if (currentLinkCount > previousLinkCount) {
                     previousLinkCount = currentLinkCount;
                     noNewLinksCounter = 0;
@@ -136,13 +293,12 @@ public class JustJoinItScraper {
                     }
                 }
 
-                // Scroll down
-                js.executeScript("window.scrollBy(0, window.innerHeight);");
-                Thread.sleep(SCROLL_WAIT_TIME);
+                // Scroll down - czekanie tylko do wyrenderowania doczytanych kafelków
+                BrowserWaits.scrollAndWaitForContent(driver, Duration.ofMillis(SCROLL_WAIT_TIME), OFFER_LINK_SELECTOR);
             }
 
             finishedScrolling.set(true);
-            System.out.println("[JustJoin.It] Finished scrolling. Total links collected: " + offerLinksSet.size());
+            System.out.println("[JustJoin.It] Finished scrolling. Total links collected: " + frontier.size());
 
         } catch (Exception e) {
             System.err.println("[JustJoin.It] Error during scrolling: " + e.getMessage());
@@ -155,22 +311,17 @@ public class JustJoinItScraper {
 
     private void collectOfferLinks() {
         try {
-            List<WebElement> linkElements = driver.findElements(By.xpath("//a[contains(@href, '/job-offer/')]"));
+            List<WebElement> linkElements = driver.findElements(By.cssSelector(OFFER_LINK_SELECTOR));
             for (WebElement linkElement : linkElements) {
                 String href = linkElement.getAttribute("href");
                 if (href != null && href.contains("/job-offer/")) {
                     // Ensure href is a full URL
-                    if (!href.startsWith("https://")) {
-                        href = "https://justjoin.it" + href;
+                    if (!href.startsWith("http")) {
+                        href = origin() + href;
                     }
 
-                    // Add to the set and list if it's a new link
-                    boolean isNewLink = offerLinksSet.add(href);
-                    if (isNewLink) {
-                        synchronized (offerLinks) {
-                            offerLinks.add(href);
-                        }
-                    }
+                    // Add to the frontier if it's a new link
+                    frontier.add(href);
                 }
             }
         } catch (Exception e) {
@@ -178,59 +329,161 @@ public class JustJoinItScraper {
         }
     }
 
-    public void scrapeOfferDetails(String offerUrl) {
+    // Wywoływane przez pulę wątków Scraper - odstęp między żądaniami zapewnia już rezerwacja w HostRateLimiter.
+    // Zwraca dodaną ofertę albo null, gdy nie udało się jej pobrać.
+    public JobOffer scrapeOfferDetails(String offerUrl) {
+        String host = HostRateLimiter.hostOf(offerUrl);
         try {
-            Thread.sleep(requestDelay); // Opóźnienie między żądaniami
-
             if (cancelled.get()) {
-                return;
+                return null;
             }
 
-            ChromeOptions options = new ChromeOptions();
-            options.addArguments("--disable-dev-shm-usage");// dla stabilności
-            options.addArguments("--no-sandbox");// dla stabilności
-            options.addArguments("--headless");// zaoszczędzenie zasobów
+            ChromeTabPool pool = tabPool;
+            JobOffer offer = pool != null ? readOfferInTab(pool, offerUrl, host) : readOfferInBrowser(offerUrl, host);
 
-            WebDriver offerDriver = new ChromeDriver(options);
-            try {
-                offerDriver.get(offerUrl);
-
-                // Czekanie na załadowanie strony
-                WebDriverWait wait = new WebDriverWait(offerDriver, Duration.ofSeconds(10));
-                wait.until(ExpectedConditions.presenceOfElementLocated(By.xpath("/html/body/div[2]/div/div/div/div[2]/div[2]/div[1]/div[2]/div[2]/h1")));
-
-                // Wyciągnięcie danych z HTML za pomocą XPath
-                String title = getTextByXPath(offerDriver, "/html/body/div[2]/div/div/div/div[2]/div[2]/div[1]/div[2]/div[2]/h1", "No Data");
-                String typeOfWork = getTextByXPath(offerDriver, "/html/body/div[2]/div/div/div/div[2]/div[2]/div[2]/div[1]/div[2]/div[2]", "No data");
-                String experience = getTextByXPath(offerDriver, "/html/body/div[2]/div/div/div/div[2]/div[2]/div[2]/div[2]/div[2]/div[2]", "No data");
-                String employmentType = getTextByXPath(offerDriver, "/html/body/div[2]/div/div/div/div[2]/div[2]/div[2]/div[3]/div[2]/div[2]", "No data");
-                String operatingMode = getTextByXPath(offerDriver, "/html/body/div[2]/div/div/div/div[2]/div[2]/div[2]/div[4]/div[2]/div[2]", "No data");
-                String location = getTextByXPath(offerDriver, "/html/body/div[2]/div/div/div/div[2]/div[2]/div[1]/div[2]/div[2]/div/div[2]/div/span", "No data");
-                if ("No data".equals(location)) {
-                    location = getTextByXPath(offerDriver, "/html/body/div[2]/div/div/div/div[2]/div[2]/div[1]/div[2]/div[2]/div/div[2]/button/div/span[1]", "No data") + getTextByXPath(offerDriver, "/html/body/div[2]/div/div/div/div[2]/div[2]/div[1]/div[2]/div[2]/div/div[2]/button/div/span[2]", "");
-                }
-                String company = getTextByXPath(offerDriver, "/html/body/div[2]/div/div/div/div[2]/div[2]/div[1]/div[2]/div[2]/div/div[1]", "No data");
-                String salary = getTextByCss(offerDriver, "span.css-1tka0qn", "No data");
+            // Uzupełnienie brakujących pól danymi z kafelka listingu
+            JobOffer tile = prefilledOffers.get(offerUrl);
+            if (tile != null) {
+                offer = new JobOffer(fillMissing(offer.getTitle(), tile.getTitle()), fillMissing(offer.getCompany(), tile.getCompany()),
+                        fillMissing(offer.getSalary(), tile.getSalary()), fillMissing(offer.getLocation(), tile.getLocation()), offerUrl,
+                        fillMissing(offer.getTypeOfWork(), tile.getTypeOfWork()), fillMissing(offer.getExperience(), tile.getExperience()),
+                        fillMissing(offer.getOperatingMode(), tile.getOperatingMode()));
+            }
 
-                // Dodanie oferty do listy
-                synchronized (jobOffers) {
-                    jobOffers.add(new JobOffer(title, company, salary, location, offerUrl, typeOfWork, experience, operatingMode));
-                }
+            // Dodanie oferty do listy
+            metrics.offerScraped(SITE, "detail");
+            jobOffers.add(offer);
 
-                System.out.println("[JustJoin.It] Scraped job details from JustJoinIt: " + title);
-                ui.updateOffersCount(jobOffers.size());
-
-            } finally {
-                if (offerDriver != null) {
-                    offerDriver.quit();
-                }
-            }
+            System.out.println("[JustJoin.It] Scraped job details from JustJoinIt: " + offer.getTitle());
+            listener.updateOffersCount(jobOffers.size());
+            return offer;
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
         } catch (Exception e) {
             System.err.println("[JustJoin.It] Error scraping JustJoinIt offer " + offerUrl + ": " + e.getMessage());
+            metrics.failure(SITE, e);
+            fetcher.getRateLimiter().onFailure(host);
+            // Strona oferty nie dała się odczytać - zostają dane z kafelka listingu
+            JobOffer tile = prefilledOffers.get(offerUrl);
+            if (tile != null) {
+                metrics.offerScraped(SITE, "tile");
+                jobOffers.add(tile);
+                listener.updateOffersCount(jobOffers.size());
+            }
+            return tile;
+        }
+    }
+
+    // Strona oferty w osobnej sesji WebDriver z puli
+    private JobOffer readOfferInBrowser(String offerUrl, String host) throws InterruptedException {
+        WebDriver offerDriver = driverPool.borrowDriver(RequestBlocker.JUSTJOIN_DETAIL);
+        boolean crashed = false;
+        try {
+            long start = System.currentTimeMillis();
+            long loadStart = System.nanoTime();
+            offerDriver.get(offerUrl);
+            metrics.detailLoad(SITE, "browser").observeSince(loadStart);
+
+            // Czekanie na tytuł, a potem na pozostałe pola albo uspokojenie DOM
+            long waitStart = System.nanoTime();
+            BrowserWaits.untilFields(offerDriver, Duration.ofSeconds(10), TITLE_XPATH, DETAIL_FIELDS);
+            metrics.selectorWait(SITE).observeSince(waitStart);
+            // Przeglądarka nie udostępnia kodu odpowiedzi - załadowana strona liczy się jako 200
+            fetcher.getRateLimiter().onResponse(host, 200, System.currentTimeMillis() - start);
+            long extractionStart = System.nanoTime();
+
+            // Wyciągnięcie danych z HTML za pomocą XPath
+            String title = getTextByXPath(offerDriver, TITLE_XPATH, "No Data");
+            String typeOfWork = getTextByXPath(offerDriver, TYPE_OF_WORK_XPATH, "No data");
+            String experience = getTextByXPath(offerDriver, EXPERIENCE_XPATH, "No data");
+            String employmentType = getTextByXPath(offerDriver, EMPLOYMENT_TYPE_XPATH, "No data");
+            String operatingMode = getTextByXPath(offerDriver, OPERATING_MODE_XPATH, "No data");
+            String location = getTextByXPath(offerDriver, LOCATION_XPATH, "No data");
+            if ("No data".equals(location)) {
+                location = getTextByXPath(offerDriver, LOCATION_BUTTON_XPATH, "No data") + getTextByXPath(offerDriver, LOCATION_MORE_XPATH, "");
+            }
+            String company = getTextByXPath(offerDriver, COMPANY_XPATH, "No data");
+            String salary = getTextByCss(offerDriver, SALARY_SELECTOR, "No data");
+
+            JobOffer offer = new JobOffer(title, company, salary, location, offerUrl, typeOfWork, experience, operatingMode);
+            metrics.extraction(SITE).observeSince(extractionStart);
+            return offer;
+
+        } catch (WebDriverException e) {
+            // Timeout oczekiwania na selektor nie oznacza awarii przeglądarki
+            crashed = !(e instanceof TimeoutException);
+            throw e;
+        } finally {
+            if (crashed) {
+                driverPool.invalidateDriver(offerDriver);
+            } else {
+                driverPool.returnDriver(offerDriver);
+            }
         }
     }
 
+    // Strona oferty w karcie współdzielonej przeglądarki; wyrenderowany DOM jest rozbierany przez Jsoup tymi samymi XPath
+    private JobOffer readOfferInTab(ChromeTabPool pool, String offerUrl, String host) throws InterruptedException {
+        ChromeTabPool.Tab tab = pool.borrowTab(RequestBlocker.JUSTJOIN_DETAIL);
+        boolean crashed = false;
+        try {
+            long start = System.currentTimeMillis();
+            long loadStart = System.nanoTime();
+            tab.navigate(offerUrl);
+            metrics.detailLoad(SITE, "tab").observeSince(loadStart);
+
+            long waitStart = System.nanoTime();
+            BrowserWaits.untilFields(tab, Duration.ofSeconds(10), TITLE_XPATH, DETAIL_FIELDS);
+            metrics.selectorWait(SITE).observeSince(waitStart);
+            fetcher.getRateLimiter().onResponse(host, 200, System.currentTimeMillis() - start);
+
+            long extractionStart = System.nanoTime();
+            JobOffer offer = parseOfferDetails(Jsoup.parse(tab.html(), offerUrl), offerUrl);
+            metrics.extraction(SITE).observeSince(extractionStart);
+            return offer;
+
+        } catch (WebDriverException e) {
+            // Timeout oczekiwania na selektor nie oznacza awarii karty
+            crashed = !(e instanceof TimeoutException);
+            throw e;
+        } finally {
+            if (crashed) {
+                pool.invalidateTab(tab);
+            } else {
+                pool.returnTab(tab);
+            }
+        }
+    }
+
+    // Pola oferty z wyrenderowanej strony (DOM z karty przeglądarki) - te same XPath co w sesji WebDriver
+    static JobOffer parseOfferDetails(Document doc, String offerUrl) {
+        String title = getTextByXPath(doc, TITLE_XPATH, "No Data");
+        String typeOfWork = getTextByXPath(doc, TYPE_OF_WORK_XPATH, "No data");
+        String experience = getTextByXPath(doc, EXPERIENCE_XPATH, "No data");
+        String operatingMode = getTextByXPath(doc, OPERATING_MODE_XPATH, "No data");
+        String location = getTextByXPath(doc, LOCATION_XPATH, "No data");
+        if ("No data".equals(location)) {
+            location = getTextByXPath(doc, LOCATION_BUTTON_XPATH, "No data") + getTextByXPath(doc, LOCATION_MORE_XPATH, "");
+        }
+        String company = getTextByXPath(doc, COMPANY_XPATH, "No data");
+        Element salaryElement = doc.selectFirst(SALARY_SELECTOR);
+        String salary = salaryElement != null && !salaryElement.text().isEmpty() ? salaryElement.text() : "No data";
+        return new JobOffer(title, company, salary, location, offerUrl, typeOfWork, experience, operatingMode);
+    }
+
+    private static String getTextByXPath(Document doc, String xpath, String defaultValue) {
+        Elements elements = doc.selectXpath(xpath);
+        String text = elements.isEmpty() ? "" : elements.get(0).text();
+        return text.isEmpty() ? defaultValue : text;
+    }
+
+    private static String fillMissing(String value, String fallback) {
+        boolean missing = value == null || value.isEmpty() || "No data".equalsIgnoreCase(value);
+        return missing && fallback != null ? fallback : value;
+    }
+
     // Pomocnicza metoda do pobierania tekstu z użyciem CSS
     private String getTextByCss(WebDriver driver, String cssSelector, String defaultValue) {
         try {
@@ -252,42 +505,34 @@ public class JustJoinItScraper {
     }
 
     private String buildUrl() {
-        StringBuilder url = new StringBuilder("https://justjoin.it/job-offers/");
+        return buildUrl(1);
+    }
+
+    private String buildUrl(int page) {
+        StringBuilder url = new StringBuilder(baseUrl);
         url.append(location.toLowerCase().replace(" ", "-"));
         if (!keywords.isEmpty()) {
             url.append("?keyword=").append(keywords.toLowerCase().replace(" ", "%20"));
         }
+        if (page > 1) {
+            url.append(keywords.isEmpty() ? '?' : '&').append("page=").append(page);
+        }
         return url.toString();
     }
 
-    private void waitForPageLoad() {
-        try {
-            new WebDriverWait(driver, Duration.ofSeconds(10)).until(
-                    d -> ((JavascriptExecutor) d).executeScript("return document.readyState").equals("complete")
-            );
-            System.out.println("[JustJoin.It] Page loaded successfully.");
-        } catch (Exception e) {
-            System.out.println("[JustJoin.It]  Error waiting for page to load: " + e.getMessage());
-        }
-    }
     public boolean isFinishedCollectingLinks() {
         return finishedScrolling.get();
     }
 
     public void cancel() {
         cancelled.set(true);
-        driverPool.shutdown();
     }
 
     private void closeDriver() {
         if (driver != null && driverInitialized) {
-            try {
-                driver.quit();
-                driverInitialized = false;
-                System.out.println("[JustJoin.It] ChromeDriver closed successfully.");
-            } catch (Exception e) {
-                System.err.println("[JustJoin.It] Error closing ChromeDriver: " + e.getMessage());
-            }
+            driverPool.returnDriver(driver);
+            driverInitialized = false;
+            System.out.println("[JustJoin.It] ChromeDriver returned to pool.");
         }
     }
 }
\ No newline at end of file
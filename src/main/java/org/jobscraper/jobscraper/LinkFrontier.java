@@ -0,0 +1,121 @@
+package org.jobscraper.jobscraper;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Kolejka linków do ofert typu producent/konsument: scrapery listingów dodają nowe linki,
+// a dyspozytor w Scraper odbiera je od razu. Koniec pracy jest sygnalizowany jawnie przez producentów.
+public class LinkFrontier {
+    private static final String END_OF_LINKS = new String("END_OF_LINKS"); // Znacznik końca, porównywany przez referencję
+
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+    private final Map<String, Long> seen = new ConcurrentHashMap<>(); // Wszystkie odkryte linki z czasem odkrycia (System.nanoTime())
+    private final AtomicInteger activeProducers;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicInteger expected = new AtomicInteger(); // Zapowiedziana przez serwisy liczba ofert (np. z nagłówka listingu)
+
+    public LinkFrontier(int producers) {
+        if (producers < 0) {
+            throw new IllegalArgumentException("Producer count must not be negative: " + producers);
+        }
+        this.activeProducers = new AtomicInteger(producers);
+        if (producers == 0) {
+            close();
+        }
+    }
+
+    // Dodanie linku - zwraca true, jeśli link jest nowy i trafił do kolejki
+    public boolean add(String url) {
+        if (url == null || closed.get() || seen.putIfAbsent(url, System.nanoTime()) != null) {
+            return false;
+        }
+        queue.offer(url);
+        return true;
+    }
+
+    // Link przetworzony już w przerwanym uruchomieniu (ScrapeJournal) - liczony jako odkryty, ale nie trafia do kolejki,
+    // także gdy listing poda go ponownie
+    public void addCompleted(String url) {
+        if (url != null) {
+            seen.putIfAbsent(url, System.nanoTime());
+        }
+    }
+
+    // Wywoływane przez każdego producenta dokładnie raz, po zakończeniu zbierania linków
+    public void producerFinished() {
+        if (activeProducers.decrementAndGet() <= 0) {
+            close();
+        }
+    }
+
+    // Pobranie kolejnego linku; blokuje do czasu pojawienia się linku, zwraca null po zamknięciu kolejki
+    public String take() throws InterruptedException {
+        String url = queue.take();
+        if (url == END_OF_LINKS) {
+            queue.offer(END_OF_LINKS); // Znacznik zostaje dla pozostałych konsumentów
+            return null;
+        }
+        return url;
+    }
+
+    // Zamknięcie kolejki - linki już w kolejce zostaną wydane, nowe są odrzucane
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            queue.offer(END_OF_LINKS);
+        }
+    }
+
+    // Anulowanie - porzucenie nieprzetworzonych linków i natychmiastowe odblokowanie konsumentów
+    public void cancel() {
+        closed.set(true);
+        queue.clear();
+        queue.offer(END_OF_LINKS);
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    public boolean contains(String url) {
+        return seen.containsKey(url);
+    }
+
+    // Chwila odkrycia linku (System.nanoTime()) - do pomiaru czasu oczekiwania w kolejce; Long.MIN_VALUE dla nieznanego linku
+    public long discoveredAtNanos(String url) {
+        Long discoveredAt = seen.get(url);
+        return discoveredAt != null ? discoveredAt : Long.MIN_VALUE;
+    }
+
+    // Liczba wszystkich odkrytych (unikalnych) linków
+    public int size() {
+        return seen.size();
+    }
+
+    // Zapowiedź liczby linków, które producent jeszcze dostarczy - pozwala od razu ustalić mianownik postępu
+    public void addExpected(int count) {
+        if (count > 0) {
+            expected.addAndGet(count);
+        }
+    }
+
+    // Zapowiedziany link, który nie trafi do kolejki (np. duplikat oferty z innego serwisu) - bez tego postęp nie dojdzie do 100%
+    public void removeExpected(int count) {
+        if (count > 0) {
+            expected.updateAndGet(current -> Math.max(0, current - count));
+        }
+    }
+
+    public int expectedSize() {
+        return expected.get();
+    }
+
+    // Liczba linków oczekujących na pobranie
+    public int pending() {
+        int pending = queue.size();
+        return closed.get() ? Math.max(0, pending - 1) : pending;
+    }
+}
@@ -0,0 +1,282 @@
+package org.jobscraper.jobscraper;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+// Metryki jednego uruchomienia: liczniki, wskaźniki (gauge) i histogramy czasów z etykietami.
+// Zrzut do JSON i do formatu tekstowego Prometheusa - na żądanie i na koniec scrapowania.
+public class MetricsRegistry {
+    // Granice kubełków histogramu w sekundach - od parsowania HTML (ms) po ładowanie strony w przeglądarce (s)
+    static final double[] BUCKETS = {0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    // Metryki potoku scrapowania; etykieta site to "pracuj" albo "justjoin"
+    public Histogram listingFetch(String site) {
+        return histogram("jobscraper_listing_fetch_seconds", "Time to fetch and parse one listing page", "site", site);
+    }
+
+    public Histogram detailLoad(String site, String mode) {
+        return histogram("jobscraper_detail_load_seconds", "Time to load an offer detail page", "site", site, "mode", mode);
+    }
+
+    public Histogram selectorWait(String site) {
+        return histogram("jobscraper_selector_wait_seconds", "Time spent in WebDriverWait for the offer selectors", "site", site);
+    }
+
+    public Histogram extraction(String site) {
+        return histogram("jobscraper_extraction_seconds", "Time to extract offer fields from a loaded page", "site", site);
+    }
+
+    public Histogram queueWait() {
+        return histogram("jobscraper_queue_wait_seconds", "Time from link discovery to the start of its detail task");
+    }
+
+    public Histogram offerLatency(String site) {
+        return histogram("jobscraper_offer_latency_seconds", "Time from link discovery until the offer is in the results", "site", site);
+    }
+
+    public void failure(String site, String cause) {
+        counter("jobscraper_failures_total", "Failed fetches and extractions by site and cause", "site", site, "cause", cause).increment();
+    }
+
+    // Przyczyna błędu jako nazwa klasy wyjątku, np. TimeoutException, HttpStatusException
+    public void failure(String site, Throwable error) {
+        failure(site, error.getClass().getSimpleName());
+    }
+
+    public void offerScraped(String site, String source) {
+        counter("jobscraper_offers_total", "Offers added to the results", "site", site, "source", source).increment();
+    }
+
+    // Oferta z kafelka uznana za kopię oferty z innego serwisu - szczegóły nie są pobierane
+    public void duplicateSkipped(String site) {
+        counter("jobscraper_duplicates_skipped_total", "Listing tiles skipped as probable cross-site duplicates", "site", site).increment();
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter").series.computeIfAbsent(labelKey(labels), k -> new Counter());
+    }
+
+    public Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) family(name, help, "histogram").series.computeIfAbsent(labelKey(labels), k -> new Histogram());
+    }
+
+    // Wskaźnik odczytywany w chwili zrzutu, np. długość kolejki
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, "gauge").series.put(labelKey(labels), new Gauge(value));
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, n -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + family.type);
+        }
+        return family;
+    }
+
+    // Etykiety jako pary klucz, wartość - posortowane, żeby kolejność w wywołaniu nie tworzyła nowych serii
+    private static String labelKey(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be key/value pairs");
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        for (int i = 0; i < labels.length; i += 2) {
+            sorted.put(labels[i], labels[i + 1] == null ? "" : labels[i + 1]);
+        }
+        StringBuilder key = new StringBuilder();
+        sorted.forEach((k, v) -> {
+            if (key.length() > 0) {
+                key.append(',');
+            }
+            key.append(k).append("=\"").append(v.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n")).append('"');
+        });
+        return key.toString();
+    }
+
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    public static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS.length + 1); // Ostatni kubełek to +Inf
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        public void observe(double seconds) {
+            int index = 0;
+            while (index < BUCKETS.length && seconds > BUCKETS[index]) {
+                index++;
+            }
+            buckets.incrementAndGet(index);
+            count.increment();
+            sum.add(seconds);
+        }
+
+        // Czas od startNanos (System.nanoTime()) do teraz
+        public void observeSince(long startNanos) {
+            observe((System.nanoTime() - startNanos) / 1_000_000_000.0);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getSum() {
+            return sum.sum();
+        }
+
+        // Przybliżony kwantyl (0..1) z interpolacją liniową w obrębie kubełka, jak histogram_quantile w Prometheusie;
+        // NaN, gdy brak obserwacji
+        public double quantile(double q) {
+            long total = cumulativeCount(BUCKETS.length);
+            if (total == 0) {
+                return Double.NaN;
+            }
+            double rank = q * total;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                long cumulative = cumulativeCount(i);
+                if (cumulative >= rank) {
+                    long below = i == 0 ? 0 : cumulativeCount(i - 1);
+                    double lower = i == 0 ? 0 : BUCKETS[i - 1];
+                    long inBucket = cumulative - below;
+                    return inBucket == 0 ? lower : lower + (BUCKETS[i] - lower) * (rank - below) / inBucket;
+                }
+            }
+            return BUCKETS[BUCKETS.length - 1]; // Kwantyl w kubełku +Inf - znana jest tylko dolna granica
+        }
+
+        long cumulativeCount(int bucketIndex) {
+            long total = 0;
+            for (int i = 0; i <= bucketIndex; i++) {
+                total += buckets.get(i);
+            }
+            return total;
+        }
+    }
+
+    private record Gauge(DoubleSupplier value) {
+    }
+
+    private static final class Family {
+        final String help;
+        final String type;
+        final Map<String, Object> series = new ConcurrentHashMap<>();
+
+        Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        new TreeMap<>(families).forEach((name, family) -> {
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            new TreeMap<>(family.series).forEach((labels, metric) -> {
+                if (metric instanceof Counter counter) {
+                    out.append(name).append(braces(labels)).append(' ').append(counter.get()).append('\n');
+                } else if (metric instanceof Gauge gauge) {
+                    out.append(name).append(braces(labels)).append(' ').append(format(gauge.value().getAsDouble())).append('\n');
+                } else if (metric instanceof Histogram histogram) {
+                    String prefix = labels.isEmpty() ? "" : labels + ",";
+                    for (int i = 0; i < BUCKETS.length; i++) {
+                        out.append(name).append("_bucket{").append(prefix).append("le=\"").append(format(BUCKETS[i])).append("\"} ")
+                                .append(histogram.cumulativeCount(i)).append('\n');
+                    }
+                    out.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ")
+                            .append(histogram.cumulativeCount(BUCKETS.length)).append('\n');
+                    out.append(name).append("_sum").append(braces(labels)).append(' ').append(format(histogram.getSum())).append('\n');
+                    out.append(name).append("_count").append(braces(labels)).append(' ').append(histogram.getCount()).append('\n');
+                }
+            });
+        });
+        return out.toString();
+    }
+
+    public JsonObject toJson() {
+        JsonObject root = new JsonObject();
+        new TreeMap<>(families).forEach((name, family) -> {
+            JsonObject familyJson = new JsonObject();
+            familyJson.addProperty("type", family.type);
+            familyJson.addProperty("help", family.help);
+            JsonArray series = new JsonArray();
+            new TreeMap<>(family.series).forEach((labels, metric) -> {
+                JsonObject entry = new JsonObject();
+                entry.addProperty("labels", labels);
+                if (metric instanceof Counter counter) {
+                    entry.addProperty("value", counter.get());
+                } else if (metric instanceof Gauge gauge) {
+                    entry.addProperty("value", gauge.value().getAsDouble());
+                } else if (metric instanceof Histogram histogram) {
+                    long count = histogram.getCount();
+                    entry.addProperty("count", count);
+                    entry.addProperty("sum", histogram.getSum());
+                    entry.addProperty("mean", count > 0 ? histogram.getSum() / count : 0.0);
+                    JsonObject buckets = new JsonObject();
+                    for (int i = 0; i < BUCKETS.length; i++) {
+                        buckets.addProperty(format(BUCKETS[i]), histogram.cumulativeCount(i));
+                    }
+                    buckets.addProperty("+Inf", histogram.cumulativeCount(BUCKETS.length));
+                    entry.add("buckets", buckets);
+                }
+                series.add(entry);
+            });
+            familyJson.add("series", series);
+            root.add(name, familyJson);
+        });
+        return root;
+    }
+
+    // Zapis metrics.json i metrics.prom do podanego katalogu
+    public void writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        write(directory.resolve("metrics.json"), new GsonBuilder().setPrettyPrinting().create().toJson(toJson()));
+        write(directory.resolve("metrics.prom"), toPrometheus());
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        Files.writeString(temp, content, StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String braces(String labels) {
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%s", value);
+    }
+}
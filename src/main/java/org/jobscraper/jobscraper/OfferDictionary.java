@@ -0,0 +1,51 @@
+package org.jobscraper.jobscraper;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Słownik powtarzalnych wartości pól oferty (firma, wynagrodzenie, lokalizacja, typ umowy, doświadczenie, tryb pracy).
+// Każda różna wartość jest trzymana raz, oferty przechowują tylko jej numer.
+// Słownik tylko rośnie - numer raz nadany wartości nie zmienia się do końca działania programu.
+public final class OfferDictionary {
+    public static final int NULL_CODE = -1;
+    private static final OfferDictionary SHARED = new OfferDictionary();
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private int size; // Zmieniane tylko pod blokadą this
+
+    // Wspólny słownik dla wszystkich ofert w procesie
+    public static OfferDictionary shared() {
+        return SHARED;
+    }
+
+    public int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value); // Typowa ścieżka - wartość już jest w słowniku, bez blokady
+        return code != null ? code : codes.computeIfAbsent(value, this::append);
+    }
+
+    public String decode(int code) {
+        if (code == NULL_CODE) {
+            return null;
+        }
+        return values[code];
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    private synchronized int append(String value) {
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = value;
+        values = current; // Zapis volatile po wstawieniu - czytelnik, który zna numer, widzi też wartość
+        return size++;
+    }
+}
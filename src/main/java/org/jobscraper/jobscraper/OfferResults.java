@@ -0,0 +1,110 @@
+package org.jobscraper.jobscraper;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Wyniki scrapowania: lista tylko do dopisywania, bez kopiowania tablicy przy każdym add (jak w CopyOnWriteArrayList)
+// i bez wspólnej blokady. Oferty leżą w blokach po 1024; dopisanie to rezerwacja numeru i zapis do bloku.
+// Odczyt przez snapshot() - widok na oferty dodane do tej chwili, bez kopiowania.
+public final class OfferResults {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final AtomicInteger reserved = new AtomicInteger(); // Liczba zarezerwowanych pozycji
+    private volatile AtomicReferenceArray<AtomicReferenceArray<JobOffer>> chunks = new AtomicReferenceArray<>(16);
+
+    // Zwraca pozycję dodanej oferty
+    public int add(JobOffer offer) {
+        if (offer == null) {
+            throw new NullPointerException("offer");
+        }
+        int index = reserved.getAndIncrement();
+        chunk(index >>> CHUNK_BITS).set(index & CHUNK_MASK, offer);
+        return index;
+    }
+
+    // Liczba dodanych ofert (razem z tymi, których zapis właśnie trwa - get() na nie poczeka)
+    public int size() {
+        return reserved.get();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public JobOffer get(int index) {
+        if (index < 0 || index >= reserved.get()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        AtomicReferenceArray<JobOffer> chunk = existingChunk(index >>> CHUNK_BITS);
+        while (chunk == null) { // Pozycja zarezerwowana, blok jeszcze nie założony - chwila
+            Thread.onSpinWait();
+            chunk = existingChunk(index >>> CHUNK_BITS);
+        }
+        JobOffer offer = chunk.get(index & CHUNK_MASK);
+        while (offer == null) { // Zapis między rezerwacją a wstawieniem - trwa kilka nanosekund
+            Thread.onSpinWait();
+            offer = chunk.get(index & CHUNK_MASK);
+        }
+        return offer;
+    }
+
+    // Niezmienny widok na oferty dodane do tej pory; kolejne add() go nie zmieniają
+    public List<JobOffer> snapshot() {
+        return new Snapshot(reserved.get());
+    }
+
+    private AtomicReferenceArray<JobOffer> chunk(int chunkIndex) {
+        AtomicReferenceArray<JobOffer> chunk = existingChunk(chunkIndex);
+        return chunk != null ? chunk : createChunk(chunkIndex);
+    }
+
+    private AtomicReferenceArray<JobOffer> existingChunk(int chunkIndex) {
+        AtomicReferenceArray<AtomicReferenceArray<JobOffer>> directory = chunks;
+        return chunkIndex < directory.length() ? directory.get(chunkIndex) : null;
+    }
+
+    // Zakładanie bloku i powiększanie katalogu raz na 1024 oferty - pod blokadą, żeby nie zgubić bloku przy kopiowaniu katalogu
+    private synchronized AtomicReferenceArray<JobOffer> createChunk(int chunkIndex) {
+        AtomicReferenceArray<AtomicReferenceArray<JobOffer>> directory = chunks;
+        if (chunkIndex >= directory.length()) {
+            AtomicReferenceArray<AtomicReferenceArray<JobOffer>> grown = new AtomicReferenceArray<>(Math.max(directory.length() * 2, chunkIndex + 1));
+            for (int i = 0; i < directory.length(); i++) {
+                grown.set(i, directory.get(i));
+            }
+            directory = grown;
+        }
+        AtomicReferenceArray<JobOffer> chunk = directory.get(chunkIndex);
+        if (chunk == null) {
+            chunk = new AtomicReferenceArray<>(CHUNK_SIZE);
+            directory.set(chunkIndex, chunk);
+        }
+        chunks = directory;
+        return chunk;
+    }
+
+    private final class Snapshot extends AbstractList<JobOffer> implements RandomAccess {
+        private final int size;
+
+        Snapshot(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public JobOffer get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return OfferResults.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -1,165 +1,521 @@
 package org.jobscraper.jobscraper;
 
-import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class PracujPlScraper {
     private final String keywords;
     private final String location;
-    private final List<String> offerLinks;
-    private final Set<String> offerLinksSet;
-    private final List<JobOffer> jobOffers;
+    private final LinkFrontier frontier;
+    private final OfferResults jobOffers;
     private final String distance;
-    private int currentPage = 1;
     private final AtomicBoolean finished = new AtomicBoolean(false);
-    private final HelloApplication ui;
+    private final ScraperListener listener;
+    private final WebDriverPool driverPool;
+    private volatile ChromeTabPool tabPool;
+    private volatile RateLimitedDispatcher dispatcher;
     private final AtomicBoolean cancelled = new AtomicBoolean(false);
     private final AtomicBoolean linksCollectionFinished = new AtomicBoolean(false);
     private Thread scraperThread;
-    private static final String[] USER_AGENTS = {
-            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/123.0.0.0 Safari/537.36",
-            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/123.0.0.0 Safari/537.36",
-            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/123.0.0.0 Safari/537.36",
-            "Mozilla/5.0 (iPhone; CPU iPhone OS 14_6 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/14.1 Mobile/15E148 Safari/604.1",
-            "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:123.0) Gecko/20100101 Firefox/123.0"
+    private volatile ExecutionMode executionMode = ExecutionMode.FIXED_POOL;
+    private volatile MetricsRegistry metrics = new MetricsRegistry();
+    private static final String SITE = "pracuj"; // Etykieta w metrykach
+    public static final String DEFAULT_BASE_URL = "https://www.pracuj.pl/praca/";
+    private volatile String baseUrl = DEFAULT_BASE_URL;
+    private volatile DetailMode detailMode = DetailMode.HTTP;
+    private final HttpFetcher fetcher;
+    private volatile DuplicateDetector duplicateDetector; // Wspólny dla wszystkich serwisów; null wyłącza wykrywanie duplikatów
+    private final Map<String, JobOffer> tileOffers = new ConcurrentHashMap<>(); // Dane z kafelków listingu, kluczem jest URL oferty
+    private final AtomicInteger duplicatesSkipped = new AtomicInteger();
+    private volatile boolean expectedAnnounced; // Liczba ofert z nagłówka listingu została przekazana do frontier
+    private static final int LISTING_THREADS = 4; // Równoległe strony listingu w trybie FIXED_POOL
+    private static final String OFFER_LINK_SELECTOR = "a.tiles_cnb3rfy.core_n194fgoq";
+    private static final String OFFER_TILE_SELECTOR = "[data-test='default-offer'], [data-test='positioned-offer']";
+    // Pola strony oferty w przeglądarce, na które warto poczekać po pojawieniu się tytułu
+    private static final List<String> DETAIL_FIELDS = List.of("[data-test='text-employerName']", "[data-test='text-earningAmount']",
+            "[data-test='sections-benefit-workplaces']", "[data-test='sections-benefit-contracts']",
+            "[data-test='sections-benefit-employment-type-name']", "[data-scroll-id='work-modes']");
+    private static final String[] MAX_PAGE_SELECTORS = {
+            "[data-test='top-pagination-max-page-number']",
+            "[data-test='bottom-pagination-max-page-number']"
     };
+    private static final Pattern TOTAL_COUNT_PATTERN = Pattern.compile("\"(?:groupedOffersTotalCount|offersTotalCount)\"\\s*:\\s*(\\d+)");
 
-    public PracujPlScraper(List<JobOffer> jobOffers, String keywords, String location, String distance,
-                           List<String> offerLinks, Set<String> offerLinksSet, HelloApplication ui) {
+    // Sposób pobierania szczegółów oferty
+    public enum DetailMode {
+        HTTP,    // Jsoup na HTML z serwera, przeglądarka tylko jako awaryjna ścieżka
+        BROWSER  // Zawsze headless Chrome
+    }
+
+    public PracujPlScraper(OfferResults jobOffers, String keywords, String location, String distance,
+                           LinkFrontier frontier, WebDriverPool driverPool, HttpFetcher fetcher,
+                           ScraperListener listener) {
         this.jobOffers = jobOffers;
         this.keywords = keywords != null && !keywords.isEmpty() ? keywords : "";
         this.location = location != null && !location.isEmpty() ? location : "";
-        this.offerLinks = offerLinks;
-        this.offerLinksSet = offerLinksSet;
-        this.ui = ui;
+        this.frontier = frontier;
+        this.driverPool = driverPool;
+        this.fetcher = fetcher;
+        this.listener = listener;
         this.distance = distance != null && !distance.isEmpty() ? distance : "0";
     }
 
-    private String getRandomUserAgent() {
-        int index = (int) (Math.random() * USER_AGENTS.length);
-        return USER_AGENTS[index];
+    public void setMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public void setDuplicateDetector(DuplicateDetector duplicateDetector) {
+        this.duplicateDetector = duplicateDetector;
+    }
+
+    // Strony szczegółów jako karty współdzielonych przeglądarek zamiast osobnych sesji z driverPool; null - sesje z puli
+    public void setTabPool(ChromeTabPool tabPool) {
+        this.tabPool = tabPool;
+    }
+
+    // Kolejka stron listingu pobieranych równolegle - wątek strony startuje dopiero z tokenem hosta; musi zostać ustawiona przed startScraping()
+    public void setDispatcher(RateLimitedDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    // Adres listingu, np. lokalny serwer ze stronami testowymi; musi zostać ustawiony przed startScraping()
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    // Czy link do oferty pochodzi z tego serwisu
+    public boolean ownsLink(String url) {
+        return HostRateLimiter.isSameSite(url, baseUrl);
     }
 
     public void startScraping() {
-        scraperThread = new Thread(() -> {
+        scraperThread = executionMode.newThread("pracuj-listing", () -> {
             try {
-                while (!finished.get() && !cancelled.get()) {
-                    scrapeMainPage();
-                    Thread.sleep(2000); // Rate limiting
-                    ui.updateUI(jobOffers.size(), offerLinksSet.size(), null);
-                }
+                scrapeListing();
                 System.out.println("[Pracuj.pl] Finished scraping job offers.");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             } catch (Exception e) {
                 System.err.println("[Pracuj.pl] Error: " + e.getMessage());
                 e.printStackTrace();
+            } finally {
+                // Koniec zbierania linków niezależnie od powodu (koniec wyników, przekierowanie, błąd, anulowanie)
+                linksCollectionFinished.set(true);
+                frontier.producerFinished();
             }
         });
-        scraperThread.setDaemon(true);
         scraperThread.start();
     }
 
-    private void scrapeMainPage() throws IOException, InterruptedException {
-        if (cancelled.get()) {
-            finished.set(true);
+    // Strona 1 podaje liczbę stron i ofert - pozostałe strony są pobierane równolegle (w ramach limitu hosta).
+    // Gdy liczby stron nie da się odczytać, strony są pobierane po kolei aż do pustej strony lub przekierowania.
+    private void scrapeListing() throws IOException, InterruptedException {
+        Document firstPage = fetchListingPage(1, true);
+        if (firstPage == null || addOffersFromPage(firstPage, 1) == 0) {
             return;
         }
-        String baseUrl = "https://www.pracuj.pl/praca/";
-        String urlParams = buildUrlParams();
-        String url = baseUrl + urlParams + (currentPage > 1 ? "&pn=" + currentPage : "");
-        System.out.println("[Pracuj.pl] Scraping page: " + url);
 
-        Connection.Response response = Jsoup.connect(url)
-                .userAgent(getRandomUserAgent())
-                .timeout(10000)
-                .followRedirects(true)
-                .execute();
-
-        if (response.hasHeader("Location")) {
-            String redirectUrl = response.header("Location");
-            if (redirectUrl.contains("it.pracuj.pl")) {
-                System.out.println("[Pracuj.pl] Redirecting to: " + redirectUrl);
-                response = Jsoup.connect(redirectUrl)
-                        .userAgent(getRandomUserAgent())
-                        .timeout(10000)
-                        .followRedirects(true)
-                        .execute();
-            } else {
-                System.out.println("[Pracuj.pl] Ignoring redirect to: " + redirectUrl);
-                finished.set(true);
-                return;
+        int maxPage = parseMaxPage(firstPage);
+        if (maxPage > 1) {
+            int totalOffers = parseTotalOffers(firstPage);
+            int pageSize = firstPage.select(OFFER_LINK_SELECTOR).size();
+            // Duplikaty pominięte na pierwszej stronie nie trafią do kolejki, kolejne są odejmowane na bieżąco
+            frontier.addExpected((totalOffers > 0 ? totalOffers : maxPage * pageSize) - duplicatesSkipped.get());
+            expectedAnnounced = true;
+            System.out.println("[Pracuj.pl] " + maxPage + " pages, " + (totalOffers > 0 ? totalOffers : "~" + maxPage * pageSize) + " offers expected");
+            listener.updateUI(jobOffers.size(), Math.max(frontier.size(), frontier.expectedSize()), null);
+            scrapeRemainingPagesInParallel(maxPage);
+            return;
+        }
+
+        int page = 2;
+        while (!cancelled.get()) {
+            Document doc = fetchListingPage(page, true);
+            if (doc == null || addOffersFromPage(doc, page) == 0) {
+                break;
+            }
+            listener.updateUI(jobOffers.size(), frontier.size(), null);
+            page++;
+        }
+    }
+
+    private void scrapeRemainingPagesInParallel(int maxPage) throws InterruptedException {
+        ExecutorService pageExecutor = executionMode.newWorkerExecutor(LISTING_THREADS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int page = 2; page <= maxPage; page++) {
+                final int pageNumber = page;
+                // Strona trafia do puli dopiero z tokenem hosta, więc wątki listingu nie czekają na limit żądań
+                results.add(dispatcher.submit(listingUrl(pageNumber), () -> {
+                    if (cancelled.get()) {
+                        return 0;
+                    }
+                    Document doc = fetchListingPage(pageNumber, false);
+                    int added = doc != null ? addOffersFromPage(doc, pageNumber) : 0;
+                    listener.updateUI(jobOffers.size(), Math.max(frontier.size(), frontier.expectedSize()), null);
+                    return added;
+                }, pageExecutor));
             }
+            for (Future<Integer> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    System.err.println("[Pracuj.pl] Error scraping listing page: " + e.getCause().getMessage());
+                } catch (CancellationException e) {
+                    break; // Scraper anulowany - strony czekające na token zostały porzucone
+                }
+            }
+        } finally {
+            pageExecutor.shutdownNow();
         }
+    }
+
+    private String listingUrl(int page) {
+        return baseUrl + buildUrlParams() + (page > 1 ? "&pn=" + page : "");
+    }
+
+    // Pobranie strony listingu; null oznacza brak kolejnych stron (przekierowanie poza listing).
+    // Bez acquirePermit token hosta został już pobrany przez dyspozytor
+    private Document fetchListingPage(int page, boolean acquirePermit) throws IOException, InterruptedException {
+        if (cancelled.get()) {
+            return null;
+        }
+        String url = listingUrl(page);
+        System.out.println("[Pracuj.pl] Scraping page: " + url);
 
-        Document doc = response.parse();
+        long start = System.nanoTime();
+        Document doc;
+        try {
+            doc = fetcher.get(url, acquirePermit); // Jsoup podąża za przekierowaniami, strona może pochodzić z cache
+        } catch (IOException e) {
+            metrics.failure(SITE, e);
+            throw e;
+        }
+        metrics.listingFetch(SITE).observeSince(start);
         String currentUrl = doc.location();
-        if (!currentUrl.contains("pn=" + currentPage) && currentPage > 1) {
+        // Przekierowania w obrębie pracuj.pl (np. na it.pracuj.pl) są w porządku, pozostałe kończą listing
+        if (!ownsLink(currentUrl)) {
+            System.out.println("[Pracuj.pl] Ignoring redirect to: " + currentUrl);
+            return null;
+        }
+        if (!currentUrl.contains("pn=" + page) && page > 1) {
             System.out.println("[Pracuj.pl] No more pages available (redirected to: " + currentUrl + ")");
-            finished.set(true);
-            return;
+            return null;
         }
+        return doc;
+    }
 
-        Elements offerLinksElements = doc.select("a.tiles_cnb3rfy.core_n194fgoq");
+    // Dodanie linków z jednej strony listingu do kolejki; zwraca liczbę kafelków z ofertami na stronie
+    private int addOffersFromPage(Document doc, int page) {
+        Elements offerLinksElements = doc.select(OFFER_LINK_SELECTOR);
         if (offerLinksElements.isEmpty()) {
-            System.out.println("[Pracuj.pl] No more job offers found on page " + currentPage);
-            finished.set(true);
-            linksCollectionFinished.set(true);
-            return;
+            System.out.println("[Pracuj.pl] No more job offers found on page " + page);
+            return 0;
         }
 
+        DuplicateDetector detector = duplicateDetector;
         for (Element link : offerLinksElements) {
-            String offerUrl = link.absUrl("href");
-            boolean isNewLink = offerLinksSet.add(offerUrl);
-            if (isNewLink) {
-                synchronized (offerLinks) {
-                    offerLinks.add(offerUrl);
+            String url = link.absUrl("href");
+            JobOffer tile = parseTile(link, url);
+            if (tile != null) {
+                tileOffers.putIfAbsent(url, tile);
+            }
+            if (detector != null) {
+                // Ta sama oferta odkryta już w innym serwisie - bez pobierania szczegółów
+                String original = tile != null ? detector.register(SITE, url, tile.getTitle(), tile.getCompany(), tile.getLocation()) : null;
+                if (original != null) {
+                    metrics.duplicateSkipped(SITE);
+                    duplicatesSkipped.incrementAndGet();
+                    if (expectedAnnounced) {
+                        frontier.removeExpected(1);
+                    }
+                    System.out.println("[Pracuj.pl] Skipping probable duplicate of " + original + ": " + url);
+                    continue;
+                }
+            }
+            frontier.add(url);
+        }
+        System.out.println("[Pracuj.pl] Found " + frontier.size() + " offers so far");
+        return offerLinksElements.size();
+    }
+
+    // Dane kafelka z dziennika przerwanego uruchomienia - przy wznowieniu bez ponownego przeglądania listingu
+    void restoreTile(JobOffer tile) {
+        tileOffers.putIfAbsent(tile.getUrl(), tile);
+    }
+
+    // Oferta z kafelka listingu dla linku z kolejki; null, gdy kafelka nie udało się odczytać
+    public JobOffer tileOffer(String offerUrl) {
+        return tileOffers.get(offerUrl);
+    }
+
+    // Oferta z danych kafelka listingu (tytuł, firma, wynagrodzenie, region, dodatkowe informacje);
+    // null, gdy link nie leży w kafelku o znanym układzie
+    static JobOffer parseTile(Element link, String offerUrl) {
+        Element tile = link.closest(OFFER_TILE_SELECTOR);
+        if (tile == null || link.text().isEmpty()) {
+            return null;
+        }
+        String company = getTextByCss(tile, "[data-test='text-company-name']", "Brak firmy");
+        String salary = getTextByCss(tile, "[data-test='offer-salary']", "Undisclosed Salary");
+        String location = getTextByCss(tile, "[data-test='text-region']", "Brak lokalizacji");
+
+        // Kolejność pozycji na liście dodatkowych informacji bywa różna - rozpoznanie po treści
+        String typeOfWork = "Brak danych";
+        String experience = "Brak danych";
+        String operatingMode = "Brak danych";
+        for (Element info : tile.select("[data-test='offer-additional-info-list'] li")) {
+            String text = info.text();
+            String lower = text.toLowerCase();
+            if (lower.contains("umowa") || lower.contains("kontrakt") || lower.contains("b2b")) {
+                typeOfWork = text;
+            } else if (lower.startsWith("praca ") || lower.contains("zdaln") || lower.contains("hybryd") || lower.contains("stacjonar")) {
+                operatingMode = text;
+            } else if (!text.isEmpty()) {
+                experience = text;
+            }
+        }
+        return new JobOffer(link.text(), company, salary, location, offerUrl, typeOfWork, experience, operatingMode);
+    }
+
+    // Numer ostatniej strony z paginacji; 0, gdy nie da się go odczytać
+    static int parseMaxPage(Document doc) {
+        for (String selector : MAX_PAGE_SELECTORS) {
+            Element element = doc.selectFirst(selector);
+            if (element != null) {
+                int maxPage = parseNumber(element.text());
+                if (maxPage > 0) {
+                    return maxPage;
                 }
             }
         }
-        System.out.println("[Pracuj.pl] Found " + offerLinksSet.size() + " offers so far");
-        currentPage++;
-        Thread.sleep(4000); // Rate limiting
+        // Awaryjnie: największy numer spośród przycisków stron
+        int maxPage = 0;
+        for (Element button : doc.select("[data-test^='bottom-pagination-button-page'], [data-test^='top-pagination-button-page']")) {
+            maxPage = Math.max(maxPage, parseNumber(button.text()));
+        }
+        return maxPage;
+    }
+
+    // Łączna liczba ofert z nagłówka listingu albo ze stanu strony; 0, gdy nieznana
+    static int parseTotalOffers(Document doc) {
+        Element header = doc.selectFirst("[data-test='list-header-offers-count'], [data-test='text-offers-count']");
+        if (header != null) {
+            int total = parseNumber(header.text());
+            if (total > 0) {
+                return total;
+            }
+        }
+        Element state = doc.selectFirst("script#__NEXT_DATA__");
+        if (state != null) {
+            Matcher matcher = TOTAL_COUNT_PATTERN.matcher(state.data());
+            if (matcher.find()) {
+                return Integer.parseInt(matcher.group(1));
+            }
+        }
+        return 0;
+    }
+
+    private static int parseNumber(String text) {
+        String digits = text.replaceAll("\\D", "");
+        if (digits.isEmpty() || digits.length() > 9) {
+            return 0;
+        }
+        return Integer.parseInt(digits);
     }
 
     public boolean isFinishedCollectingLinks() {
         return linksCollectionFinished.get();
     }
 
-    public void scrapeOfferDetails(String offerUrl) {
-        WebDriver offerDriver = null;
-        try {
-            Thread.sleep(2000); // Rate limiting
+    public void setDetailMode(DetailMode detailMode) {
+        this.detailMode = detailMode;
+    }
+
+    public DetailMode getDetailMode() {
+        return detailMode;
+    }
 
+    // Wywoływane przez pulę wątków Scraper - odstęp między żądaniami zapewnia już rezerwacja w HostRateLimiter.
+    // Zwraca dodaną ofertę albo null, gdy nie udało się jej pobrać.
+    public JobOffer scrapeOfferDetails(String offerUrl) {
+        try {
             if (cancelled.get()) {
-                return;
+                return null;
+            }
+
+            JobOffer offer = null;
+            if (detailMode == DetailMode.HTTP) {
+                offer = scrapeOfferDetailsOverHttp(offerUrl);
+            }
+            if (offer == null) {
+                // Tryb przeglądarkowy albo strona bez danych w HTML z serwera
+                offer = scrapeOfferDetailsInBrowser(offerUrl);
             }
+            if (offer == null) {
+                return null;
+            }
+            metrics.offerScraped(SITE, "detail");
+
+            // Dodanie oferty do listy
+            jobOffers.add(offer);
+
+            System.out.println("[Pracuj.pl] Scraped job details: " + offer.getTitle());
+            listener.updateOffersCount(jobOffers.size());
+
+            if (jobOffers.size() == frontier.size()) {
+                finished.set(true);
+                listener.updateUI(jobOffers.size(), frontier.size(), null);
+                System.out.println("[Pracuj.pl] All job offers scraped.");
+            }
+            return offer;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    // Pobranie oferty zwykłym żądaniem HTTP - dane z atrybutów data-test są już w HTML renderowanym po stronie serwera
+    private JobOffer scrapeOfferDetailsOverHttp(String offerUrl) throws InterruptedException {
+        try {
+            long start = System.nanoTime();
+            Document doc = fetcher.get(offerUrl, false); // Token zarezerwowany już przez Scraper
+            metrics.detailLoad(SITE, "http").observeSince(start);
+
+            long extractionStart = System.nanoTime();
+            JobOffer offer = parseOfferDetails(doc, offerUrl);
+            metrics.extraction(SITE).observeSince(extractionStart);
+            if (offer == null) {
+                metrics.failure(SITE, "no_server_data");
+                System.out.println("[Pracuj.pl] No server-rendered offer data, falling back to browser: " + offerUrl);
+            }
+            return offer;
+        } catch (IOException e) {
+            metrics.failure(SITE, e);
+            System.err.println("[Pracuj.pl] HTTP fetch failed for " + offerUrl + ", falling back to browser: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Wyciągnięcie pól oferty z dokumentu Jsoup - te same selektory co w trybie przeglądarkowym
+    static JobOffer parseOfferDetails(Document doc, String offerUrl) {
+        Element titleElement = doc.selectFirst("[data-test='text-positionName']");
+        if (titleElement == null || titleElement.text().isEmpty()) {
+            return null;
+        }
+        String title = titleElement.text();
+        String company = getTextByCss(doc, "[data-test='text-employerName']", "Brak firmy")
+                .replace("About the company", "").replace("O firmie", "").trim();
+        String salary = getTextByCss(doc, "[data-test='text-earningAmount']", "Undisclosed Salary");
+
+        // Lokalizacja - tytuł odznaki, a w razie jego braku opis
+        String location = getTextByCss(doc, "[data-test='sections-benefit-workplaces'] [data-test='offer-badge-title']", null);
+        if (location == null) {
+            location = getTextByCss(doc, "[data-test='sections-benefit-workplaces'] [data-test='offer-badge-description']", "Brak lokalizacji");
+        }
+
+        String typeOfWork = getTextByCss(doc, "[data-test='sections-benefit-contracts'] [data-test='offer-badge-title']", "Brak danych");
+        String experience = getTextByCss(doc, "[data-test='sections-benefit-employment-type-name'] [data-test='offer-badge-title']", "Brak danych");
+        String operatingMode = getTextByCss(doc, "[data-scroll-id='work-modes'] [data-test='offer-badge-title']", "Brak danych");
+
+        return new JobOffer(title, company, salary, location, offerUrl, typeOfWork, experience, operatingMode);
+    }
 
-            ChromeOptions options = new ChromeOptions();
-            options.addArguments("--disable-dev-shm-usage");
-            options.addArguments("--no-sandbox");
-            options.addArguments("--headless");
+    // Karta współdzielonej przeglądarki: czekanie na pola jak w sesji WebDriver, a potem rozbiór wyrenderowanego DOM
+    // tymi samymi selektorami co HTML z serwera
+    private JobOffer scrapeOfferDetailsInTab(ChromeTabPool pool, String offerUrl) throws InterruptedException {
+        ChromeTabPool.Tab tab = null;
+        boolean crashed = false;
+        String host = HostRateLimiter.hostOf(offerUrl);
+        try {
+            tab = pool.borrowTab(RequestBlocker.PRACUJ_DETAIL);
+            long start = System.currentTimeMillis();
+            long loadStart = System.nanoTime();
+            tab.navigate(offerUrl);
+            metrics.detailLoad(SITE, "tab").observeSince(loadStart);
+
+            long waitStart = System.nanoTime();
+            BrowserWaits.untilFields(tab, Duration.ofSeconds(10), "[data-test='text-positionName']", DETAIL_FIELDS);
+            metrics.selectorWait(SITE).observeSince(waitStart);
+            fetcher.getRateLimiter().onResponse(host, 200, System.currentTimeMillis() - start);
+
+            long extractionStart = System.nanoTime();
+            JobOffer offer = parseOfferDetails(Jsoup.parse(tab.html(), offerUrl), offerUrl);
+            metrics.extraction(SITE).observeSince(extractionStart);
+            return offer;
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            metrics.failure(SITE, e);
+            // Timeout oczekiwania na selektor nie oznacza awarii karty
+            crashed = e instanceof WebDriverException && !(e instanceof TimeoutException);
+            fetcher.getRateLimiter().onFailure(host);
+            System.err.println("[Pracuj.pl] Error scraping offer " + offerUrl + " in tab: " + e.getMessage());
+            return null;
+        } finally {
+            if (tab != null) {
+                if (crashed) {
+                    pool.invalidateTab(tab);
+                } else {
+                    pool.returnTab(tab);
+                }
+            }
+        }
+    }
 
-            offerDriver = new ChromeDriver(options);
+    private JobOffer scrapeOfferDetailsInBrowser(String offerUrl) throws InterruptedException {
+        ChromeTabPool pool = tabPool;
+        if (pool != null) {
+            return scrapeOfferDetailsInTab(pool, offerUrl);
+        }
+        WebDriver offerDriver = null;
+        boolean crashed = false;
+        String host = HostRateLimiter.hostOf(offerUrl);
+        try {
+            offerDriver = driverPool.borrowDriver(RequestBlocker.PRACUJ_DETAIL);
+            long start = System.currentTimeMillis();
+            long loadStart = System.nanoTime();
             offerDriver.get(offerUrl);
+            metrics.detailLoad(SITE, "browser").observeSince(loadStart);
 
-            // Czekanie na załadowanie strony
-            WebDriverWait wait = new WebDriverWait(offerDriver, Duration.ofSeconds(10));
-            wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector("[data-test='text-positionName']")));
+            // Czekanie na tytuł, a potem na pozostałe pola albo uspokojenie DOM (części pól w ofercie może nie być)
+            long waitStart = System.nanoTime();
+            BrowserWaits.untilFields(offerDriver, Duration.ofSeconds(10), "[data-test='text-positionName']", DETAIL_FIELDS);
+            metrics.selectorWait(SITE).observeSince(waitStart);
+            // Przeglądarka nie udostępnia kodu odpowiedzi - załadowana strona liczy się jako 200
+            fetcher.getRateLimiter().onResponse(host, 200, System.currentTimeMillis() - start);
+            long extractionStart = System.nanoTime();
 
             // Wyciągnięcie danych za pomocą selektorów CSS i atrybutów data-test
             String title = getTextByCss(offerDriver, "[data-test='text-positionName']", "Brak tytułu");
@@ -188,29 +544,40 @@ public class PracujPlScraper {
             // Tryb pracy
             String operatingMode = getTextByCss(offerDriver, "[data-scroll-id='work-modes'] [data-test='offer-badge-title']", "Brak danych");
 
-            // Dodanie oferty do listy
-            synchronized (jobOffers) {
-                jobOffers.add(new JobOffer(title, company, salary, location, offerUrl, typeOfWork, experience, operatingMode));
-            }
-
-            System.out.println("[Pracuj.pl] Scraped job details: " + title);
-            ui.updateOffersCount(jobOffers.size());
-
-            if (jobOffers.size() == offerLinksSet.size()) {
-                finished.set(true);
-                ui.updateUI(jobOffers.size(), offerLinksSet.size(), null);
-                System.out.println("[Pracuj.pl] All job offers scraped.");
-            }
+            JobOffer offer = new JobOffer(title, company, salary, location, offerUrl, typeOfWork, experience, operatingMode);
+            metrics.extraction(SITE).observeSince(extractionStart);
+            return offer;
 
+        } catch (InterruptedException e) {
+            throw e;
         } catch (Exception e) {
+            metrics.failure(SITE, e);
+            // Timeout oczekiwania na selektor nie oznacza awarii przeglądarki
+            crashed = e instanceof WebDriverException && !(e instanceof TimeoutException);
+            fetcher.getRateLimiter().onFailure(host);
             System.err.println("[Pracuj.pl] Error scraping offer " + offerUrl + ": " + e.getMessage());
+            return null;
         } finally {
             if (offerDriver != null) {
-                offerDriver.quit();
+                if (crashed) {
+                    driverPool.invalidateDriver(offerDriver);
+                } else {
+                    driverPool.returnDriver(offerDriver);
+                }
             }
         }
     }
 
+    // Pomocnicza metoda do pobierania tekstu z dokumentu (albo fragmentu) Jsoup
+    private static String getTextByCss(Element root, String cssSelector, String defaultValue) {
+        Element element = root.selectFirst(cssSelector);
+        if (element == null) {
+            return defaultValue;
+        }
+        String text = element.text();
+        return text.isEmpty() ? defaultValue : text;
+    }
+
     // Pomocnicza metoda do pobierania tekstu z użyciem CSS
     private String getTextByCss(WebDriver driver, String cssSelector, String defaultValue) {
         try {
@@ -0,0 +1,202 @@
+package org.jobscraper.jobscraper;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Kolejki zadań per host, przekazywane do puli wątków w tempie HostRateLimiter.
+// Token jest pobierany dopiero w chwili przekazania zadania, więc zmiana tempa (AIMD) od razu dotyczy
+// wszystkich czekających zadań. Na token czeka wątek harmonogramu, a nie wątki robocze.
+public class RateLimitedDispatcher {
+    private final HostRateLimiter rateLimiter;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, HostQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private final AtomicInteger pending = new AtomicInteger(); // Zadania w kolejkach i w trakcie wykonania
+    private final ReentrantLock idleLock = new ReentrantLock();
+    private final Condition idle = idleLock.newCondition();
+
+    public RateLimitedDispatcher(HostRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "scraper-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Uruchomienie zadania w puli executor, gdy host adresu url będzie miał wolny token; zadania hosta wychodzą w kolejności dodania
+    public void execute(String url, Runnable task, Executor executor) {
+        enqueue(url, new Job(task, () -> { }, executor));
+    }
+
+    // Jak execute(), z wynikiem; po anulowaniu dyspozytora future kończy się CancellationException
+    public <T> CompletableFuture<T> submit(String url, Callable<T> task, Executor executor) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        enqueue(url, new Job(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }, () -> result.completeExceptionally(new CancellationException("Dispatcher cancelled")), executor));
+        return result;
+    }
+
+    // Czekanie, aż wszystkie przekazane zadania się wykonają; false po upływie czasu
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        idleLock.lock();
+        try {
+            while (pending.get() > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = idle.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    // Liczba zadań czekających na token
+    public int queuedCount() {
+        int queued = 0;
+        for (HostQueue queue : queues.values()) {
+            queued += queue.size();
+        }
+        return queued;
+    }
+
+    // Zamknięcie po zakończeniu pracy - wszystkie zadania zostały już przekazane
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    // Anulowanie - zadania czekające na token są porzucane
+    public void cancel() {
+        cancelled.set(true);
+        scheduler.shutdownNow();
+        queues.values().forEach(HostQueue::abandonAll);
+    }
+
+    private void enqueue(String url, Job job) {
+        pending.incrementAndGet();
+        if (cancelled.get()) {
+            abandon(job);
+            return;
+        }
+        queues.computeIfAbsent(HostRateLimiter.hostOf(url), HostQueue::new).add(job);
+    }
+
+    private void finished() {
+        if (pending.decrementAndGet() == 0) {
+            idleLock.lock();
+            try {
+                idle.signalAll();
+            } finally {
+                idleLock.unlock();
+            }
+        }
+    }
+
+    private void abandon(Job job) {
+        try {
+            job.onAbandon().run();
+        } finally {
+            finished();
+        }
+    }
+
+    private record Job(Runnable task, Runnable onAbandon, Executor executor) {
+    }
+
+    // Kolejka jednego hosta; naraz zaplanowane jest co najwyżej jedno opróżnianie
+    private final class HostQueue {
+        private final String host;
+        private final Queue<Job> jobs = new ArrayDeque<>();
+        private boolean draining;
+
+        HostQueue(String host) {
+            this.host = host;
+        }
+
+        void add(Job job) {
+            synchronized (this) {
+                jobs.add(job);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            schedule(0);
+        }
+
+        synchronized int size() {
+            return jobs.size();
+        }
+
+        private void schedule(long delayNanos) {
+            try {
+                scheduler.schedule(this::drain, delayNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                abandonAll();
+            }
+        }
+
+        // Przekazanie zadań, dla których są tokeny; przy braku tokena opróżnianie wraca do harmonogramu
+        private void drain() {
+            while (true) {
+                Job job;
+                synchronized (this) {
+                    if (jobs.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    long delay = rateLimiter.tryAcquire(host);
+                    if (delay > 0) {
+                        schedule(delay);
+                        return;
+                    }
+                    job = jobs.poll();
+                }
+                try {
+                    job.executor().execute(() -> {
+                        try {
+                            job.task().run();
+                        } finally {
+                            finished();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    abandon(job); // Pula zamknięta po anulowaniu
+                }
+            }
+        }
+
+        void abandonAll() {
+            Job job;
+            while ((job = poll()) != null) {
+                abandon(job);
+            }
+        }
+
+        private synchronized Job poll() {
+            return jobs.poll();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package org.jobscraper.jobscraper;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.v135.fetch.Fetch;
+import org.openqa.selenium.devtools.v135.fetch.model.RequestPattern;
+import org.openqa.selenium.devtools.v135.fetch.model.RequestStage;
+import org.openqa.selenium.devtools.v135.network.Network;
+import org.openqa.selenium.devtools.v135.network.model.ErrorReason;
+import org.openqa.selenium.devtools.v135.network.model.ResourceType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Blokowanie zasobów, których ekstrakcja nie potrzebuje (obrazy, fonty, CSS, skrypty analityczne), w sesjach przeglądarki
+// przez Chrome DevTools Protocol. Zablokowane typy zasobów i adresy są przechwytywane w domenie Fetch i od razu odrzucane -
+// pozostałe żądania nie są wstrzymywane. Reguły są wybierane przy wypożyczeniu sesji, osobno dla serwisu i rodzaju strony.
+public class RequestBlocker {
+    public static final String PRACUJ_DETAIL = "pracuj-detail";
+    public static final String JUSTJOIN_DETAIL = "justjoin-detail";
+    public static final String JUSTJOIN_LISTING = "justjoin-listing";
+
+    // Reklamy i analityka - nie wpływają na treść strony w żadnym z serwisów
+    static final List<String> TRACKERS = List.of(
+            "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*", "*googlesyndication.com*",
+            "*googleadservices.com*", "*connect.facebook.net*", "*facebook.com/tr*", "*hotjar.com*", "*clarity.ms*",
+            "*criteo.com*", "*criteo.net*", "*snap.licdn.com*", "*px.ads.linkedin.com*", "*bat.bing.com*",
+            "*analytics.tiktok.com*", "*gemius.pl*", "*adnxs.com*", "*onetrust.com*");
+
+    // Typy zasobów CDP (Image, Font, Stylesheet, Media, ...) i wzorce adresów z * jako dowolnym ciągiem
+    public record Rules(Set<String> resourceTypes, List<String> urlPatterns) {
+        public static final Rules NONE = new Rules(Set.of(), List.of());
+
+        public Rules {
+            resourceTypes = Set.copyOf(resourceTypes);
+            urlPatterns = List.copyOf(urlPatterns);
+            for (String type : resourceTypes) {
+                ResourceType.fromString(type); // Literówka w nazwie typu to błąd konfiguracji, nie cicho ignorowana reguła
+            }
+        }
+
+        public boolean isEmpty() {
+            return resourceTypes.isEmpty() && urlPatterns.isEmpty();
+        }
+    }
+
+    private final Map<String, Rules> profiles = new ConcurrentHashMap<>();
+    private final Map<WebDriver, Session> sessions = new ConcurrentHashMap<>();
+    private final LongAdder pages = new LongAdder();
+    private final LongAdder blockedRequests = new LongAdder();
+    private final LongAdder transferredBytes = new LongAdder();
+    private final Map<String, LongAdder> blockedByType = new ConcurrentHashMap<>();
+    private volatile boolean unsupportedReported = false;
+
+    public RequestBlocker() {
+        // Pracuj.pl: pola oferty czytane z atrybutów data-test - wygląd strony jest zbędny
+        profiles.put(PRACUJ_DETAIL, new Rules(Set.of("Image", "Media", "Font", "Stylesheet"), TRACKERS));
+        // JustJoin.it: style generuje JavaScript (emotion), klasa css-... przy wynagrodzeniu i tak powstaje; pliki CSS są zbędne
+        profiles.put(JUSTJOIN_DETAIL, new Rules(Set.of("Image", "Media", "Font", "Stylesheet"), TRACKERS));
+        // Listing przewijany w przeglądarce - układ (wysokość kafelków) wpływa na doczytywanie, więc CSS zostaje
+        profiles.put(JUSTJOIN_LISTING, new Rules(Set.of("Image", "Media", "Font"), TRACKERS));
+    }
+
+    // Bez blokowania, tylko liczniki stron i pobranych bajtów - punkt odniesienia do porównania z domyślnymi regułami
+    public static RequestBlocker measureOnly() {
+        RequestBlocker blocker = new RequestBlocker();
+        blocker.profiles.replaceAll((profile, rules) -> Rules.NONE);
+        return blocker;
+    }
+
+    // Własne reguły dla profilu (np. bez blokowania CSS, gdy serwis zacznie od niego zależeć); Rules.NONE wyłącza blokowanie
+    public void setRules(String profile, Rules rules) {
+        profiles.put(profile, rules);
+    }
+
+    public Rules getRules(String profile) {
+        return profile != null ? profiles.getOrDefault(profile, Rules.NONE) : Rules.NONE;
+    }
+
+    // Wywoływane przez WebDriverPool przy wypożyczeniu sesji - przed otwarciem strony. Błąd CDP nie przerywa scrapowania,
+    // strona ładuje się wtedy bez blokowania.
+    void apply(WebDriver driver, String profile) {
+        if (!(driver instanceof HasDevTools)) {
+            return;
+        }
+        pages.increment();
+        Session session = sessions.get(driver);
+        try {
+            if (session == null) {
+                session = open((HasDevTools) driver);
+                sessions.put(driver, session);
+            }
+            Rules rules = getRules(profile);
+            if (!rules.equals(session.rules)) {
+                session.devTools.send(Fetch.disable());
+                if (!rules.isEmpty()) {
+                    session.devTools.send(Fetch.enable(Optional.of(patterns(rules)), Optional.of(false)));
+                }
+                session.rules = rules;
+            }
+        } catch (RuntimeException e) {
+            if (!unsupportedReported) {
+                unsupportedReported = true;
+                System.err.println("[RequestBlocker] DevTools not available, pages load without blocking: " + e.getMessage());
+            }
+        }
+    }
+
+    // Zamknięcie połączenia DevTools przy zamykaniu sesji przeglądarki
+    void release(WebDriver driver) {
+        Session session = sessions.remove(driver);
+        if (session != null) {
+            try {
+                session.devTools.close();
+            } catch (RuntimeException e) {
+                // Przeglądarka już zamknięta
+            }
+        }
+    }
+
+    private Session open(HasDevTools driver) {
+        DevTools devTools = driver.getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        // Network tylko do zliczania pobranych bajtów - bez buforowania treści odpowiedzi
+        devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+        devTools.addListener(Network.loadingFinished(), finished -> transferredBytes.add(finished.getEncodedDataLength().longValue()));
+        // Wstrzymywane są wyłącznie żądania pasujące do reguł - wszystkie są odrzucane
+        devTools.addListener(Fetch.requestPaused(), paused -> {
+            blockedRequests.increment();
+            blockedByType.computeIfAbsent(paused.getResourceType().toString(), type -> new LongAdder()).increment();
+            try {
+                devTools.send(Fetch.failRequest(paused.getRequestId(), ErrorReason.BLOCKEDBYCLIENT));
+            } catch (RuntimeException e) {
+                // Strona została już zamknięta albo przeładowana
+            }
+        });
+        return new Session(devTools);
+    }
+
+    private static List<RequestPattern> patterns(Rules rules) {
+        List<RequestPattern> patterns = new ArrayList<>();
+        for (String type : rules.resourceTypes()) {
+            patterns.add(new RequestPattern(Optional.of("*"), Optional.of(ResourceType.fromString(type)), Optional.of(RequestStage.REQUEST)));
+        }
+        for (String urlPattern : rules.urlPatterns()) {
+            patterns.add(new RequestPattern(Optional.of(urlPattern), Optional.empty(), Optional.of(RequestStage.REQUEST)));
+        }
+        return patterns;
+    }
+
+    public Stats getStats() {
+        Map<String, Long> byType = new TreeMap<>();
+        blockedByType.forEach((type, count) -> byType.put(type, count.sum()));
+        return new Stats(pages.sum(), blockedRequests.sum(), transferredBytes.sum(), byType);
+    }
+
+    // Migawka liczników; pages to liczba stron otwartych z regułami (wypożyczeń sesji)
+    public record Stats(long pages, long blockedRequests, long transferredBytes, Map<String, Long> blockedByType) {
+        public double blockedPerPage() {
+            return pages == 0 ? 0 : (double) blockedRequests / pages;
+        }
+
+        public double kilobytesPerPage() {
+            return pages == 0 ? 0 : transferredBytes / 1024.0 / pages;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("pages=%d, blocked=%d (%.1f/page, %s), transferred=%.1f KB/page",
+                    pages, blockedRequests, blockedPerPage(), blockedByType, kilobytesPerPage());
+        }
+    }
+
+    // Tryb kart (ChromeTabPool): Network.setBlockedURLs nie filtruje po typie zasobu, więc typy są zamieniane na wzorce
+    // rozszerzeń plików. Zablokowane w ten sposób żądania nie trafiają do liczników blockedRequests.
+    private static final Map<String, List<String>> TYPE_URL_PATTERNS = Map.of(
+            "Image", List.of("*.png*", "*.jpg*", "*.jpeg*", "*.gif*", "*.webp*", "*.avif*", "*.svg*", "*.ico*"),
+            "Font", List.of("*.woff*", "*.ttf*", "*.otf*", "*.eot*"),
+            "Stylesheet", List.of("*.css", "*.css?*"),
+            "Media", List.of("*.mp4*", "*.webm*", "*.mp3*", "*.m3u8*"));
+
+    // Wzorce adresów dla profilu: reguły URL, a po nich wzorce rozszerzeń dla blokowanych typów zasobów
+    List<String> blockedUrls(String profile) {
+        Rules rules = getRules(profile);
+        List<String> urls = new ArrayList<>(rules.urlPatterns());
+        rules.resourceTypes().stream().sorted()
+                .forEach(type -> urls.addAll(TYPE_URL_PATTERNS.getOrDefault(type, List.of())));
+        return urls;
+    }
+
+    void countPage() {
+        pages.increment();
+    }
+
+    // Zliczanie pobranych bajtów ze wszystkich kart przeglądarki - zdarzenia wszystkich sesji idą jednym połączeniem
+    void listen(Connection connection) {
+        connection.addListener(Network.loadingFinished(), (sequence, finished) -> transferredBytes.add(finished.getEncodedDataLength().longValue()));
+    }
+
+    private static final class Session {
+        final DevTools devTools;
+        volatile Rules rules; // Reguły aktualnie włączone w tej sesji; null przed pierwszym ustawieniem
+
+        Session(DevTools devTools) {
+            this.devTools = devTools;
+        }
+    }
+}
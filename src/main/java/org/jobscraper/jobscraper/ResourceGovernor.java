@@ -0,0 +1,336 @@
+package org.jobscraper.jobscraper;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+// Wspólny limit przeglądarek i wątków roboczych zależny od tego, ile pamięci i procesora jest faktycznie wolne.
+// Co SAMPLE_INTERVAL_MILLIS odczytywane są: RSS procesu razem z procesami potomnymi (chromedriver, Chrome), dostępna pamięć
+// systemu, obciążenie CPU i zajętość sterty. Nowa przeglądarka jest uruchamiana tylko wtedy, gdy zmieści się w dostępnej
+// pamięci (z zapasem), a przy przeciążonym CPU limit wątków spada. Na dużej maszynie limity rosną do maxBrowsers/maxWorkers,
+// na małej nowe sesje i zadania czekają, zamiast doprowadzić do OOM.
+public class ResourceGovernor {
+    public static final long DEFAULT_BROWSER_BYTES = 300L << 20; // Szacunek dla pierwszej przeglądarki, zanim jest z czego mierzyć
+    private static final long MIN_BROWSER_BYTES = 150L << 20;
+    private static final long MIN_RESERVE_BYTES = 512L << 20; // Pamięć zostawiana systemowi i innym programom
+    private static final double HIGH_LOAD_PER_CPU = 1.5; // Powyżej - mniej wątków roboczych, bez nowych przeglądarek
+    private static final double HIGH_HEAP_USAGE = 0.85; // Powyżej - tylko MIN_WORKERS zadań naraz
+    private static final int MIN_WORKERS = 2;
+    private static final long SAMPLE_INTERVAL_MILLIS = 500;
+    private static final long WAIT_SLICE_MILLIS = 250; // Co tyle czekający sprawdzają limity ponownie
+
+    // Odczyt zasobów; wartości ujemne - brak danych (np. system bez /proc)
+    public record Sample(long processRssBytes, long childrenRssBytes, long availableBytes, long totalBytes,
+                         double loadPerCpu, double heapUsage) {
+    }
+
+    // Limity wyliczone z ostatniego odczytu
+    public record Limits(int browsers, int workers) {
+    }
+
+    private final int maxBrowsers;
+    private final int maxWorkers;
+    private final Supplier<Sample> sampler;
+    // Blokada zamiast synchronized/wait() - zadania czekające w acquireWorker() nie blokują nośników wątków wirtualnych
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workerReleased = lock.newCondition();
+    private int liveBrowsers; // Chronione przez lock
+    private int activeWorkers;
+    private Sample lastSample;
+    private Limits limits;
+    private long sampledAtMillis = Long.MIN_VALUE;
+
+    // Statystyki
+    private final AtomicLong browsersDeferred = new AtomicLong();
+    private final AtomicLong workersDeferred = new AtomicLong();
+    private final AtomicLong browsersRetired = new AtomicLong();
+
+    // Pule, które trzymają bezczynne przeglądarki, i sposób ich zamknięcia (true - coś zamknięto)
+    private final Map<Object, BooleanSupplier> idleBrowserReclaimers = new ConcurrentHashMap<>();
+
+    public ResourceGovernor() {
+        this(defaultMaxBrowsers(), defaultMaxWorkers());
+    }
+
+    public ResourceGovernor(int maxBrowsers, int maxWorkers) {
+        this(maxBrowsers, maxWorkers, ResourceGovernor::readSample);
+    }
+
+    ResourceGovernor(int maxBrowsers, int maxWorkers, Supplier<Sample> sampler) {
+        if (maxBrowsers <= 0 || maxWorkers <= 0) {
+            throw new IllegalArgumentException("Limits must be positive: " + maxBrowsers + ", " + maxWorkers);
+        }
+        this.maxBrowsers = maxBrowsers;
+        this.maxWorkers = maxWorkers;
+        this.sampler = sampler;
+    }
+
+    // Górne granice zależne od liczby rdzeni - strony przeglądarki są ciężkie dla CPU, pobieranie przez HTTP głównie czeka na sieć
+    public static int defaultMaxBrowsers() {
+        return Math.max(2, Math.min(16, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public static int defaultMaxWorkers() {
+        return Math.max(4, Math.min(64, Runtime.getRuntime().availableProcessors() * 4));
+    }
+
+    public int getMaxBrowsers() {
+        return maxBrowsers;
+    }
+
+    public int getMaxWorkers() {
+        return maxWorkers;
+    }
+
+    // Zgoda na uruchomienie nowej przeglądarki bez czekania; false - pamięć albo CPU na to nie pozwalają,
+    // wywołujący powinien poczekać na zwolnienie istniejącej sesji
+    public boolean tryAcquireBrowser() {
+        lock.lock();
+        try {
+            if (liveBrowsers < currentLimits().browsers()) {
+                liveBrowsers++;
+                return true;
+            }
+            browsersDeferred.incrementAndGet();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Po odmowie: zamknięcie bezczynnych przeglądarek pozostałych pul (np. kart ChromeTabPool trzymających procesy Chrome,
+    // gdy sesja listingu z WebDriverPool nie może wystartować); true - coś zamknięto, warto poprosić o zgodę ponownie.
+    // Wywoływane bez blokad puli - zamykanie przeglądarek trwa
+    public boolean reclaimIdleBrowsers(Object requester) {
+        boolean reclaimed = false;
+        for (Map.Entry<Object, BooleanSupplier> reclaimer : idleBrowserReclaimers.entrySet()) {
+            if (reclaimer.getKey() != requester) {
+                reclaimed |= reclaimer.getValue().getAsBoolean();
+            }
+        }
+        return reclaimed;
+    }
+
+    // Rejestracja puli, której bezczynne przeglądarki można zamknąć na prośbę innej puli
+    public void addIdleBrowserReclaimer(Object owner, BooleanSupplier closeIdleBrowsers) {
+        idleBrowserReclaimers.put(owner, closeIdleBrowsers);
+    }
+
+    public void removeIdleBrowserReclaimer(Object owner) {
+        idleBrowserReclaimers.remove(owner);
+    }
+
+    // Wywoływane po zamknięciu przeglądarki uruchomionej za zgodą tryAcquireBrowser()
+    public void releaseBrowser() {
+        lock.lock();
+        try {
+            liveBrowsers = Math.max(0, liveBrowsers - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Czy zwracaną sesję zamknąć zamiast odłożyć do puli - działa więcej przeglądarek, niż teraz mieści się w pamięci
+    public boolean shouldRetireBrowser() {
+        lock.lock();
+        try {
+            if (liveBrowsers > currentLimits().browsers()) {
+                browsersRetired.incrementAndGet();
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Miejsce dla zadania roboczego - blokuje, dopóki liczba aktywnych zadań nie spadnie poniżej bieżącego limitu
+    public void acquireWorker() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            boolean deferred = false;
+            while (activeWorkers >= currentLimits().workers()) {
+                if (!deferred) {
+                    workersDeferred.incrementAndGet();
+                    deferred = true;
+                }
+                // Limit może wzrosnąć bez żadnego zwolnienia - po kolejnym odczycie zasobów
+                workerReleased.await(WAIT_SLICE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            activeWorkers++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void releaseWorker() {
+        lock.lock();
+        try {
+            activeWorkers = Math.max(0, activeWorkers - 1);
+            workerReleased.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Limits currentLimits() {
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            if (limits == null || now - sampledAtMillis >= SAMPLE_INTERVAL_MILLIS) {
+                lastSample = sampler.get();
+                limits = computeLimits(lastSample, liveBrowsers, maxBrowsers, maxWorkers);
+                sampledAtMillis = now;
+            }
+            return limits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Polityka limitów - osobno, żeby dało się ją sprawdzić na wymyślonych odczytach
+    static Limits computeLimits(Sample sample, int liveBrowsers, int maxBrowsers, int maxWorkers) {
+        int browsers = maxBrowsers;
+        if (sample.availableBytes() >= 0) {
+            // Koszt przeglądarki mierzony na tych, które już działają (RSS procesów potomnych zawyża go o współdzielone strony - bezpieczniej)
+            long perBrowser = liveBrowsers > 0 && sample.childrenRssBytes() > 0
+                    ? Math.max(MIN_BROWSER_BYTES, sample.childrenRssBytes() / liveBrowsers) : DEFAULT_BROWSER_BYTES;
+            long reserve = Math.max(MIN_RESERVE_BYTES, sample.totalBytes() / 10);
+            long headroom = sample.availableBytes() - reserve;
+            long fit = liveBrowsers + Math.floorDiv(headroom, perBrowser);
+            browsers = (int) Math.max(1, Math.min(browsers, fit));
+        }
+        int workers = maxWorkers;
+        if (sample.loadPerCpu() > HIGH_LOAD_PER_CPU) {
+            // Przeciążony CPU: bez nowych przeglądarek, wątki proporcjonalnie mniej
+            browsers = Math.max(1, Math.min(browsers, liveBrowsers));
+            workers = Math.max(MIN_WORKERS, (int) (maxWorkers * HIGH_LOAD_PER_CPU / sample.loadPerCpu()));
+        }
+        if (sample.heapUsage() > HIGH_HEAP_USAGE) {
+            workers = Math.min(workers, MIN_WORKERS);
+        }
+        return new Limits(browsers, workers);
+    }
+
+    public Stats getStats() {
+        lock.lock();
+        try {
+            Limits current = currentLimits();
+            return new Stats(liveBrowsers, activeWorkers, current.browsers(), current.workers(), lastSample,
+                    browsersDeferred.get(), workersDeferred.get(), browsersRetired.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public record Stats(int liveBrowsers, int activeWorkers, int browserLimit, int workerLimit, Sample sample,
+                        long browsersDeferred, long workersDeferred, long browsersRetired) {
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "browsers=%d/%d, workers=%d/%d, rss=%s, browsersRss=%s, available=%s, load/cpu=%.2f, heap=%.0f%%, " +
+                            "browsersDeferred=%d, workersDeferred=%d, browsersRetired=%d",
+                    liveBrowsers, browserLimit, activeWorkers, workerLimit, megabytes(sample.processRssBytes()),
+                    megabytes(sample.childrenRssBytes()), megabytes(sample.availableBytes()), sample.loadPerCpu(),
+                    sample.heapUsage() * 100, browsersDeferred, workersDeferred, browsersRetired);
+        }
+
+        private static String megabytes(long bytes) {
+            return bytes < 0 ? "n/a" : (bytes >> 20) + " MB";
+        }
+    }
+
+    // Odczyt z /proc (Linux), a gdzie go nie ma - z OperatingSystemMXBean
+    static Sample readSample() {
+        long processRss = statusBytes(ProcessHandle.current().pid(), "VmRSS:");
+        long childrenRss = 0;
+        for (ProcessHandle child : ProcessHandle.current().descendants().toList()) {
+            childrenRss += Math.max(0, statusBytes(child.pid(), "VmRSS:"));
+        }
+        if (processRss < 0) {
+            childrenRss = -1;
+        }
+
+        com.sun.management.OperatingSystemMXBean os = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long available = meminfoBytes("MemAvailable:"); // Razem z cache, który system odda na żądanie
+        if (available < 0) {
+            available = os.getFreeMemorySize();
+        }
+        long total = os.getTotalMemorySize();
+        int cpus = os.getAvailableProcessors();
+        double load = os.getSystemLoadAverage();
+        double loadPerCpu = load >= 0 ? load / cpus : Math.max(0, os.getCpuLoad()); // Windows: brak średniej obciążenia
+
+        return new Sample(processRss, childrenRss, available, total, loadPerCpu, heapUsageAfterGc());
+    }
+
+    // Pula sterty odczytana po ostatnim odśmiecaniu; tenured - stara generacja
+    record HeapPool(String name, boolean tenured, MemoryUsage afterGc) {
+    }
+
+    // Zajętość sterty po ostatnim odśmiecaniu - bieżące zużycie obejmuje też śmieci, które GC i tak zaraz zwolni
+    private static double heapUsageAfterGc() {
+        List<HeapPool> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                // Próg bieżącego zużycia obsługują tylko pule starej generacji - Eden i Survivor go nie mają
+                pools.add(new HeapPool(pool.getName(), pool.isUsageThresholdSupported(), pool.getCollectionUsage()));
+            }
+        }
+        double usage = tenuredUsageAfterGc(pools);
+        if (usage < 0) {
+            Runtime runtime = Runtime.getRuntime();
+            usage = (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+        }
+        return usage;
+    }
+
+    // Tylko stara generacja: po młodym GC Survivor bywa prawie pełny, a Serial i Parallel GC dają młodym pulom małe maksimum,
+    // więc ich zajętość nie świadczy o braku pamięci; -1 - brak danych
+    static double tenuredUsageAfterGc(List<HeapPool> pools) {
+        double usage = -1;
+        for (HeapPool pool : pools) {
+            MemoryUsage afterGc = pool.afterGc();
+            if (pool.tenured() && afterGc != null && afterGc.getMax() > 0) {
+                usage = Math.max(usage, (double) afterGc.getUsed() / afterGc.getMax());
+            }
+        }
+        return usage;
+    }
+
+    private static long statusBytes(long pid, String field) {
+        return procFieldBytes(Path.of("/proc", Long.toString(pid), "status"), field);
+    }
+
+    private static long meminfoBytes(String field) {
+        return procFieldBytes(Path.of("/proc", "meminfo"), field);
+    }
+
+    private static long procFieldBytes(Path file, String field) {
+        try {
+            List<String> lines = Files.readAllLines(file);
+            for (String line : lines) {
+                if (line.startsWith(field)) {
+                    return Long.parseLong(line.substring(field.length()).replace("kB", "").trim()) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Proces zakończył się między listowaniem a odczytem albo system bez /proc
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,115 @@
+package org.jobscraper.jobscraper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Widok listy ofert do sortowania i filtrowania po wynagrodzeniu (miesięczne PLN) na tablicach typów prostych.
+// Klucz i pozycja oferty są pakowane w jeden long, więc sortowanie to Arrays.sort(long[]) - bez Integer i komparatorów.
+// Oferty bez podanej kwoty są pomijane.
+public final class SalaryIndex {
+    private final List<JobOffer> offers;
+    private final int[] maxPln;
+    private final long[] byMin; // (min << 32) | pozycja, rosnąco
+    private final long[] byMax; // (max << 32) | pozycja, rosnąco
+
+    private SalaryIndex(List<JobOffer> offers, int[] maxPln, long[] byMin, long[] byMax) {
+        this.offers = offers;
+        this.maxPln = maxPln;
+        this.byMin = byMin;
+        this.byMax = byMax;
+    }
+
+    public static SalaryIndex of(List<JobOffer> offers) {
+        List<JobOffer> disclosed = new ArrayList<>(offers.size());
+        for (JobOffer offer : offers) {
+            if (offer.hasSalary()) {
+                disclosed.add(offer);
+            }
+        }
+        int size = disclosed.size();
+        int[] maxPln = new int[size];
+        long[] byMin = new long[size];
+        long[] byMax = new long[size];
+        for (int i = 0; i < size; i++) {
+            JobOffer offer = disclosed.get(i);
+            maxPln[i] = offer.getMonthlySalaryMaxPln();
+            byMin[i] = pack(offer.getMonthlySalaryMinPln(), i);
+            byMax[i] = pack(maxPln[i], i);
+        }
+        Arrays.sort(byMin);
+        Arrays.sort(byMax);
+        return new SalaryIndex(disclosed, maxPln, byMin, byMax);
+    }
+
+    public int size() {
+        return offers.size();
+    }
+
+    // Oferty posortowane po górnej granicy widełek
+    public List<JobOffer> sortedByMax(boolean descending) {
+        return select(byMax, descending);
+    }
+
+    // Oferty posortowane po dolnej granicy widełek
+    public List<JobOffer> sortedByMin(boolean descending) {
+        return select(byMin, descending);
+    }
+
+    // Oferty, których widełki nachodzą na przedział [fromPln, toPln], w kolejności rosnącej dolnej granicy
+    public List<JobOffer> overlapping(int fromPln, int toPln) {
+        List<JobOffer> result = new ArrayList<>();
+        int end = upperBound(byMin, toPln); // Dolna granica <= toPln
+        for (int i = 0; i < end; i++) {
+            int position = (int) byMin[i];
+            if (maxPln[position] >= fromPln) {
+                result.add(offers.get(position));
+            }
+        }
+        return result;
+    }
+
+    // Oferty, w których można dostać co najmniej minimumPln (górna granica widełek), od najlepiej płatnych
+    public List<JobOffer> atLeast(int minimumPln) {
+        int start = upperBound(byMax, minimumPln - 1);
+        List<JobOffer> result = new ArrayList<>(byMax.length - start);
+        for (int i = byMax.length - 1; i >= start; i--) {
+            result.add(offers.get((int) byMax[i]));
+        }
+        return result;
+    }
+
+    // Mediana górnych granic widełek; 0 dla pustego indeksu
+    public int medianMax() {
+        return byMax.length == 0 ? 0 : (int) (byMax[byMax.length / 2] >>> 32);
+    }
+
+    private List<JobOffer> select(long[] sorted, boolean descending) {
+        List<JobOffer> result = new ArrayList<>(sorted.length);
+        for (int i = 0; i < sorted.length; i++) {
+            result.add(offers.get((int) sorted[descending ? sorted.length - 1 - i : i]));
+        }
+        return result;
+    }
+
+    // Kwoty są nieujemne, więc kolejność longów odpowiada kolejności kwot, a przy równych kwotach - pozycji
+    private static long pack(int key, int position) {
+        return ((long) key << 32) | position;
+    }
+
+    // Pierwszy indeks, pod którym kwota jest większa od key
+    private static int upperBound(long[] sorted, int key) {
+        int low = 0;
+        int high = sorted.length;
+        long probe = ((long) key << 32) | 0xFFFFFFFFL; // Największy long z tą kwotą
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= probe) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
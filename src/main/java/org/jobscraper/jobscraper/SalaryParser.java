@@ -0,0 +1,194 @@
+package org.jobscraper.jobscraper;
+
+import java.util.Locale;
+
+// Rozbiór napisu z wynagrodzeniem z obu serwisów, np.
+// "15 000–20 000 zł netto (+ VAT) / mies.", "50–70 zł netto (+ VAT) / godz.", "18000 - 24000 PLN/month net".
+// Kwoty są też przeliczane na miesięczne PLN, żeby oferty dało się porównywać niezależnie od okresu i waluty.
+public final class SalaryParser {
+    public enum Currency {
+        PLN(1.0), EUR(4.30), USD(4.00), GBP(5.00), CHF(4.50); // Przybliżone kursy - wystarczą do sortowania i filtrowania
+
+        final double plnRate;
+
+        Currency(double plnRate) {
+            this.plnRate = plnRate;
+        }
+    }
+
+    public enum Period {
+        HOUR(168), DAY(21), MONTH(1), YEAR(1.0 / 12); // Pełny etat: 168 godzin, 21 dni roboczych w miesiącu
+
+        final double perMonth;
+
+        Period(double perMonth) {
+            this.perMonth = perMonth;
+        }
+    }
+
+    public enum Basis {
+        UNKNOWN, GROSS, NET
+    }
+
+    public enum ContractType {
+        UNKNOWN, B2B, EMPLOYMENT, MANDATE, SPECIFIC_TASK
+    }
+
+    // Wynik rozbioru; min i max w oryginalnej walucie i okresie, monthlyMinPln/monthlyMaxPln po przeliczeniu.
+    // Brak kwoty: min = max = 0 i currency/period równe null
+    public record Salary(int min, int max, Currency currency, Period period, Basis basis, ContractType contractType,
+                         int monthlyMinPln, int monthlyMaxPln) {
+        public boolean isDisclosed() {
+            return currency != null;
+        }
+    }
+
+    private static final int HOURLY_THRESHOLD = 1000; // Kwota bez podanego okresu poniżej tego progu to stawka godzinowa
+
+    private SalaryParser() {
+    }
+
+    public static Salary parse(String salary, String typeOfWork) {
+        ContractType contractType = parseContractType(typeOfWork);
+        if (salary == null || salary.isBlank()) {
+            return new Salary(0, 0, null, null, Basis.UNKNOWN, contractType, 0, 0);
+        }
+        String text = salary.toLowerCase(Locale.ROOT);
+
+        double[] amounts = new double[2];
+        int found = readAmounts(text, amounts);
+
+        Basis basis = parseBasis(text);
+        if (contractType == ContractType.UNKNOWN && text.contains("vat")) {
+            contractType = ContractType.B2B; // "netto (+ VAT)" pojawia się tylko przy kontraktach
+        }
+        if (found == 0 || amounts[0] <= 0) {
+            return new Salary(0, 0, null, null, basis, contractType, 0, 0);
+        }
+        double min = amounts[0];
+        double max = found == 2 ? amounts[1] : amounts[0];
+        if (max < min) {
+            double swap = min;
+            min = max;
+            max = swap;
+        }
+
+        Currency currency = parseCurrency(text);
+        Period period = parsePeriod(text, max);
+        double toMonthlyPln = currency.plnRate * period.perMonth;
+        return new Salary((int) Math.round(min), (int) Math.round(max), currency, period, basis, contractType,
+                (int) Math.round(min * toMonthlyPln), (int) Math.round(max * toMonthlyPln));
+    }
+
+    // Co najwyżej dwie kwoty z tekstu; kwota może mieć separator tysięcy (spacja, twarda spacja) i grosze.
+    // Ręczne przejście po znakach zamiast wyrażenia regularnego - parsowanie odbywa się przy tworzeniu każdej oferty.
+    private static int readAmounts(String text, double[] amounts) {
+        int found = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length && found < amounts.length) {
+            if (!isDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            long whole = 0;
+            int start = i;
+            while (i < length && isDigit(text.charAt(i))) {
+                whole = whole * 10 + (text.charAt(i++) - '0');
+            }
+            // "15 000" - do trzech cyfr, potem separator i dokładnie trzy cyfry
+            while (i - start <= 3 && i + 3 < length && isGroupSeparator(text.charAt(i)) && isDigit(text.charAt(i + 1))
+                    && isDigit(text.charAt(i + 2)) && isDigit(text.charAt(i + 3)) && (i + 4 == length || !isDigit(text.charAt(i + 4)))) {
+                whole = whole * 1000 + (text.charAt(i + 1) - '0') * 100 + (text.charAt(i + 2) - '0') * 10 + (text.charAt(i + 3) - '0');
+                i += 4;
+                start = i; // Kolejna grupa może iść zaraz za tą
+            }
+            double amount = whole;
+            // "45,50" - grosze, jedna albo dwie cyfry
+            if (i + 1 < length && (text.charAt(i) == ',' || text.charAt(i) == '.') && isDigit(text.charAt(i + 1))) {
+                int end = i + 1;
+                while (end < length && isDigit(text.charAt(end))) {
+                    end++;
+                }
+                if (end - i - 1 <= 2) {
+                    amount += Double.parseDouble("0." + text.substring(i + 1, end));
+                    i = end;
+                } // Więcej cyfr po przecinku to już następna liczba
+            }
+            amounts[found++] = amount;
+        }
+        return found;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isGroupSeparator(char c) {
+        return c == ' ' || c == '\u00a0' || c == '\u202f';
+    }
+
+    static ContractType parseContractType(String typeOfWork) {
+        if (typeOfWork == null) {
+            return ContractType.UNKNOWN;
+        }
+        // Przy kilku rodzajach umowy (np. "b2b, permanent") liczy się pierwszy - z niego pochodzą widełki
+        for (String part : typeOfWork.toLowerCase(Locale.ROOT).split("[,;]")) {
+            if (part.contains("b2b") || part.contains("kontrakt")) {
+                return ContractType.B2B;
+            }
+            if (part.contains("o pracę") || part.contains("o prace") || part.contains("permanent") || part.contains("employment")) {
+                return ContractType.EMPLOYMENT;
+            }
+            if (part.contains("zlecen") || part.contains("mandate")) {
+                return ContractType.MANDATE;
+            }
+            if (part.contains("o dzieło") || part.contains("o dzielo") || part.contains("specific")) {
+                return ContractType.SPECIFIC_TASK;
+            }
+        }
+        return ContractType.UNKNOWN;
+    }
+
+    private static Basis parseBasis(String text) {
+        if (text.contains("brutto") || text.contains("gross")) {
+            return Basis.GROSS;
+        }
+        if (text.contains("netto") || text.contains("net") || text.contains("vat")) {
+            return Basis.NET;
+        }
+        return Basis.UNKNOWN;
+    }
+
+    private static Currency parseCurrency(String text) {
+        if (text.contains("eur") || text.contains("€")) {
+            return Currency.EUR;
+        }
+        if (text.contains("usd") || text.contains("$")) {
+            return Currency.USD;
+        }
+        if (text.contains("gbp") || text.contains("£")) {
+            return Currency.GBP;
+        }
+        if (text.contains("chf")) {
+            return Currency.CHF;
+        }
+        return Currency.PLN; // "zł", "pln" albo brak waluty - oba serwisy są polskie
+    }
+
+    private static Period parsePeriod(String text, double max) {
+        if (text.contains("godz") || text.contains("hour") || text.contains("/h")) {
+            return Period.HOUR;
+        }
+        if (text.contains("dzień") || text.contains("dzien") || text.contains("day")) {
+            return Period.DAY;
+        }
+        if (text.contains("rok") || text.contains("year") || text.contains("rocznie")) {
+            return Period.YEAR;
+        }
+        if (text.contains("mies") || text.contains("month")) {
+            return Period.MONTH;
+        }
+        return max < HOURLY_THRESHOLD ? Period.HOUR : Period.MONTH;
+    }
+}
@@ -0,0 +1,24 @@
+package org.jobscraper.jobscraper;
+
+// Skąd pochodzą dane oferty: strona szczegółów (przeglądarka / HTTP) czy kafelek z listingu.
+// Kafelki mają tytuł, firmę, wynagrodzenie, lokalizację i tryb pracy - do monitorowania ofert zwykle wystarczają,
+// a nie wymagają ani jednego dodatkowego żądania na ofertę.
+public enum ScrapeDepth {
+    DEEP,                   // Zawsze strona szczegółów (dotychczasowe działanie)
+    SHALLOW,                // Oferta z kafelka; strona szczegółów tylko dla linków bez kafelka (np. przewijanie w przeglądarce)
+    SHALLOW_WITH_DEEP_FILL; // Oferta z kafelka, a gdy w kafelku brakuje pól - strona szczegółów
+
+    // Czy oferta z kafelka może trafić do wyników bez pobierania strony szczegółów
+    public boolean acceptsTile(JobOffer tile) {
+        return switch (this) {
+            case DEEP -> false;
+            case SHALLOW -> tile != null;
+            case SHALLOW_WITH_DEEP_FILL -> tile != null && !tile.isMissingDetails();
+        };
+    }
+
+    // "shallow-with-deep-fill" -> SHALLOW_WITH_DEEP_FILL
+    public static ScrapeDepth parse(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
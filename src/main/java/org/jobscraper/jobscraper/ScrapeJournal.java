@@ -0,0 +1,368 @@
+package org.jobscraper.jobscraper;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Dziennik uruchomienia na dysku: odkryte linki (z danymi kafelka), pobrane oferty, nieudane próby i koniec listingu.
+// Rekordy są dopisywane na bieżąco, po jednym JSON w linii, i od razu przekazywane do systemu - po awarii procesu albo
+// anulowaniu kolejne uruchomienie tego samego wyszukiwania z opcją wznowienia odtwarza kolejkę linków i pomija
+// pobrane już oferty. Gdy zbędnych rekordów (link, a potem oferta pod tym samym adresem) przybywa, plik jest
+// przepisywany do jednego rekordu na link. Po zakończonym uruchomieniu dziennik jest usuwany.
+public final class ScrapeJournal implements Closeable {
+    static final int MAX_ATTEMPTS = 3; // Link, który tyle razy się nie udał, nie jest już ponawiany przy wznowieniu
+    private static final int COMPACT_MIN_REDUNDANT = 1000; // Mniej zbędnych rekordów nie jest warte przepisywania pliku
+
+    // Oferta pobrana w przerwanym uruchomieniu; knownBefore - znana już z wcześniejszych uruchomień (eksport tylko nowych),
+    // fromListing - oferta z kafelka listingu (tryb płytki)
+    public record Completed(String link, JobOffer offer, boolean knownBefore, boolean fromListing) {
+    }
+
+    private final Path file;
+    private final String search;
+    private final Map<String, JobOffer> links = new LinkedHashMap<>(); // Odkryte linki w kolejności odkrycia -> kafelek albo null
+    private final Map<String, Completed> completed = new HashMap<>();
+    private final Map<String, Integer> failures = new HashMap<>(); // Nieudane próby linków, które nie zostały pobrane
+    private boolean listingComplete;
+    private Writer writer; // null po zamknięciu albo po błędzie zapisu
+    private int lines; // Rekordy w pliku
+    private int compactions;
+    private int unreadableLines;
+
+    private ScrapeJournal(Path file, String search) {
+        this.file = file;
+        this.search = search;
+    }
+
+    // Otwarcie dziennika dla wyszukiwania search. resume - wczytanie stanu przerwanego uruchomienia, jeśli dotyczyło tego
+    // samego wyszukiwania; bez resume (albo dla innego wyszukiwania) dziennik zaczyna się od nowa.
+    public static ScrapeJournal open(Path file, String search, boolean resume) throws IOException {
+        ScrapeJournal journal = new ScrapeJournal(file, search);
+        if (resume && Files.exists(file)) {
+            journal.load();
+        }
+        // Nowy plik albo przepisanie wczytanego stanu - bez uciętej przy awarii ostatniej linii i zbędnych rekordów
+        journal.compact();
+        return journal;
+    }
+
+    public static Path defaultFile() {
+        return Path.of(System.getProperty("user.home"), ".jobscraper", "journal.jsonl");
+    }
+
+    // Klucz wyszukiwania - wznowić można tylko uruchomienie z tymi samymi parametrami i serwisami
+    public static String searchKey(String keywords, String location, String distance, String pracujBaseUrl, String justJoinItBaseUrl) {
+        return "keywords=" + keywords + "|location=" + location + "|distance=" + distance
+                + "|pracuj=" + pracujBaseUrl + "|justjoin=" + justJoinItBaseUrl;
+    }
+
+    private void load() throws IOException {
+        boolean first = true;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonObject record;
+                try {
+                    record = JsonParser.parseString(line).getAsJsonObject();
+                } catch (JsonParseException | IllegalStateException e) {
+                    unreadableLines++; // Linia przerwana przez awarię w trakcie zapisu
+                    continue;
+                }
+                if (first) {
+                    first = false;
+                    if (!"run".equals(string(record, "type")) || !search.equals(string(record, "search"))) {
+                        System.out.println("[ScrapeJournal] " + file + " belongs to a different search, starting a new run");
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    apply(record);
+                } catch (IllegalStateException | UnsupportedOperationException | NullPointerException e) {
+                    unreadableLines++;
+                }
+            }
+        }
+        if (unreadableLines > 0) {
+            System.out.println("[ScrapeJournal] Skipped " + unreadableLines + " unreadable records in " + file);
+        }
+    }
+
+    private void apply(JsonObject record) {
+        String type = string(record, "type");
+        String url = string(record, "url");
+        if (url == null && !"listed".equals(type)) {
+            unreadableLines++;
+            return;
+        }
+        switch (type) {
+            case "link" -> {
+                JobOffer tile = record.has("tile") ? SeenOfferStore.offerFromJson(record.getAsJsonObject("tile")) : null;
+                if (tile != null || !links.containsKey(url)) {
+                    links.put(url, tile);
+                }
+            }
+            case "offer" -> {
+                JobOffer offer = SeenOfferStore.offerFromJson(record.getAsJsonObject("offer"));
+                if (record.has("alternateUrls")) {
+                    List<String> alternates = new ArrayList<>();
+                    for (JsonElement alternate : record.getAsJsonArray("alternateUrls")) {
+                        alternates.add(alternate.getAsString());
+                    }
+                    offer.addAlternateUrls(alternates);
+                }
+                links.putIfAbsent(url, null);
+                completed.put(url, new Completed(url, offer, record.has("known") && record.get("known").getAsBoolean(),
+                        record.has("listing") && record.get("listing").getAsBoolean()));
+                failures.remove(url);
+            }
+            case "failed" -> {
+                if (!completed.containsKey(url)) {
+                    links.putIfAbsent(url, null);
+                    int attempts = record.has("attempts") ? record.get("attempts").getAsInt() : failures.getOrDefault(url, 0) + 1;
+                    failures.put(url, attempts);
+                }
+            }
+            case "listed" -> listingComplete = true;
+            default -> unreadableLines++;
+        }
+    }
+
+    // Link odebrany z kolejki; tile - dane kafelka listingu (null, gdy ich nie ma)
+    public synchronized void linkDiscovered(String url, JobOffer tile) {
+        if (links.containsKey(url) && (tile == null || links.get(url) != null)) {
+            return; // Link z dziennika przerwanego uruchomienia - już zapisany
+        }
+        links.put(url, tile);
+        append(linkRecord(url, tile));
+    }
+
+    // Oferta gotowa (pobrana, z kafelka albo z poprzednich uruchomień) - link nie będzie już przetwarzany przy wznowieniu
+    public synchronized void offerCompleted(String link, JobOffer offer, boolean knownBefore) {
+        offerCompleted(link, offer, knownBefore, false);
+    }
+
+    public synchronized void offerCompleted(String link, JobOffer offer, boolean knownBefore, boolean fromListing) {
+        if (offer == null) {
+            return;
+        }
+        Completed done = new Completed(link, offer, knownBefore, fromListing);
+        links.putIfAbsent(link, null);
+        completed.put(link, done);
+        failures.remove(link);
+        append(offerRecord(done));
+    }
+
+    // Nieudana próba pobrania szczegółów - przy wznowieniu link jest ponawiany, dopóki nie przekroczy MAX_ATTEMPTS
+    public synchronized void offerFailed(String link) {
+        if (completed.containsKey(link)) {
+            return;
+        }
+        links.putIfAbsent(link, null);
+        int attempts = failures.merge(link, 1, Integer::sum);
+        append(failedRecord(link, attempts));
+    }
+
+    // Wszyscy producenci skończyli zbierać linki - przy wznowieniu listingi nie są przeglądane ponownie
+    public synchronized void listingFinished() {
+        if (!listingComplete) {
+            listingComplete = true;
+            append(record("listed"));
+        }
+    }
+
+    public synchronized boolean isListingComplete() {
+        return listingComplete;
+    }
+
+    // Oferty pobrane w przerwanym uruchomieniu, w kolejności odkrycia linków
+    public synchronized List<Completed> completedOffers() {
+        List<Completed> offers = new ArrayList<>(completed.size());
+        for (String link : links.keySet()) {
+            Completed done = completed.get(link);
+            if (done != null) {
+                offers.add(done);
+            }
+        }
+        return offers;
+    }
+
+    // Linki do przetworzenia przy wznowieniu: odkryte, niepobrane i bez MAX_ATTEMPTS nieudanych prób
+    public synchronized List<String> pendingLinks() {
+        List<String> pending = new ArrayList<>();
+        for (String link : links.keySet()) {
+            if (!completed.containsKey(link) && failures.getOrDefault(link, 0) < MAX_ATTEMPTS) {
+                pending.add(link);
+            }
+        }
+        return pending;
+    }
+
+    // Linki porzucone po MAX_ATTEMPTS nieudanych próbach
+    public synchronized int abandonedLinks() {
+        int abandoned = 0;
+        for (int attempts : failures.values()) {
+            if (attempts >= MAX_ATTEMPTS) {
+                abandoned++;
+            }
+        }
+        return abandoned;
+    }
+
+    public synchronized JobOffer tile(String link) {
+        return links.get(link);
+    }
+
+    public synchronized int getCompactions() {
+        return compactions;
+    }
+
+    synchronized int lineCount() {
+        return lines;
+    }
+
+    // Uruchomienie zakończone - nie ma czego wznawiać
+    public synchronized void finish() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            Writer current = writer;
+            writer = null;
+            current.close();
+        }
+    }
+
+    // Zapis jednego rekordu; błąd zapisu wyłącza dziennik, ale nie przerywa scrapowania
+    private void append(JsonObject record) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(record.toString());
+            writer.write('\n');
+            writer.flush(); // Do systemu od razu - rekord przetrwa awarię procesu
+            lines++;
+            int live = liveRecords();
+            if (lines - live > Math.max(COMPACT_MIN_REDUNDANT, live / 2)) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("[ScrapeJournal] Journal disabled, cannot write " + file + ": " + e.getMessage());
+            try {
+                close();
+            } catch (IOException ignored) {
+                // Plik i tak nie jest już zapisywany
+            }
+        }
+    }
+
+    // Liczba rekordów po przepisaniu: nagłówek, jeden rekord na link, próby niepobranych linków i koniec listingu
+    private int liveRecords() {
+        return 1 + links.size() + failures.size() + (listingComplete ? 1 : 0);
+    }
+
+    // Przepisanie stanu do pliku tymczasowego i podmiana - przerwane przepisywanie nie psuje poprzedniej wersji
+    private void compact() throws IOException {
+        close();
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "journal", ".tmp");
+        int written = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            JsonObject header = record("run");
+            header.addProperty("search", search);
+            written += writeLine(out, header);
+            for (Map.Entry<String, JobOffer> link : links.entrySet()) {
+                Completed done = completed.get(link.getKey());
+                written += writeLine(out, done != null ? offerRecord(done) : linkRecord(link.getKey(), link.getValue()));
+            }
+            for (Map.Entry<String, Integer> failure : failures.entrySet()) {
+                written += writeLine(out, failedRecord(failure.getKey(), failure.getValue()));
+            }
+            if (listingComplete) {
+                written += writeLine(out, record("listed"));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lines = written;
+        compactions++;
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static int writeLine(Writer out, JsonObject record) throws IOException {
+        out.write(record.toString());
+        out.write('\n');
+        return 1;
+    }
+
+    private static JsonObject record(String type) {
+        JsonObject record = new JsonObject();
+        record.addProperty("type", type);
+        return record;
+    }
+
+    private static JsonObject linkRecord(String url, JobOffer tile) {
+        JsonObject record = record("link");
+        record.addProperty("url", url);
+        if (tile != null) {
+            record.add("tile", SeenOfferStore.offerToJson(tile));
+        }
+        return record;
+    }
+
+    private static JsonObject offerRecord(Completed done) {
+        JsonObject record = record("offer");
+        record.addProperty("url", done.link());
+        record.add("offer", SeenOfferStore.offerToJson(done.offer()));
+        if (!done.offer().getAlternateUrls().isEmpty()) {
+            JsonArray alternates = new JsonArray();
+            done.offer().getAlternateUrls().forEach(alternates::add);
+            record.add("alternateUrls", alternates);
+        }
+        if (done.knownBefore()) {
+            record.addProperty("known", true);
+        }
+        if (done.fromListing()) {
+            record.addProperty("listing", true);
+        }
+        return record;
+    }
+
+    private static JsonObject failedRecord(String url, int attempts) {
+        JsonObject record = record("failed");
+        record.addProperty("url", url);
+        record.addProperty("attempts", attempts);
+        return record;
+    }
+
+    private static String string(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+}
@@ -1,28 +1,59 @@
 package org.jobscraper.jobscraper;
 
-import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 public class Scraper {
-    private final List<JobOffer> jobOffers = new ArrayList<>(); // Lista ofert pracy dostępna dla wielu wątków
-    private final List<String> offerLinks = new ArrayList<>(); // Lista linków do ofert dostępna dla wielu wątków
-    private final Set<String> offerLinksSet = Collections.synchronizedSet(new HashSet<>()); // Thread-safe zbiór linków ofert
-    private final Set<String> processedLinks = Collections.synchronizedSet(new HashSet<>()); // Thread-safe zbiór przetworzonych linków
+    private volatile OfferResults jobOffers = new OfferResults(); // Oferty bieżącego uruchomienia, dopisywane przez wiele wątków
+    private volatile List<JobOffer> newJobOffers = List.of(); // Oferty, których nie było w poprzednich uruchomieniach
+    private volatile LinkFrontier frontier; // Kolejka odkrytych linków do ofert
     private final String keywords;
     private final String location;
     private String distance;
     private final boolean scrapePracuj;
     private final boolean scrapeJustJoinIt;
-    private final AtomicBoolean justJoinItLinksCollected = new AtomicBoolean(false); // Thread-safe flaga informująca czy zakończono zbieranie linków z JustJoinIt
-    private final AtomicBoolean pracujPlLinksCollected = new AtomicBoolean(false); // Thread-safe flaga informująca czy zakończono zbieranie linków z Pracuj.pl
-    private final HelloApplication ui;
+    private final ScraperListener listener;
     private boolean finished = false;
     private AtomicBoolean isCancelled = new AtomicBoolean(false); // Thread-safe flaga do anulowania operacji
     private ExecutorService executor; // Pula wątków do równoległego przetwarzania linków
+    private volatile WebDriverPool driverPool; // Wspólna pula przeglądarek dla wszystkich scraperów
+    private volatile ChromeTabPool tabPool; // Strony szczegółów jako karty współdzielonych przeglądarek; null - sesje z driverPool
+    private volatile int tabsPerBrowser = 0;
+    private volatile HostRateLimiter rateLimiter = new HostRateLimiter(); // Tempo żądań per host, dostosowywane do odpowiedzi serwerów
+    private volatile RateLimitedDispatcher dispatcher; // Odkłada przekazanie linku do puli do momentu wolnego tokena hosta
+    private volatile ResourceGovernor resourceGovernor = new ResourceGovernor(); // Limity przeglądarek i zadań według wolnej pamięci i CPU
+    private volatile ExecutionMode executionMode = ExecutionMode.FIXED_POOL;
+    private volatile boolean httpCacheEnabled = true;
+    private volatile HttpCache httpCache; // Dyskowy cache stron pobieranych przez HTTP, współdzielony między uruchomieniami
+    private volatile SeenOfferStore seenOffers; // Oferty z poprzednich uruchomień
+    private volatile Duration reuseMaxAge = Duration.ofHours(24); // Młodsze oferty nie są pobierane ponownie
+    private volatile CsvExportSink exportSink; // Zapis ofert do CSV na bieżąco, w trakcie scrapowania
+    private volatile boolean exportOnlyNew;
+    private volatile MetricsRegistry metrics = new MetricsRegistry(); // Metryki bieżącego uruchomienia
+    private volatile Path metricsDirectory = Path.of(System.getProperty("user.home"), ".jobscraper", "metrics");
+    private final CountDownLatch completed = new CountDownLatch(1); // Zwalniany po zakończeniu wątku scrapowania
+    private volatile String pracujBaseUrl = PracujPlScraper.DEFAULT_BASE_URL;
+    private volatile String justJoinItBaseUrl = JustJoinItScraper.DEFAULT_BASE_URL;
+    private volatile boolean crossSiteDedupEnabled = true;
+    private volatile ScrapeDepth scrapeDepth = ScrapeDepth.DEEP;
+    private volatile boolean requestBlockingEnabled = true;
+    private volatile DuplicateDetector duplicateDetector; // Oferty opublikowane w obu serwisach; null, gdy scrapowany jest jeden serwis
+    private volatile Path journalFile = ScrapeJournal.defaultFile(); // Dziennik bieżącego uruchomienia; null wyłącza
+    private volatile boolean resume; // Wznowienie przerwanego uruchomienia tego samego wyszukiwania z dziennika
+    private volatile ScrapeJournal journal;
 
     private static final String[] USER_AGENTS = {
             "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/123.0.0.0 Safari/537.36",
@@ -32,119 +63,333 @@ public class Scraper {
     };
 
     public Scraper(String keywords, String location, String distance, boolean scrapePracuj,
-                   boolean scrapeJustJoinIt, HelloApplication ui) {
+                   boolean scrapeJustJoinIt, ScraperListener listener) {
         this.keywords = keywords;
         this.location = location;
         this.distance = distance;
         this.scrapePracuj = scrapePracuj;
         this.scrapeJustJoinIt = scrapeJustJoinIt;
-        this.ui = ui;
+        this.listener = listener;
+    }
+
+    // Tryb wątków musi zostać ustawiony przed startScraping()
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    // Adresy listingów serwisów - do podmiany na lokalny serwer ze stronami testowymi; przed startScraping()
+    public void setPracujBaseUrl(String pracujBaseUrl) {
+        this.pracujBaseUrl = pracujBaseUrl;
+    }
+
+    public void setJustJoinItBaseUrl(String justJoinItBaseUrl) {
+        this.justJoinItBaseUrl = justJoinItBaseUrl;
+    }
+
+    // Własne limity tempa żądań (np. wyższe dla serwera lokalnego); przed startScraping()
+    public void setHostRateLimiter(HostRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    // Blokowanie obrazów, fontów, CSS i skryptów analitycznych w przeglądarkach; przed startScraping()
+    public void setRequestBlockingEnabled(boolean requestBlockingEnabled) {
+        this.requestBlockingEnabled = requestBlockingEnabled;
+    }
+
+    // Strony szczegółów jako karty jednego procesu Chrome (do tabsPerBrowser kart na proces) zamiast osobnego procesu
+    // na stronę; 0 - osobne sesje z WebDriverPool. Przed startScraping()
+    public void setTabsPerBrowser(int tabsPerBrowser) {
+        if (tabsPerBrowser < 0) {
+            throw new IllegalArgumentException("Tabs per browser must not be negative: " + tabsPerBrowser);
+        }
+        this.tabsPerBrowser = tabsPerBrowser;
+    }
+
+    // Plik dziennika uruchomienia (domyślnie w katalogu domowym); null - bez dziennika i bez możliwości wznowienia
+    public void setJournalFile(Path journalFile) {
+        this.journalFile = journalFile;
+    }
+
+    // Wznowienie: oferty pobrane w przerwanym uruchomieniu trafiają od razu do wyników, a jego nieprzetworzone linki
+    // do kolejki; listing jest przeglądany ponownie tylko wtedy, gdy nie został wtedy dokończony. Przed startScraping()
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    // Własne górne limity przeglądarek i wątków roboczych (domyślnie zależne od liczby rdzeni); przed startScraping()
+    public void setResourceGovernor(ResourceGovernor resourceGovernor) {
+        this.resourceGovernor = resourceGovernor;
+    }
+
+    public ResourceGovernor.Stats getResourceGovernorStats() {
+        return resourceGovernor.getStats();
+    }
+
+    public RequestBlocker.Stats getRequestBlockingStats() {
+        WebDriverPool pool = driverPool;
+        RequestBlocker blocker = pool != null ? pool.getRequestBlocker() : null;
+        return blocker != null ? blocker.getStats() : null;
+    }
+
+    // Oferty z kafelków listingu zamiast stron szczegółów; przed startScraping()
+    public void setScrapeDepth(ScrapeDepth scrapeDepth) {
+        this.scrapeDepth = scrapeDepth;
+    }
+
+    public ScrapeDepth getScrapeDepth() {
+        return scrapeDepth;
+    }
+
+    // Pomijanie szczegółów ofert, które są już w wynikach z drugiego serwisu (ta sama firma, miasto i podobny tytuł)
+    public void setCrossSiteDedupEnabled(boolean crossSiteDedupEnabled) {
+        this.crossSiteDedupEnabled = crossSiteDedupEnabled;
+    }
+
+    // Liczba ofert pominiętych jako duplikaty z innego serwisu w bieżącym uruchomieniu
+    public int getDuplicatesSkipped() {
+        DuplicateDetector detector = duplicateDetector;
+        return detector != null ? detector.getDuplicates() : 0;
+    }
+
+    // Wyłączenie cache wymusza pobranie wszystkich stron od nowa
+    public void setHttpCacheEnabled(boolean httpCacheEnabled) {
+        this.httpCacheEnabled = httpCacheEnabled;
+    }
+
+    // Maksymalny wiek oferty z poprzednich uruchomień, którą można użyć bez ponownego pobierania; Duration.ZERO wyłącza
+    public void setReuseMaxAge(Duration reuseMaxAge) {
+        this.reuseMaxAge = reuseMaxAge;
+    }
+
+    // Zbiór ofert z poprzednich uruchomień - domyślnie wczytywany z katalogu domowego
+    public void setSeenOfferStore(SeenOfferStore seenOffers) {
+        this.seenOffers = seenOffers;
+    }
+
+    // Katalog, do którego trafiają metrics.json i metrics.prom; null wyłącza zapis na koniec uruchomienia
+    public void setMetricsDirectory(Path metricsDirectory) {
+        this.metricsDirectory = metricsDirectory;
+    }
+
+    public Path getMetricsDirectory() {
+        return metricsDirectory;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    // Zrzut metryk na żądanie (także w trakcie scrapowania)
+    public void dumpMetrics() throws IOException {
+        Path directory = metricsDirectory;
+        if (directory != null) {
+            metrics.writeTo(directory);
+        }
+    }
+
+    // Podłączenie eksportu strumieniowego przed startScraping(); Scraper zamyka sink po zakończeniu pracy
+    public void setExportSink(CsvExportSink exportSink, boolean onlyNewOffers) {
+        this.exportSink = exportSink;
+        this.exportOnlyNew = onlyNewOffers;
     }
 
     // Metoda startScraping uruchamia nowy wątek do zarządzania procesem scrapowania
     public void startScraping() {
-        Thread scraperThread = new Thread(() -> {
+        Thread scraperThread = executionMode.newThread("scraper-main", () -> {
             // Kod uruchamiany w osobnym wątku
             try {
-                // Użycie CopyOnWriteArrayList dla bezpieczeństwa wątków - kolekcja zoptymalizowana dla wielu czytelników i niewielu pisarzy
-                List<JobOffer> jobOffers = new CopyOnWriteArrayList<>();
+                // Wyniki widoczne od razu przez getJobOffers() - dopisywanie bez blokad i bez kopiowania
+                OfferResults jobOffers = new OfferResults();
+                this.jobOffers = jobOffers;
+
+                journal = openJournal();
+                // Listing dokończony w przerwanym uruchomieniu - linki pochodzą tylko z dziennika, który jest jedynym producentem
+                boolean listingFromJournal = journal != null && journal.isListingComplete();
+
+                // Każdy włączony scraper jest producentem linków i sam zgłasza koniec ich zbierania
+                frontier = new LinkFrontier(listingFromJournal ? 1 : (scrapeJustJoinIt ? 1 : 0) + (scrapePracuj ? 1 : 0));
+                if (isCancelled.get()) {
+                    frontier.cancel();
+                }
 
                 // Create and start the individual scrapers
                 JustJoinItScraper justJoinItScraper = null;
                 PracujPlScraper pracujPlScraper = null;
 
+                // Górne limity z ResourceGovernor; faktycznie uruchamianych przeglądarek i zadań naraz jest tyle,
+                // ile mieści się w wolnej pamięci i CPU w danej chwili
+                ResourceGovernor governor = resourceGovernor;
+                driverPool = new WebDriverPool(governor.getMaxBrowsers());
+                driverPool.setResourceGovernor(governor);
+                RequestBlocker blocker = requestBlockingEnabled ? new RequestBlocker() : RequestBlocker.measureOnly();
+                driverPool.setRequestBlocker(blocker);
+                // W trybie kart stron naraz może być tyle, ile wątków roboczych - zajmują one jeden proces Chrome na tabsPerBrowser stron
+                tabPool = tabsPerBrowser > 0 ? new ChromeTabPool(governor.getMaxWorkers(), tabsPerBrowser) : null;
+                if (tabPool != null) {
+                    tabPool.setRequestBlocker(blocker);
+                    tabPool.setResourceGovernor(governor);
+                }
+
+                // Tworzenie puli wątków do równoległego przetwarzania ofert pracy
+                executor = executionMode.newWorkerExecutor(governor.getMaxWorkers()); // Pula maxWorkers wątków albo wątek wirtualny na zadanie
+
+                if (httpCacheEnabled && httpCache == null) {
+                    httpCache = HttpCache.openDefault();
+                }
+                HttpFetcher fetcher = new HttpFetcher(rateLimiter, httpCacheEnabled ? httpCache : null);
+                MetricsRegistry runMetrics = new MetricsRegistry();
+                metrics = runMetrics;
+                registerGauges(runMetrics, frontier, driverPool, tabPool, governor, jobOffers);
+                if (seenOffers == null) {
+                    seenOffers = SeenOfferStore.openDefault();
+                }
+                SeenOfferStore seen = seenOffers;
+                Set<String> knownLinks = ConcurrentHashMap.newKeySet(); // Linki znane z poprzednich uruchomień
+                Set<String> reusedLinks = ConcurrentHashMap.newKeySet(); // ...z tego ofert użytych bez pobierania
+                Set<String> listingLinks = ConcurrentHashMap.newKeySet(); // Oferty z kafelków listingu, bez strony szczegółów
+                Instant runStart = Instant.now();
+                // Duplikaty między serwisami są rozpoznawane na etapie listingu, przed kolejką linków
+                DuplicateDetector detector = crossSiteDedupEnabled && scrapePracuj && scrapeJustJoinIt ? new DuplicateDetector() : null;
+                duplicateDetector = detector;
+                RateLimitedDispatcher linkDispatcher = new RateLimitedDispatcher(rateLimiter);
+                dispatcher = linkDispatcher;
+
                 if (scrapeJustJoinIt) {
-                    justJoinItScraper = new JustJoinItScraper(jobOffers, keywords, location, offerLinks, offerLinksSet, ui);
-                    justJoinItScraper.startScraping();
-                    // Set flag to false initially for JustJoinIt
-                    justJoinItLinksCollected.set(false);
-                } else {
-                    // If not scraping JustJoinIt, mark as already completed
-                    justJoinItLinksCollected.set(true);
+                    justJoinItScraper = new JustJoinItScraper(jobOffers, keywords, location, frontier, driverPool, fetcher, listener);
+                    justJoinItScraper.setExecutionMode(executionMode);
+                    justJoinItScraper.setBaseUrl(justJoinItBaseUrl);
+                    justJoinItScraper.setMetrics(runMetrics);
+                    justJoinItScraper.setDuplicateDetector(detector);
+                    justJoinItScraper.setTabPool(tabPool);
                 }
 
                 if (scrapePracuj) {
-                    pracujPlScraper = new PracujPlScraper(jobOffers, keywords, location, distance, offerLinks, offerLinksSet, ui);
-                    pracujPlScraper.startScraping();
-                    // Set flag to false initially for PracujPl
-                    pracujPlLinksCollected.set(false);
-                } else {
-                    // If not scraping PracujPl, mark as already completed
-                    pracujPlLinksCollected.set(true);
+                    pracujPlScraper = new PracujPlScraper(jobOffers, keywords, location, distance, frontier, driverPool, fetcher, listener);
+                    pracujPlScraper.setExecutionMode(executionMode);
+                    pracujPlScraper.setBaseUrl(pracujBaseUrl);
+                    pracujPlScraper.setMetrics(runMetrics);
+                    pracujPlScraper.setDuplicateDetector(detector);
+                    pracujPlScraper.setTabPool(tabPool);
+                    pracujPlScraper.setDispatcher(linkDispatcher);
                 }
 
-                // Tworzenie puli wątków do równoległego przetwarzania ofert pracy
-                executor = Executors.newFixedThreadPool(5); // Tworzy pulę 5 wątków roboczych
+                if (journal != null) {
+                    restoreFromJournal(journal, listingFromJournal, jobOffers, runMetrics, knownLinks, listingLinks, justJoinItScraper, pracujPlScraper);
+                }
+                if (listingFromJournal) {
+                    frontier.producerFinished();
+                } else {
+                    if (justJoinItScraper != null) {
+                        justJoinItScraper.startScraping();
+                    }
+                    if (pracujPlScraper != null) {
+                        pracujPlScraper.startScraping();
+                    }
+                }
 
-                // Monitor the progress and process links
                 JustJoinItScraper finalJustJoinItScraper = justJoinItScraper;
                 PracujPlScraper finalPracujPlScraper = pracujPlScraper;
+                ScrapeDepth depth = scrapeDepth;
                 System.out.println("Scraping details started...");
 
-                // Monitorowanie postępu i przetwarzanie linków w pętli
-                while (!isCancelled.get()) {
-                    // Sprawdzanie flag atomowych w sposób thread-safe
-                    if (scrapeJustJoinIt && finalJustJoinItScraper != null && finalJustJoinItScraper.isFinishedCollectingLinks()) {
-                        justJoinItLinksCollected.set(true);
+                // Linki są przekazywane do puli wątków od razu po odkryciu; take() zwraca null,
+                // gdy wszyscy producenci zgłosili koniec i kolejka została opróżniona.
+                // Zadanie trafia do puli dopiero z tokenem hosta - czeka w kolejce dyspozytora, nie w wątku roboczym.
+                String link;
+                while (!isCancelled.get() && (link = frontier.take()) != null) {
+                    final String finalLink = link;
+                    JobOffer tile = tileOffer(finalLink, finalJustJoinItScraper, finalPracujPlScraper);
+                    if (journal != null) {
+                        journal.linkDiscovered(finalLink, tile);
                     }
-
-                    if (scrapePracuj && finalPracujPlScraper != null && finalPracujPlScraper.isFinishedCollectingLinks()) {
-                        pracujPlLinksCollected.set(true);
+                    if (seen != null && seen.contains(finalLink)) {
+                        knownLinks.add(finalLink);
+                        JobOffer known = seen.getFresh(finalLink, reuseMaxAge, runStart, depth);
+                        if (known != null) {
+                            // Niedawno pobrana oferta - bez ponownego pobierania szczegółów
+                            reusedLinks.add(finalLink);
+                            jobOffers.add(known);
+                            runMetrics.offerScraped(siteOf(finalLink), "reused");
+                            exportOffer(known, true);
+                            journalCompleted(finalLink, known, true, seen.isFromListing(finalLink));
+                            listener.updateUI(jobOffers.size(), progressTotal(), null);
+                            listener.updateLinksCount(frontier.size());
+                            continue;
+                        }
                     }
-
-                    // Zbieranie nieprzetworzonych linków w celu równoległego przetwarzania
-                    List<String> unprocessedLinks = new ArrayList<>();
-                    synchronized (offerLinks) { // Synchronizacja dostępu do współdzielonej listy
-                        // Sprawdzanie i dodawanie nowych linków do przetworzenia
-                        for (String link : offerLinks) {
-                            if (!processedLinks.contains(link)) {
-                                unprocessedLinks.add(link);
-                                processedLinks.add(link);
-                            }
+                    if (depth.acceptsTile(tile)) {
+                        // Tryb płytki - oferta z kafelka listingu, bez żądania o stronę szczegółów
+                        String site = siteOf(finalLink);
+                        jobOffers.add(tile);
+                        listingLinks.add(finalLink);
+                        runMetrics.offerScraped(site, "listing");
+                        long discoveredAt = frontier.discoveredAtNanos(finalLink);
+                        if (discoveredAt != Long.MIN_VALUE) {
+                            runMetrics.offerLatency(site).observeSince(discoveredAt);
                         }
+                        exportOffer(tile, knownLinks.contains(finalLink));
+                        journalCompleted(finalLink, tile, knownLinks.contains(finalLink), true);
+                        listener.updateOffersCount(jobOffers.size());
+                        listener.updateUI(jobOffers.size(), progressTotal(), null);
+                        listener.updateLinksCount(frontier.size());
+                        continue;
                     }
-
-                    // Równoległe przetwarzanie linków przy użyciu puli wątków
-                    for (String link : unprocessedLinks) {
-                        if (isCancelled.get()) break;
-
-                        final String finalLink = link;
-                        executor.submit(() -> { // Delegowanie zadania do puli wątków
-                            // Przetwarzanie linku przez odpowiedni scraper
-                            if (finalLink.contains("justjoin.it") && finalJustJoinItScraper != null) {
-                                finalJustJoinItScraper.scrapeOfferDetails(finalLink);
-                            } else if (finalLink.contains("pracuj.pl") && finalPracujPlScraper != null) {
-                                finalPracujPlScraper.scrapeOfferDetails(finalLink);
+                    Runnable task = () -> {
+                        // Czas od odkrycia linku do rozpoczęcia jego przetwarzania (kolejka, limit żądań, zajęte wątki, ResourceGovernor)
+                        long discoveredAt = frontier.discoveredAtNanos(finalLink);
+                        if (discoveredAt != Long.MIN_VALUE) {
+                            runMetrics.queueWait().observeSince(discoveredAt);
+                        }
+                        Consumer<JobOffer> finish = offer -> {
+                            if (offer != null && discoveredAt != Long.MIN_VALUE) {
+                                runMetrics.offerLatency(siteOf(finalLink)).observeSince(discoveredAt);
                             }
-                        });
-                    }
-
-                    // Update UI with current progress
-                    ui.updateUI(jobOffers.size(), offerLinksSet.size(), null);
-                    ui.updateLinksCount(offerLinksSet.size());
-
-                    // Sprawdzanie czy wszystkie zadania zostały zakończone
-                    if (justJoinItLinksCollected.get() && pracujPlLinksCollected.get() &&
-                            processedLinks.size() >= offerLinksSet.size() &&
-                            jobOffers.size() >= processedLinks.size()) {
-
-                        // Bezpieczne zatrzymanie puli wątków
-                        executor.shutdown();
-                        boolean terminated = executor.awaitTermination(30, TimeUnit.SECONDS); // Oczekiwanie na zakończenie wszystkich zadań
-                        if (terminated) {
-                            // Informacja o zakończeniu i aktualizacja UI
-                            System.out.println("Scraping details finished...");
-                            ui.finishScraping(jobOffers.size());
-                            ui.updateUI(jobOffers.size(), offerLinks.size(), true);
-                            break; // Exit the loop once all tasks are done
+                            exportOffer(offer, knownLinks.contains(finalLink));
+                            if (offer != null) {
+                                journalCompleted(finalLink, offer, knownLinks.contains(finalLink));
+                            } else if (journal != null && !isCancelled.get()) {
+                                journal.offerFailed(finalLink); // Po anulowaniu null oznacza przerwane zadanie, nie błąd
+                            }
+                            // Update UI with current progress
+                            listener.updateUI(jobOffers.size(), progressTotal(), null);
+                        };
+                        // Przetwarzanie linku przez odpowiedni scraper
+                        JobOffer offer = scrapeOfferDetails(finalLink, finalJustJoinItScraper, finalPracujPlScraper);
+                        List<String> alternates = offer == null && detector != null ? detector.alternateUrls(finalLink) : List.of();
+                        if (alternates.isEmpty()) {
+                            finish.accept(offer);
                         } else {
-                            // Wymuszenie zamknięcia puli wątków jeśli nie zakończyła pracy w określonym czasie
-                            System.err.println("Executor did not terminate in time, forcing shutdown...");
-                            executor.shutdownNow();
+                            // Oferta nie dała się pobrać - jej kopie z innego serwisu zostały pominięte, więc próbujemy ich
+                            scrapeAlternates(finalLink, alternates, 0, governor, finalJustJoinItScraper, finalPracujPlScraper, finish);
                         }
+                    };
+                    linkDispatcher.execute(finalLink, governed(governor, task), executor); // Delegowanie zadania do puli wątków
+                    listener.updateLinksCount(frontier.size());
+                }
+
+                if (journal != null && !isCancelled.get()) {
+                    journal.listingFinished();
+                }
+
+                // Wszystkie linki zostały odebrane - czekamy, aż dyspozytor odda czekające zadania do puli i te się zakończą
+                while (!linkDispatcher.awaitIdle(1, TimeUnit.SECONDS)) {
+                    if (isCancelled.get()) {
+                        break;
                     }
+                }
+                linkDispatcher.shutdown();
 
-                    Thread.sleep(1000); // Mały delay aby uniknąć zbyt intensywnego sprawdzania warunku
+                executor.shutdown();
+                while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    if (isCancelled.get()) {
+                        // Wymuszenie zamknięcia puli wątków po anulowaniu
+                        executor.shutdownNow();
+                        break;
+                    }
                 }
 
                 // Cancel scrapers if they're still running (in case of cancellation)
@@ -158,19 +403,75 @@ public class Scraper {
                 }
 
                 // Upewnienie się, że pula wątków jest zamknięta
-                if (executor != null && !executor.isShutdown()) {
+                if (!executor.isShutdown()) {
                     executor.shutdownNow();
                 }
+                System.out.println("WebDriver pool stats: " + driverPool.getStats());
+                if (tabPool != null) {
+                    System.out.println("Chrome tab pool stats: " + tabPool.getStats());
+                }
+                System.out.println("Resource governor: " + governor.getStats());
+                System.out.println("Request blocking" + (requestBlockingEnabled ? ": " : " (disabled): ") + driverPool.getRequestBlocker().getStats());
+                System.out.println("Request rates per host: " + rateLimiter.getRates());
+                if (fetcher.getCache() != null) {
+                    HttpCache cache = fetcher.getCache();
+                    System.out.println("HTTP cache: " + cache.getHits() + " hits, " + cache.getRevalidations()
+                            + " revalidated (304), " + cache.getMisses() + " misses, " + cache.size() + " entries");
+                }
+                driverPool.shutdown();
+                if (tabPool != null) {
+                    tabPool.shutdown();
+                }
+
+                if (detector != null) {
+                    // Adresy pominiętych duplikatów trafiają do oferty, która została w wynikach
+                    for (JobOffer offer : jobOffers.snapshot()) {
+                        List<String> alternates = detector.alternateUrls(offer.getUrl());
+                        if (!alternates.isEmpty()) {
+                            offer.addAlternateUrls(alternates);
+                        }
+                    }
+                    System.out.println("Cross-site duplicates: " + detector.getDuplicates() + " detail fetches skipped");
+                }
+
+                // Zapamiętanie pobranych ofert dla kolejnych uruchomień
+                List<JobOffer> delta = new ArrayList<>();
+                List<JobOffer> results = jobOffers.snapshot();
+                for (JobOffer offer : results) {
+                    if (!knownLinks.contains(offer.getUrl())) {
+                        delta.add(offer);
+                    }
+                }
+                if (seen != null) {
+                    Instant now = Instant.now();
+                    for (JobOffer offer : results) {
+                        if (!reusedLinks.contains(offer.getUrl())) {
+                            seen.record(offer, now, listingLinks.contains(offer.getUrl()));
+                        }
+                    }
+                    int pruned = seen.prune(SeenOfferStore.retentionFor(reuseMaxAge), now);
+                    try {
+                        seen.save();
+                    } catch (IOException e) {
+                        System.err.println("Failed to save seen offers: " + e.getMessage());
+                    }
+                    System.out.println("Incremental scraping: " + reusedLinks.size() + " offers reused, "
+                            + delta.size() + " new, " + seen.size() + " known in total, " + pruned + " expired entries dropped");
+                }
 
                 // Final UI update
-                ui.updateUI(jobOffers.size(), offerLinks.size(), true);
+                listener.updateUI(jobOffers.size(), frontier.size(), true);
+
+                newJobOffers = Collections.unmodifiableList(delta);
 
-                // Copy results to main lists
-                synchronized (this.jobOffers) {
-                    this.jobOffers.clear();
-                    this.jobOffers.addAll(jobOffers);
+                if (!isCancelled.get()) {
+                    // Informacja o zakończeniu i aktualizacja UI - dopiero gdy wyniki, nowe oferty i zapamiętane oferty są gotowe
+                    System.out.println("Scraping details finished...");
+                    listener.finishScraping(jobOffers.size());
                 }
 
+                // Zakończone uruchomienie nie ma czego wznawiać; po anulowaniu dziennik zostaje
+                closeJournal(!isCancelled.get());
                 finished = true;
 
             } catch (InterruptedException e) {
@@ -179,27 +480,303 @@ public class Scraper {
             } catch (Exception e) {
                 System.err.println("Error in startScraping: " + e.getMessage());
                 e.printStackTrace();
+            } finally {
+                closeJournal(false); // Po błędzie dziennik zostaje do wznowienia
+                closeExportSink();
+                writeFinalMetrics(); // Także po błędzie - metryki pokazują, gdzie się zatrzymało
+                completed.countDown();
             }
         });
 
-        scraperThread.setDaemon(true); // Ustawienie wątku jako daemon - zakończy się gdy program główny się zakończy
         scraperThread.start(); // Uruchomienie wątku
     }
 
+    private static void registerGauges(MetricsRegistry metrics, LinkFrontier frontier, WebDriverPool pool, ChromeTabPool tabs,
+                                       ResourceGovernor governor, OfferResults offers) {
+        metrics.gauge("jobscraper_links_discovered", "Unique offer links discovered so far", frontier::size);
+        metrics.gauge("jobscraper_links_expected", "Offer count announced by the listing pages", frontier::expectedSize);
+        metrics.gauge("jobscraper_links_pending", "Links waiting in the frontier queue", frontier::pending);
+        metrics.gauge("jobscraper_offers_collected", "Offers in the result list", offers::size);
+        metrics.gauge("jobscraper_browsers_idle", "Idle browser sessions in the pool", () -> pool.getStats().idle());
+        metrics.gauge("jobscraper_browsers_created", "Browser sessions started", () -> pool.getStats().created());
+        metrics.gauge("jobscraper_browsers_crashed", "Browser sessions discarded after a crash", () -> pool.getStats().crashed());
+        RequestBlocker blocker = pool.getRequestBlocker();
+        if (blocker != null) {
+            metrics.gauge("jobscraper_browser_pages", "Browser pages opened with request blocking rules", () -> blocker.getStats().pages());
+            metrics.gauge("jobscraper_browser_requests_blocked", "Browser requests blocked by resource type or URL rules", () -> blocker.getStats().blockedRequests());
+            metrics.gauge("jobscraper_browser_transferred_bytes", "Bytes loaded by browser pages (encoded, after blocking)", () -> blocker.getStats().transferredBytes());
+        }
+        if (tabs != null) {
+            metrics.gauge("jobscraper_browser_instances", "Chrome processes serving detail tabs", () -> tabs.getStats().browsers());
+            metrics.gauge("jobscraper_browser_tabs_created", "Detail tabs opened in shared Chrome processes", () -> tabs.getStats().tabsCreated());
+            metrics.gauge("jobscraper_browser_tabs_crashed", "Detail tabs closed after a crash", () -> tabs.getStats().tabsCrashed());
+        }
+        metrics.gauge("jobscraper_governor_browser_limit", "Browsers that fit in free memory right now", () -> governor.getStats().browserLimit());
+        metrics.gauge("jobscraper_governor_worker_limit", "Detail tasks allowed to run at once right now", () -> governor.getStats().workerLimit());
+        metrics.gauge("jobscraper_governor_browsers_live", "Browser processes started with the governor's permission", () -> governor.getStats().liveBrowsers());
+        metrics.gauge("jobscraper_governor_rss_bytes", "Resident memory of the scraper and its browser processes",
+                () -> {
+                    ResourceGovernor.Sample sample = governor.getStats().sample();
+                    return Math.max(0, sample.processRssBytes()) + Math.max(0, sample.childrenRssBytes());
+                });
+    }
+
+    private static JobOffer tileOffer(String link, JustJoinItScraper justJoinItScraper, PracujPlScraper pracujPlScraper) {
+        if (justJoinItScraper != null && justJoinItScraper.ownsLink(link)) {
+            return justJoinItScraper.tileOffer(link);
+        } else if (pracujPlScraper != null && pracujPlScraper.ownsLink(link)) {
+            return pracujPlScraper.tileOffer(link);
+        }
+        return null;
+    }
+
+    private static JobOffer scrapeOfferDetails(String link, JustJoinItScraper justJoinItScraper, PracujPlScraper pracujPlScraper) {
+        if (justJoinItScraper != null && justJoinItScraper.ownsLink(link)) {
+            return justJoinItScraper.scrapeOfferDetails(link);
+        } else if (pracujPlScraper != null && pracujPlScraper.ownsLink(link)) {
+            return pracujPlScraper.scrapeOfferDetails(link);
+        }
+        return null;
+    }
+
+    private String siteOf(String link) {
+        return HostRateLimiter.isSameSite(link, justJoinItBaseUrl) ? "justjoin" : "pracuj";
+    }
+
+    private ScrapeJournal openJournal() {
+        Path file = journalFile;
+        if (file == null) {
+            return null;
+        }
+        String search = ScrapeJournal.searchKey(keywords, location, distance,
+                scrapePracuj ? pracujBaseUrl : null, scrapeJustJoinIt ? justJoinItBaseUrl : null);
+        try {
+            return ScrapeJournal.open(file, search, resume);
+        } catch (IOException e) {
+            System.err.println("Scrape journal disabled, cannot open " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Stan przerwanego uruchomienia: pobrane oferty od razu w wynikach i w eksporcie, nieprzetworzone linki w kolejce.
+    // Dane kafelków wracają do scraperów tylko wtedy, gdy listing nie będzie przeglądany ponownie.
+    private void restoreFromJournal(ScrapeJournal journal, boolean withTiles, OfferResults jobOffers, MetricsRegistry runMetrics,
+                                    Set<String> knownLinks, Set<String> listingLinks,
+                                    JustJoinItScraper justJoinItScraper, PracujPlScraper pracujPlScraper) {
+        List<ScrapeJournal.Completed> restored = journal.completedOffers();
+        for (ScrapeJournal.Completed done : restored) {
+            frontier.addCompleted(done.link());
+            if (done.knownBefore()) {
+                knownLinks.add(done.link()); // Status z przerwanego uruchomienia - po anulowaniu oferta jest już w SeenOfferStore
+            }
+            if (done.fromListing()) {
+                listingLinks.add(done.link());
+            }
+            jobOffers.add(done.offer());
+            runMetrics.offerScraped(siteOf(done.link()), "journal");
+            exportOffer(done.offer(), done.knownBefore());
+        }
+        List<String> pending = journal.pendingLinks();
+        for (String link : pending) {
+            JobOffer tile = journal.tile(link);
+            if (withTiles && tile != null) {
+                if (justJoinItScraper != null && justJoinItScraper.ownsLink(link)) {
+                    justJoinItScraper.restoreTile(tile);
+                } else if (pracujPlScraper != null && pracujPlScraper.ownsLink(link)) {
+                    pracujPlScraper.restoreTile(tile);
+                }
+            }
+            frontier.add(link);
+        }
+        if (!restored.isEmpty() || !pending.isEmpty()) {
+            System.out.println("Resumed from journal: " + restored.size() + " offers, " + pending.size() + " links pending, "
+                    + journal.abandonedLinks() + " abandoned after " + ScrapeJournal.MAX_ATTEMPTS + " failed attempts"
+                    + (withTiles ? ", listing skipped" : ""));
+            listener.updateUI(jobOffers.size(), progressTotal(), null);
+        }
+    }
+
+    private void journalCompleted(String link, JobOffer offer, boolean knownBefore) {
+        journalCompleted(link, offer, knownBefore, false);
+    }
+
+    private void journalCompleted(String link, JobOffer offer, boolean knownBefore, boolean fromListing) {
+        ScrapeJournal current = journal;
+        if (current != null) {
+            current.offerCompleted(link, offer, knownBefore, fromListing);
+        }
+    }
+
+    // Dziennik po uruchomieniu: usuwany, gdy uruchomienie się zakończyło, zostawiany do wznowienia po anulowaniu i błędzie
+    private void closeJournal(boolean runCompleted) {
+        ScrapeJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        try {
+            if (runCompleted) {
+                current.finish();
+            } else {
+                current.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to close scrape journal: " + e.getMessage());
+        }
+    }
+
+    // Miejsce dla zadania według bieżącego limitu - przy braku pamięci lub przeciążonym CPU zadania czekają tutaj
+    private static Runnable governed(ResourceGovernor governor, Runnable task) {
+        return () -> {
+            try {
+                governor.acquireWorker();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                governor.releaseWorker();
+            }
+        };
+    }
+
+    // Kolejne kopie oferty z innych serwisów trafiają do kolejki dyspozytora jak zwykłe linki - wątek roboczy nie czeka
+    // na token hosta i nie trzyma miejsca w ResourceGovernor; onResult dostaje pierwszą pobraną kopię albo null
+    private void scrapeAlternates(String link, List<String> alternates, int index, ResourceGovernor governor,
+                                  JustJoinItScraper justJoinItScraper, PracujPlScraper pracujPlScraper, Consumer<JobOffer> onResult) {
+        if (index >= alternates.size() || isCancelled.get()) {
+            onResult.accept(null);
+            return;
+        }
+        String alternate = alternates.get(index);
+        dispatcher.execute(alternate, governed(governor, () -> {
+            JobOffer offer = scrapeOfferDetails(alternate, justJoinItScraper, pracujPlScraper);
+            if (offer != null) {
+                offer.addAlternateUrls(List.of(link));
+                onResult.accept(offer);
+            } else {
+                scrapeAlternates(link, alternates, index + 1, governor, justJoinItScraper, pracujPlScraper, onResult);
+            }
+        }), executor);
+    }
+
+    private void exportOffer(JobOffer offer, boolean knownBefore) {
+        CsvExportSink sink = exportSink;
+        if (sink == null || offer == null || (exportOnlyNew && knownBefore)) {
+            return;
+        }
+        try {
+            sink.write(offer);
+        } catch (IOException e) {
+            System.err.println("CSV export failed for " + offer.getUrl() + ": " + e.getMessage());
+        }
+    }
+
+    private void writeFinalMetrics() {
+        MetricsRegistry runMetrics = metrics;
+        rateLimiter.getRates().keySet().forEach(host -> runMetrics.gauge("jobscraper_host_request_rate",
+                "Current request rate per host (requests/s)", () -> rateLimiter.getRate(host), "host", host));
+        try {
+            dumpMetrics();
+            if (metricsDirectory != null) {
+                System.out.println("Metrics written to " + metricsDirectory.toAbsolutePath());
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write metrics: " + e.getMessage());
+        }
+    }
+
+    private void closeExportSink() {
+        CsvExportSink sink = exportSink;
+        if (sink == null) {
+            return;
+        }
+        try {
+            sink.close();
+            System.out.println("CSV export: " + sink.getRowsWritten() + " offers written");
+        } catch (IOException e) {
+            System.err.println("Failed to close CSV export: " + e.getMessage());
+        }
+    }
+
+    // Serwisy oczekują fraz bez polskich znaków
+    public static String replacePolishLetters(String text) {
+        if (text == null) {
+            return null;
+        }
+        return text.replace("ą", "a")
+                   .replace("ć", "c")
+                   .replace("ę", "e")
+                   .replace("ł", "l")
+                   .replace("ń", "n")
+                   .replace("ó", "o")
+                   .replace("ś", "s")
+                   .replace("ź", "z")
+                   .replace("ż", "z")
+                   .replace("Ą", "A")
+                   .replace("Ć", "C")
+                   .replace("Ę", "E")
+                   .replace("Ł", "L")
+                   .replace("Ń", "N")
+                   .replace("Ó", "O")
+                   .replace("Ś", "S")
+                   .replace("Ź", "Z")
+                   .replace("Ż", "Z");
+    }
+
+    // Mianownik postępu: odkryte linki albo zapowiedziana przez serwisy liczba ofert, jeśli większa
+    private int progressTotal() {
+        LinkFrontier current = frontier;
+        return current == null ? 0 : Math.max(current.size(), current.expectedSize());
+    }
+
     public boolean isFinished() {
         return finished;
     }
 
+    // Czekanie na zakończenie (albo anulowanie) scrapowania - dla trybu wsadowego
+    public void awaitCompletion() throws InterruptedException {
+        completed.await();
+    }
+
+    public WebDriverPool.Stats getDriverPoolStats() {
+        return driverPool != null ? driverPool.getStats() : null;
+    }
+
+    // Aktualne tempo żądań (żądań/s) dla każdego hosta
+    public Map<String, Double> getHostRates() {
+        return rateLimiter.getRates();
+    }
+
+    // Niezmienny widok na oferty pobrane do tej chwili - bez kopiowania, także w trakcie scrapowania
     public List<JobOffer> getJobOffers() {
-        return new ArrayList<>(jobOffers);
+        return jobOffers.snapshot();
+    }
+
+    // Tylko oferty nowe względem poprzednich uruchomień (eksport przyrostowy); dostępne po zakończeniu
+    public List<JobOffer> getNewJobOffers() {
+        return newJobOffers;
     }
 
     // Metoda do anulowania procesu scrapowania
     public void cancel() {
         isCancelled.set(true); // Thread-safe ustawienie flagi anulowania
+        if (dispatcher != null) {
+            dispatcher.cancel(); // Porzucenie zadań czekających na token
+        }
         if (executor != null) {
             executor.shutdownNow(); // Natychmiastowe zatrzymanie wszystkich wątków w puli
         }
-        ui.finishScraping(jobOffers.size());
+        if (frontier != null) {
+            frontier.cancel(); // Odblokowanie dyspozytora czekającego na kolejne linki
+        }
+        if (driverPool != null) {
+            driverPool.shutdown();
+        }
+        if (tabPool != null) {
+            tabPool.shutdown();
+        }
+        listener.finishScraping(jobOffers.size());
     }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package org.jobscraper.jobscraper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Tryb wsadowy bez JavaFX, np. do uruchamiania z crona:
+// java -cp ... org.jobscraper.jobscraper.ScraperCli --keywords java --location krakow --sites pracuj,justjoin --output offers.csv
+public class ScraperCli {
+    private static final Set<String> FLAGS = Set.of("only-new", "no-cache", "virtual-threads", "keep-duplicates", "no-block", "resume", "help");
+    private static final Set<String> OPTIONS = Set.of("keywords", "location", "distance", "sites", "output", "max-age-hours", "metrics-dir", "depth", "tabs",
+            "max-browsers", "max-workers", "journal");
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        Map<String, String> options;
+        try {
+            options = parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            return 2;
+        }
+        if (options.containsKey("help")) {
+            printUsage();
+            return 0;
+        }
+
+        String sites = options.getOrDefault("sites", "pracuj,justjoin").toLowerCase();
+        boolean scrapePracuj = sites.contains("pracuj");
+        boolean scrapeJustJoinIt = sites.contains("justjoin");
+        if (!scrapePracuj && !scrapeJustJoinIt) {
+            System.err.println("No known site in --sites: " + sites);
+            printUsage();
+            return 2;
+        }
+
+        String distance = options.getOrDefault("distance", "0");
+        Path output = Path.of(options.getOrDefault("output", "offers.csv"));
+        ConsoleListener listener = new ConsoleListener();
+        Scraper scraper = new Scraper(
+                Scraper.replacePolishLetters(options.getOrDefault("keywords", "")).toLowerCase(),
+                Scraper.replacePolishLetters(options.getOrDefault("location", "")).toLowerCase(),
+                distance.isEmpty() ? "0" : distance,
+                scrapePracuj,
+                scrapeJustJoinIt,
+                listener
+        );
+        scraper.setHttpCacheEnabled(!options.containsKey("no-cache"));
+        if (options.containsKey("virtual-threads")) {
+            scraper.setExecutionMode(ExecutionMode.VIRTUAL_THREADS);
+        }
+        if (options.containsKey("depth")) {
+            try {
+                scraper.setScrapeDepth(ScrapeDepth.parse(options.get("depth")));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Invalid --depth: " + options.get("depth"));
+                return 2;
+            }
+        }
+        if (options.containsKey("tabs")) {
+            try {
+                scraper.setTabsPerBrowser(Integer.parseInt(options.get("tabs")));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Invalid --tabs: " + options.get("tabs"));
+                return 2;
+            }
+        }
+        if (options.containsKey("max-browsers") || options.containsKey("max-workers")) {
+            try {
+                int maxBrowsers = options.containsKey("max-browsers") ? Integer.parseInt(options.get("max-browsers")) : ResourceGovernor.defaultMaxBrowsers();
+                int maxWorkers = options.containsKey("max-workers") ? Integer.parseInt(options.get("max-workers")) : ResourceGovernor.defaultMaxWorkers();
+                scraper.setResourceGovernor(new ResourceGovernor(maxBrowsers, maxWorkers));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Invalid --max-browsers/--max-workers: " + e.getMessage());
+                return 2;
+            }
+        }
+        if (options.containsKey("no-block")) {
+            scraper.setRequestBlockingEnabled(false);
+        }
+        if (options.containsKey("journal")) {
+            scraper.setJournalFile(Path.of(options.get("journal")));
+        }
+        if (options.containsKey("resume")) {
+            scraper.setResume(true);
+        }
+        if (options.containsKey("keep-duplicates")) {
+            scraper.setCrossSiteDedupEnabled(false);
+        }
+        if (options.containsKey("metrics-dir")) {
+            scraper.setMetricsDirectory(Path.of(options.get("metrics-dir")));
+        }
+        if (options.containsKey("max-age-hours")) {
+            try {
+                scraper.setReuseMaxAge(Duration.ofHours(Long.parseLong(options.get("max-age-hours"))));
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid --max-age-hours: " + options.get("max-age-hours"));
+                return 2;
+            }
+        }
+
+        try {
+            scraper.setExportSink(new CsvExportSink(output), options.containsKey("only-new"));
+        } catch (IOException e) {
+            System.err.println("Cannot open output file " + output + ": " + e.getMessage());
+            return 1;
+        }
+
+        // Ctrl+C / SIGTERM - zamknięcie przeglądarek i zapisanie tego, co już pobrano
+        Thread shutdownHook = new Thread(() -> {
+            if (!scraper.isFinished()) {
+                scraper.cancel();
+                try {
+                    scraper.awaitCompletion();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "scraper-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        scraper.startScraping();
+        try {
+            scraper.awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+
+        System.out.println("Done: " + scraper.getJobOffers().size() + " offers (" + scraper.getNewJobOffers().size()
+                + " new) written to " + output.toAbsolutePath());
+        return scraper.isFinished() ? 0 : 1;
+    }
+
+    // Opcje w postaci --nazwa wartość oraz flagi bez wartości
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (FLAGS.contains(name)) {
+                options.put(name, "true");
+            } else if (OPTIONS.contains(name)) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for --" + name);
+                }
+                options.put(name, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        return options;
+    }
+
+    private static void printUsage() {
+        System.err.println("""
+                Usage: ScraperCli [options]
+                  --keywords <text>       search phrase, e.g. java
+                  --location <text>       city, e.g. krakow
+                  --distance <km>         search radius (pracuj.pl only), default 0
+                  --sites <list>          comma separated: pracuj,justjoin (default both)
+                  --output <file>         CSV file, default offers.csv
+                  --only-new              write only offers not seen in earlier runs
+                  --max-age-hours <n>     reuse offers scraped less than n hours ago (default 24)
+                  --metrics-dir <dir>     where metrics.json and metrics.prom are written (default ~/.jobscraper/metrics)
+                  --no-cache              do not use the on-disk HTTP cache
+                  --depth <mode>          deep (every offer page, default), shallow (listing tiles only)
+                                          or shallow-with-deep-fill (offer page only for incomplete tiles)
+                  --tabs <n>              open offer pages as tabs of shared Chrome instances, n tabs per instance
+                                          (default 0: a separate Chrome per page)
+                  --max-browsers <n>      at most n Chrome processes (default: CPU count, 2-16); fewer start when memory is short
+                  --max-workers <n>       at most n offer pages processed at once (default: 4 per CPU, 4-64); fewer under high load
+                  --no-block              let browsers load images, fonts, stylesheets and trackers
+                  --keep-duplicates       fetch offers posted on both sites from each site separately
+                  --resume                continue an interrupted run of the same search from its journal
+                  --journal <file>        run journal for --resume (default ~/.jobscraper/journal.jsonl)
+                  --virtual-threads       run workers on virtual threads""");
+    }
+
+    // Postęp na konsoli - co najwyżej jedna linia na sekundę
+    private static class ConsoleListener implements ScraperListener {
+        private static final long PRINT_INTERVAL_MILLIS = 1000;
+        private long lastPrintMillis;
+        private int linksCount;
+
+        @Override
+        public synchronized void updateUI(int jobOffersSize, int offerLinksSize, Boolean finished) {
+            linksCount = offerLinksSize;
+            print(jobOffersSize, false);
+        }
+
+        @Override
+        public synchronized void updateOffersCount(int count) {
+            print(count, false);
+        }
+
+        @Override
+        public synchronized void updateLinksCount(int count) {
+            linksCount = count;
+        }
+
+        @Override
+        public synchronized void finishScraping(int offersCount) {
+            print(offersCount, true);
+        }
+
+        private void print(int offersCount, boolean force) {
+            long now = System.currentTimeMillis();
+            if (force || now - lastPrintMillis >= PRINT_INTERVAL_MILLIS) {
+                lastPrintMillis = now;
+                System.out.println("[Progress] " + offersCount + " / " + linksCount + " offers");
+            }
+        }
+    }
+}
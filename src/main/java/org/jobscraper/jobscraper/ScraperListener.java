@@ -0,0 +1,15 @@
+package org.jobscraper.jobscraper;
+
+// Odbiorca informacji o postępie scrapowania - okno JavaFX albo tryb wsadowy z linii poleceń.
+// Scrapery nie zależą od JavaFX, więc mogą działać na serwerze bez wyświetlacza.
+public interface ScraperListener {
+
+    // Liczba pobranych ofert i mianownik postępu; finished != null ustawia stan zakończenia
+    void updateUI(int jobOffersSize, int offerLinksSize, Boolean finished);
+
+    void updateOffersCount(int count);
+
+    void updateLinksCount(int count);
+
+    void finishScraping(int offersCount);
+}
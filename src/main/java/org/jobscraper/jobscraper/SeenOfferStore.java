@@ -0,0 +1,198 @@
+package org.jobscraper.jobscraper;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Trwały zbiór ofert widzianych w poprzednich uruchomieniach: URL -> oferta i czas ostatniego pobrania.
+// Pozwala pominąć pobieranie szczegółów ofert, które były niedawno scrapowane.
+public class SeenOfferStore {
+    // Wpisy są trzymane przez wielokrotność czasu ponownego użycia, ale nie krócej niż 30 dni -
+    // tyle oferta pozostaje "znana" przy eksporcie tylko nowych ofert
+    static final int RETENTION_MULTIPLIER = 30;
+    static final Duration MIN_RETENTION = Duration.ofDays(30);
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // fromListing - oferta z kafelka listingu (tryb płytki), bez danych ze strony szczegółów
+    public record Entry(JobOffer offer, Instant lastScraped, boolean fromListing) {
+    }
+
+    private SeenOfferStore(Path file) {
+        this.file = file;
+    }
+
+    // Wczytanie zbioru z pliku; brak pliku oznacza pusty zbiór
+    public static SeenOfferStore load(Path file) throws IOException {
+        SeenOfferStore store = new SeenOfferStore(file);
+        if (!Files.exists(file)) {
+            return store;
+        }
+        JsonElement root;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            root = JsonParser.parseReader(reader);
+        } catch (JsonParseException e) {
+            // Uszkodzony plik nie może blokować scrapowania - zaczynamy od pustego zbioru
+            System.err.println("[SeenOfferStore] Ignoring unreadable store " + file + ": " + e.getMessage());
+            return store;
+        }
+        JsonElement offers = root.isJsonObject() ? root.getAsJsonObject().get("offers") : null;
+        if (offers == null || !offers.isJsonArray()) {
+            return store;
+        }
+        int unreadable = 0;
+        for (JsonElement element : offers.getAsJsonArray()) {
+            // Jeden uszkodzony wpis (np. lastScraped, który nie jest liczbą) nie kasuje pozostałych
+            try {
+                JsonObject json = element.getAsJsonObject();
+                JobOffer offer = offerFromJson(json);
+                if (offer.getUrl() != null) {
+                    boolean fromListing = json.has("fromListing") && json.get("fromListing").getAsBoolean();
+                    store.entries.put(offer.getUrl(), new Entry(offer, Instant.ofEpochMilli(json.get("lastScraped").getAsLong()), fromListing));
+                }
+            } catch (RuntimeException e) {
+                unreadable++;
+            }
+        }
+        if (unreadable > 0) {
+            System.err.println("[SeenOfferStore] Skipped " + unreadable + " unreadable entries in " + file);
+        }
+        return store;
+    }
+
+    // Domyślny zbiór w katalogu domowym użytkownika; null, gdy nie da się go wczytać
+    public static SeenOfferStore openDefault() {
+        Path file = Path.of(System.getProperty("user.home"), ".jobscraper", "seen-offers.json");
+        try {
+            return load(file);
+        } catch (IOException e) {
+            System.err.println("[SeenOfferStore] Incremental scraping disabled, cannot read " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Oferta pobrana nie wcześniej niż maxAge temu albo null, jeśli trzeba ją pobrać ponownie
+    public JobOffer getFresh(String url, Duration maxAge, Instant now) {
+        return getFresh(url, maxAge, now, ScrapeDepth.SHALLOW);
+    }
+
+    // Jak wyżej, ale oferta z kafelka jest zwracana tylko wtedy, gdy bieżący tryb przyjąłby ten kafelek -
+    // uruchomienie DEEP nie użyje niepełnych danych zapisanych przez uruchomienie płytkie
+    public JobOffer getFresh(String url, Duration maxAge, Instant now, ScrapeDepth depth) {
+        Entry entry = entries.get(url);
+        if (entry == null || entry.lastScraped().plus(maxAge).isBefore(now)) {
+            return null;
+        }
+        if (entry.fromListing() && !depth.acceptsTile(entry.offer())) {
+            return null;
+        }
+        return entry.offer();
+    }
+
+    public boolean contains(String url) {
+        return entries.containsKey(url);
+    }
+
+    public void record(JobOffer offer, Instant scrapedAt) {
+        record(offer, scrapedAt, false);
+    }
+
+    public void record(JobOffer offer, Instant scrapedAt, boolean fromListing) {
+        if (offer != null && offer.getUrl() != null) {
+            entries.put(offer.getUrl(), new Entry(offer, scrapedAt, fromListing));
+        }
+    }
+
+    // Usunięcie wpisów niepobieranych dłużej niż retention (oferty zwykle znikają z serwisów po kilku tygodniach);
+    // zwraca liczbę usuniętych wpisów
+    public int prune(Duration retention, Instant now) {
+        Instant cutoff = now.minus(retention);
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.lastScraped().isBefore(cutoff));
+        return before - entries.size();
+    }
+
+    // Okres przechowywania wpisów dla danego czasu ponownego użycia ofert
+    public static Duration retentionFor(Duration reuseMaxAge) {
+        Duration retention = reuseMaxAge.multipliedBy(RETENTION_MULTIPLIER);
+        return retention.compareTo(MIN_RETENTION) > 0 ? retention : MIN_RETENTION;
+    }
+
+    public boolean isFromListing(String url) {
+        Entry entry = entries.get(url);
+        return entry != null && entry.fromListing();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Zapis do pliku tymczasowego i podmiana - przerwany zapis nie psuje poprzedniej wersji
+    public void save() throws IOException {
+        JsonArray offers = new JsonArray();
+        for (Entry entry : entries.values()) {
+            JsonObject json = offerToJson(entry.offer());
+            json.addProperty("lastScraped", entry.lastScraped().toEpochMilli());
+            if (entry.fromListing()) {
+                json.addProperty("fromListing", true);
+            }
+            offers.add(json);
+        }
+        JsonObject root = new JsonObject();
+        root.add("offers", offers);
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "seen-offers", ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(root.toString());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Pola oferty w JSON - ten sam zapis w ScrapeJournal
+    static JsonObject offerToJson(JobOffer offer) {
+        JsonObject json = new JsonObject();
+        json.addProperty("url", offer.getUrl());
+        json.addProperty("title", offer.getTitle());
+        json.addProperty("company", offer.getCompany());
+        json.addProperty("salary", offer.getSalary());
+        json.addProperty("location", offer.getLocation());
+        json.addProperty("typeOfWork", offer.getTypeOfWork());
+        json.addProperty("experience", offer.getExperience());
+        json.addProperty("operatingMode", offer.getOperatingMode());
+        return json;
+    }
+
+    static JobOffer offerFromJson(JsonObject json) {
+        return new JobOffer(
+                string(json, "title"),
+                string(json, "company"),
+                string(json, "salary"),
+                string(json, "location"),
+                string(json, "url"),
+                string(json, "typeOfWork"),
+                string(json, "experience"),
+                string(json, "operatingMode"));
+    }
+
+    private static String string(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+}
@@ -0,0 +1,81 @@
+package org.jobscraper.jobscraper;
+
+import java.time.Duration;
+
+// Wygładzone (EWMA) tempo pobierania ofert i szacowany czas do końca.
+// Waga nowej próbki zależy od czasu, jaki upłynął od poprzedniej, więc nieregularne próbkowanie nie zaburza średniej.
+public class ThroughputEstimator {
+    public static final Duration DEFAULT_TIME_CONSTANT = Duration.ofSeconds(10);
+    private static final double MIN_RATE = 1e-6; // Poniżej tego tempa ETA nie ma sensu
+
+    private final double timeConstantSeconds;
+    private long lastNanos = -1;
+    private int lastCount;
+    private double rate; // ofert na sekundę
+    private boolean hasRate;
+
+    public ThroughputEstimator() {
+        this(DEFAULT_TIME_CONSTANT);
+    }
+
+    public ThroughputEstimator(Duration timeConstant) {
+        this.timeConstantSeconds = timeConstant.toNanos() / 1_000_000_000.0;
+    }
+
+    // Próbka: łączna liczba pobranych ofert w danej chwili (System.nanoTime())
+    public synchronized void update(int completed, long nanoTime) {
+        if (lastNanos < 0 || completed < lastCount) {
+            lastNanos = nanoTime;
+            lastCount = completed;
+            return;
+        }
+        double elapsedSeconds = (nanoTime - lastNanos) / 1_000_000_000.0;
+        if (elapsedSeconds <= 0) {
+            return;
+        }
+        double instantRate = (completed - lastCount) / elapsedSeconds;
+        if (!hasRate) {
+            rate = instantRate;
+            hasRate = true;
+        } else {
+            double alpha = 1.0 - Math.exp(-elapsedSeconds / timeConstantSeconds);
+            rate += alpha * (instantRate - rate);
+        }
+        lastNanos = nanoTime;
+        lastCount = completed;
+    }
+
+    public synchronized double ratePerSecond() {
+        return hasRate ? rate : 0.0;
+    }
+
+    // Szacowany czas do pobrania pozostałych ofert; null, gdy tempo nie jest jeszcze znane
+    public synchronized Duration estimateRemaining(int remaining) {
+        if (remaining <= 0) {
+            return Duration.ZERO;
+        }
+        if (!hasRate || rate < MIN_RATE) {
+            return null;
+        }
+        return Duration.ofMillis((long) (remaining / rate * 1000));
+    }
+
+    public synchronized void reset() {
+        lastNanos = -1;
+        lastCount = 0;
+        rate = 0;
+        hasRate = false;
+    }
+
+    // Czas w formacie 1h 05m / 4m 07s / 12s
+    public static String format(Duration duration) {
+        long seconds = duration.toSeconds();
+        if (seconds >= 3600) {
+            return String.format("%dh %02dm", seconds / 3600, (seconds % 3600) / 60);
+        }
+        if (seconds >= 60) {
+            return String.format("%dm %02ds", seconds / 60, seconds % 60);
+        }
+        return seconds + "s";
+    }
+}
@@ -1,71 +1,327 @@
 package org.jobscraper.jobscraper;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+// Wspólna pula sesji przeglądarki - sesje są tworzone leniwie, sprawdzane przed wypożyczeniem,
+// czyszczone po każdej stronie i wymieniane po określonej liczbie stron albo po awarii
 public class WebDriverPool {
-    private final Queue<WebDriver> drivers;
-    private final Semaphore semaphore;
     private static final int DEFAULT_POOL_SIZE = 3;
+    private static final int DEFAULT_MAX_PAGES_PER_DRIVER = 50;
+    private static final long GOVERNOR_WAIT_MILLIS = 250; // Co tyle ponawiana prośba o nową przeglądarkę
+    private static final long GOVERNOR_TIMEOUT_SECONDS = 120; // Dłużej bez zgody na przeglądarkę - błąd zamiast czekania bez końca
+
+    private final BlockingQueue<WebDriver> idleDrivers = new LinkedBlockingQueue<>();
+    private final Map<WebDriver, AtomicInteger> pagesServed = new ConcurrentHashMap<>(); // Liczba stron obsłużonych przez każdą sesję
+    private final Map<WebDriver, Long> borrowedAt = new ConcurrentHashMap<>(); // Moment wypożyczenia (System.nanoTime)
+    private final Semaphore semaphore;
+    private final int maxPagesPerDriver;
     private volatile boolean isShutdown = false;
+    private static volatile boolean driverBinaryReady = false; // chromedriver pobierany dopiero przed pierwszą sesją
+    private volatile RequestBlocker requestBlocker; // null - strony ładują wszystkie zasoby
+    private volatile ResourceGovernor governor; // null - sesje tworzone bez sprawdzania wolnej pamięci
+
+    // Statystyki puli
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final AtomicLong returnCount = new AtomicLong();
+    private final AtomicLong returnNanos = new AtomicLong();
+    private final AtomicLong holdNanos = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong recycledCount = new AtomicLong();
+    private final AtomicLong crashedCount = new AtomicLong();
 
     public WebDriverPool() {
         this(DEFAULT_POOL_SIZE);
     }
 
     public WebDriverPool(int poolSize) {
-        this.drivers = new ConcurrentLinkedQueue<>();
-        this.semaphore = new Semaphore(poolSize);
-        initializePool(poolSize);
+        this(poolSize, DEFAULT_MAX_PAGES_PER_DRIVER);
+    }
+
+    public WebDriverPool(int poolSize, int maxPagesPerDriver) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + poolSize);
+        }
+        this.semaphore = new Semaphore(poolSize, true);
+        this.maxPagesPerDriver = maxPagesPerDriver;
+    }
+
+    // Blokowanie zbędnych zasobów w sesjach; ustawiane przed pierwszym wypożyczeniem
+    public void setRequestBlocker(RequestBlocker requestBlocker) {
+        this.requestBlocker = requestBlocker;
+    }
+
+    public RequestBlocker getRequestBlocker() {
+        return requestBlocker;
+    }
+
+    // Zgoda na każdą nową przeglądarkę; ustawiane przed pierwszym wypożyczeniem
+    public void setResourceGovernor(ResourceGovernor governor) {
+        this.governor = governor;
+        if (governor != null) {
+            governor.addIdleBrowserReclaimer(this, this::closeIdleDrivers);
+        }
     }
 
-    private void initializePool(int size) {
-        WebDriverManager.chromedriver().setup();
-        for (int i = 0; i < size; i++) {
-            drivers.offer(createDriver());
+    // Ustalenie wersji i pobranie chromedriver wymaga sieci - robimy to tylko wtedy, gdy przeglądarka jest naprawdę potrzebna
+    static void ensureDriverBinary() {
+        if (!driverBinaryReady) {
+            synchronized (WebDriverPool.class) {
+                if (!driverBinaryReady) {
+                    WebDriverManager.chromedriver().setup();
+                    driverBinaryReady = true;
+                }
+            }
         }
     }
 
     private WebDriver createDriver() {
+        ensureDriverBinary();
         ChromeOptions options = new ChromeOptions();
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--headless");
+        options.addArguments("--disable-dev-shm-usage"); // dla stabilności
+        options.addArguments("--no-sandbox"); // dla stabilności
+        options.addArguments("--headless"); // zaoszczędzenie zasobów
+        // get() wraca po DOMContentLoaded - na pola oferty i tak czekają BrowserWaits, bez czekania na obrazy i skrypty reklam
+        options.setPageLoadStrategy(PageLoadStrategy.EAGER);
 
         WebDriver driver = new ChromeDriver(options);
-        driver.manage().timeouts().pageLoadTimeout(30, TimeUnit.SECONDS);
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
+        createdCount.incrementAndGet();
         return driver;
     }
 
+    // Wypożyczenie sesji - blokuje, dopóki któraś z sesji nie będzie wolna
     public WebDriver borrowDriver() throws InterruptedException {
+        return borrowDriver(null);
+    }
+
+    // Wypożyczenie sesji z regułami blokowania zasobów dla danego profilu (np. RequestBlocker.PRACUJ_DETAIL);
+    // null - bez blokowania
+    public WebDriver borrowDriver(String blockingProfile) throws InterruptedException {
         if (isShutdown) {
             throw new IllegalStateException("Pool is shutdown");
         }
+        long waitStart = System.nanoTime();
         semaphore.acquire();
-        WebDriver driver = drivers.poll();
-        if (driver == null) {
+        long waited = System.nanoTime() - waitStart;
+        borrowCount.incrementAndGet();
+        borrowWaitNanos.addAndGet(waited);
+        maxBorrowWaitNanos.accumulateAndGet(waited, Math::max);
+
+        try {
+            WebDriver driver = null;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(GOVERNOR_TIMEOUT_SECONDS);
+            while (driver == null) {
+                if (isShutdown) {
+                    throw new IllegalStateException("Pool is shutdown");
+                }
+                driver = pollHealthy(0);
+                if (driver == null) {
+                    ResourceGovernor resources = governor;
+                    if (resources == null || resources.tryAcquireBrowser()
+                            || (resources.reclaimIdleBrowsers(this) && resources.tryAcquireBrowser())) {
+                        driver = createGoverned(resources);
+                    } else if (System.nanoTime() - deadline > 0) {
+                        throw new IllegalStateException("No browser allowed by the resource governor within " + GOVERNOR_TIMEOUT_SECONDS + " s");
+                    } else {
+                        // Nowa przeglądarka nie zmieści się w pamięci - czekamy na zwrot którejś z działających
+                        driver = pollHealthy(GOVERNOR_WAIT_MILLIS);
+                    }
+                }
+            }
+            RequestBlocker blocker = requestBlocker;
+            if (blocker != null) {
+                blocker.apply(driver, blockingProfile);
+            }
+            borrowedAt.put(driver, System.nanoTime());
+            return driver;
+        } catch (RuntimeException | InterruptedException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    // Wolna, sprawna sesja z puli (czekając najwyżej timeoutMillis) albo null
+    private WebDriver pollHealthy(long timeoutMillis) throws InterruptedException {
+        WebDriver driver;
+        while ((driver = idleDrivers.poll(timeoutMillis, TimeUnit.MILLISECONDS)) != null) {
+            if (isHealthy(driver)) {
+                return driver;
+            }
+            // Sesja padła w trakcie bezczynności - wymieniamy ją na nową
+            crashedCount.incrementAndGet();
+            discard(driver);
+        }
+        return null;
+    }
+
+    private WebDriver createGoverned(ResourceGovernor resources) {
+        WebDriver driver;
+        try {
             driver = createDriver();
+        } catch (RuntimeException e) {
+            if (resources != null) {
+                resources.releaseBrowser();
+            }
+            throw e;
         }
+        pagesServed.put(driver, new AtomicInteger());
         return driver;
     }
 
+    // Zwrot sprawnej sesji po obsłużeniu strony
     public void returnDriver(WebDriver driver) {
-        if (driver != null && !isShutdown) {
-            drivers.offer(driver);
+        release(driver, false);
+    }
+
+    // Zwrot sesji, która uległa awarii - zostanie zamknięta, a jej miejsce zajmie nowa
+    public void invalidateDriver(WebDriver driver) {
+        release(driver, true);
+    }
+
+    private void release(WebDriver driver, boolean crashed) {
+        if (driver == null) {
+            return;
+        }
+        Long since = borrowedAt.remove(driver);
+        if (since == null) {
+            return; // Sesja nie pochodzi z tej puli albo została już zwrócona
+        }
+        long returnStart = System.nanoTime();
+        holdNanos.addAndGet(returnStart - since);
+        try {
+            AtomicInteger pages = pagesServed.get(driver);
+            int served = pages != null ? pages.incrementAndGet() : Integer.MAX_VALUE;
+            if (isShutdown) {
+                discard(driver);
+            } else if (crashed) {
+                crashedCount.incrementAndGet();
+                discard(driver);
+            } else if (served >= maxPagesPerDriver || (governor != null && governor.shouldRetireBrowser())) {
+                // Limit stron albo brak pamięci na tyle przeglądarek naraz
+                recycledCount.incrementAndGet();
+                discard(driver);
+            } else if (resetState(driver)) {
+                idleDrivers.offer(driver);
+            } else {
+                crashedCount.incrementAndGet();
+                discard(driver);
+            }
+        } finally {
+            returnCount.incrementAndGet();
+            returnNanos.addAndGet(System.nanoTime() - returnStart);
             semaphore.release();
         }
     }
 
+    // Czyszczenie stanu między stronami: ciasteczka, storage i pusta karta
+    private boolean resetState(WebDriver driver) {
+        try {
+            driver.manage().deleteAllCookies();
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.err.println("[WebDriverPool] Failed to reset driver state: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void discard(WebDriver driver) {
+        boolean governed = pagesServed.remove(driver) != null;
+        RequestBlocker blocker = requestBlocker;
+        if (blocker != null) {
+            blocker.release(driver);
+        }
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("[WebDriverPool] Error closing driver: " + e.getMessage());
+        }
+        ResourceGovernor resources = governor;
+        if (governed && resources != null) {
+            resources.releaseBrowser();
+        }
+    }
+
+    public Stats getStats() {
+        long borrows = borrowCount.get();
+        long returns = returnCount.get();
+        return new Stats(
+                borrows,
+                returns,
+                borrows == 0 ? 0 : borrowWaitNanos.get() / borrows / 1_000_000.0,
+                maxBorrowWaitNanos.get() / 1_000_000.0,
+                returns == 0 ? 0 : returnNanos.get() / returns / 1_000_000.0,
+                returns == 0 ? 0 : holdNanos.get() / returns / 1_000_000.0,
+                createdCount.get(),
+                recycledCount.get(),
+                crashedCount.get(),
+                idleDrivers.size()
+        );
+    }
+
+    // Zamknięcie bezczynnych sesji na prośbę ResourceGovernor, gdy inna pula nie może uruchomić przeglądarki
+    private boolean closeIdleDrivers() {
+        boolean closed = false;
+        WebDriver driver;
+        while ((driver = idleDrivers.poll()) != null) {
+            recycledCount.incrementAndGet();
+            discard(driver);
+            closed = true;
+        }
+        return closed;
+    }
+
     public void shutdown() {
         isShutdown = true;
-        drivers.forEach(WebDriver::quit);
-        drivers.clear();
+        ResourceGovernor resources = governor;
+        if (resources != null) {
+            resources.removeIdleBrowserReclaimer(this);
+        }
+        WebDriver driver;
+        while ((driver = idleDrivers.poll()) != null) {
+            discard(driver);
+        }
+        // Wypożyczone sesje zostaną zamknięte przy zwrocie
+    }
+
+    // Migawka statystyk puli; czasy w milisekundach
+    public record Stats(long borrows, long returns, double avgBorrowWaitMs, double maxBorrowWaitMs,
+                        double avgReturnMs, double avgHoldMs, long created, long recycled,
+                        long crashed, int idle) {
+        @Override
+        public String toString() {
+            return String.format("borrows=%d, returns=%d, avgBorrowWait=%.1fms, maxBorrowWait=%.1fms, " +
+                            "avgReturn=%.1fms, avgHold=%.1fms, created=%d, recycled=%d, crashed=%d, idle=%d",
+                    borrows, returns, avgBorrowWaitMs, maxBorrowWaitMs, avgReturnMs, avgHoldMs,
+                    created, recycled, crashed, idle);
+        }
     }
-}
\ No newline at end of file
+}
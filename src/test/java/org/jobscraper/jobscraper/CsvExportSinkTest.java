@@ -0,0 +1,46 @@
+package org.jobscraper.jobscraper;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvExportSinkTest {
+
+    @Test
+    void testRowsAreEscapedAndNullSafe() throws IOException, CsvException {
+        StringWriter out = new StringWriter();
+        try (CsvExportSink sink = new CsvExportSink(out, 10)) {
+            sink.write(new JobOffer("Senior \"Java\" Developer", "Acme, Inc.", null, "Kraków\nRemote",
+                    "https://example.com/1", "B2B", null, "Hybrid"));
+        }
+
+        List<String[]> rows = new CSVReader(new StringReader(out.toString())).readAll();
+        assertEquals(2, rows.size());
+        assertArrayEquals(CsvExportSink.HEADER, rows.get(0));
+        assertArrayEquals(new String[]{"Senior \"Java\" Developer", "Acme, Inc.", "", "Kraków\nRemote",
+                "B2B", "", "Hybrid", "https://example.com/1"}, rows.get(1));
+    }
+
+    @Test
+    void testRowsAreFlushedInBatches() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvExportSink sink = new CsvExportSink(out, 2);
+        JobOffer offer = new JobOffer("Title", "Company", "Salary", "Location", "https://example.com/1", "B2B", "Mid", "Remote");
+
+        sink.write(offer);
+        assertEquals("", out.toString()); // Nagłówek i pierwszy wiersz wciąż w buforze
+        sink.write(offer);
+        assertEquals(3, out.toString().lines().count());
+
+        sink.close();
+        sink.write(offer); // Po zamknięciu wiersze są ignorowane
+        assertEquals(2, sink.getRowsWritten());
+    }
+}
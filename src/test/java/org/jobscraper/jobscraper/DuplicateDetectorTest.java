@@ -0,0 +1,81 @@
+package org.jobscraper.jobscraper;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DuplicateDetectorTest {
+
+    private Document loadFixture(String name, String url) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("fixtures/" + name)) {
+            assertNotNull(in, "Brak pliku testowego " + name);
+            return Jsoup.parse(in, "UTF-8", url);
+        }
+    }
+
+    @Test
+    void testSameOfferOnBothSitesIsDetectedFromListingTiles() throws IOException {
+        DuplicateDetector detector = new DuplicateDetector();
+        Document justJoin = loadFixture("justjoin-listing.html", "https://justjoin.it/job-offers/krakow?keyword=java");
+        for (JobOffer tile : JustJoinItListingParser.parse(justJoin).offers()) {
+            assertNull(detector.register("justjoin", tile.getUrl(), tile.getTitle(), tile.getCompany(), tile.getLocation()));
+        }
+
+        // "Example Sp. z o.o." / "Kraków" i "ACME S.A." / "Kraków, Podgórze" z Pracuj.pl to oferty z JustJoin.it
+        Document pracuj = loadFixture("pracuj-listing.html", "https://www.pracuj.pl/praca/java;kw/krakow;wp?rd=0");
+        int duplicates = 0;
+        for (Element link : pracuj.select("a.tiles_cnb3rfy.core_n194fgoq")) {
+            JobOffer tile = PracujPlScraper.parseTile(link, link.absUrl("href"));
+            if (detector.register("pracuj", tile.getUrl(), tile.getTitle(), tile.getCompany(), tile.getLocation()) != null) {
+                duplicates++;
+            }
+        }
+
+        assertEquals(2, duplicates);
+        assertEquals(2, detector.getDuplicates());
+        assertEquals(List.of("https://www.pracuj.pl/praca/java-developer-krakow,oferta,1000000001"),
+                detector.alternateUrls("https://justjoin.it/job-offer/example-java-developer-krakow-java"));
+        // Ponowna rejestracja tego samego linku zwraca ten sam wynik i nie liczy się drugi raz
+        assertEquals("https://justjoin.it/job-offer/example-java-developer-krakow-java",
+                detector.register("pracuj", "https://www.pracuj.pl/praca/java-developer-krakow,oferta,1000000001", "Java Developer", "Example", "Kraków"));
+        assertEquals(2, detector.getDuplicates());
+    }
+
+    @Test
+    void testDifferentOffersAreKept() {
+        DuplicateDetector detector = new DuplicateDetector();
+        assertNull(detector.register("justjoin", "https://justjoin.it/job-offer/1", "Java Developer", "Example", "Kraków"));
+
+        // Ten sam serwis, inny poziom, inna technologia, inne miasto, inna firma, inny numer w tytule
+        assertNull(detector.register("justjoin", "https://justjoin.it/job-offer/2", "Java Developer", "Example", "Kraków"));
+        assertNull(detector.register("pracuj", "https://www.pracuj.pl/praca/a,oferta,1", "Senior Java Developer", "Example", "Kraków"));
+        assertNull(detector.register("pracuj", "https://www.pracuj.pl/praca/a,oferta,2", "Frontend Developer", "Example", "Kraków"));
+        assertNull(detector.register("pracuj", "https://www.pracuj.pl/praca/a,oferta,3", "Java Developer", "Example", "Warszawa"));
+        assertNull(detector.register("pracuj", "https://www.pracuj.pl/praca/a,oferta,4", "Java Developer", "Other", "Kraków"));
+        assertNull(detector.register("pracuj", "https://www.pracuj.pl/praca/a,oferta,5", "Java Developer 17", "Example", "Kraków"));
+        // Brak firmy - bez porównania
+        assertNull(detector.register("pracuj", "https://www.pracuj.pl/praca/a,oferta,6", "Java Developer", "Brak firmy", "Kraków"));
+        assertEquals(0, detector.getDuplicates());
+
+        // Polski tytuł z oznaczeniem płci i forma prawna w nazwie firmy
+        assertEquals("https://justjoin.it/job-offer/1", detector.register("pracuj", "https://www.pracuj.pl/praca/a,oferta,7",
+                "Programista Java (K/M)", "EXAMPLE sp. z o.o.", "Kraków (Stare Miasto)"));
+    }
+
+    @Test
+    void testNormalization() {
+        assertEquals("example", DuplicateDetector.normalizeCompany("Example Sp. z o.o."));
+        assertEquals("acme", DuplicateDetector.normalizeCompany("ACME S.A."));
+        assertEquals("bank polski", DuplicateDetector.normalizeCompany("Bank Polski SA"));
+        assertEquals("krakow", DuplicateDetector.normalizeCity("Kraków, Podgórze"));
+        assertEquals(List.of("developer", "java", "junior"), DuplicateDetector.titleTokens("Młodszy programista Java (k/m/x)"));
+        assertNull(DuplicateDetector.fingerprint("Java Developer", "Example", "No data"));
+    }
+}
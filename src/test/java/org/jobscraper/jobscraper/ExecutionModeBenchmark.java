@@ -0,0 +1,81 @@
+package org.jobscraper.jobscraper;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Porównanie przepustowości (oferty/s) stałej puli wątków i wątków wirtualnych na tych samych stronach testowych.
+// Opóźnienie sieci jest symulowane, limit żądań jest taki sam dla obu trybów.
+// Uruchomienie: mvn test -Dtest=ExecutionModeBenchmark -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ExecutionModeBenchmark {
+    private static final int OFFERS = 300;
+    private static final long LATENCY_MILLIS = 250;
+    private static final double HOST_RATE = 100.0; // żądań na sekundę
+    private static final int FIXED_POOL_SIZE = 5;
+
+    private String loadFixture() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("fixtures/pracuj-offer.html")) {
+            assertNotNull(in);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private double offersPerSecond(ExecutionMode mode, String html) throws InterruptedException {
+        RateLimitedDispatcher dispatcher = new RateLimitedDispatcher(new HostRateLimiter(HOST_RATE, 1.0, HOST_RATE, 60000));
+        ExecutorService executor = mode.newWorkerExecutor(FIXED_POOL_SIZE);
+        CountDownLatch done = new CountDownLatch(OFFERS);
+        AtomicInteger parsed = new AtomicInteger();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < OFFERS; i++) {
+            String url = "https://www.pracuj.pl/praca/oferta," + i;
+            // Ta sama ścieżka co w Scraper: kolejka hosta, token pobierany przy przekazaniu zadania do puli
+            dispatcher.execute(url, () -> {
+                try {
+                    Thread.sleep(LATENCY_MILLIS); // Symulacja oczekiwania na odpowiedź serwera
+                    if (PracujPlScraper.parseOfferDetails(Jsoup.parse(html, url), url) != null) {
+                        parsed.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, executor);
+        }
+        assertTrue(done.await(2, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        dispatcher.shutdown();
+        executor.shutdown();
+        assertEquals(OFFERS, parsed.get());
+        return OFFERS / seconds;
+    }
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        String html = loadFixture();
+        offersPerSecond(ExecutionMode.VIRTUAL_THREADS, html); // Rozgrzewka JIT
+
+        double fixed = offersPerSecond(ExecutionMode.FIXED_POOL, html);
+        double virtual = offersPerSecond(ExecutionMode.VIRTUAL_THREADS, html);
+
+        System.out.printf("[Benchmark] %d offers, %d ms latency, %.0f req/s host limit%n", OFFERS, LATENCY_MILLIS, HOST_RATE);
+        System.out.printf("[Benchmark] FIXED_POOL(%d):   %.1f offers/s%n", FIXED_POOL_SIZE, fixed);
+        System.out.printf("[Benchmark] VIRTUAL_THREADS: %.1f offers/s%n", virtual);
+
+        // Przy I/O-bound pracy wątki wirtualne powinny dojść do limitu hosta, a stała pula nie
+        assertTrue(virtual > fixed);
+    }
+}
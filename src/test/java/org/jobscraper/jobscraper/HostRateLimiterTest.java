@@ -0,0 +1,79 @@
+package org.jobscraper.jobscraper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HostRateLimiterTest {
+
+    @Test
+    void testTryAcquireDoesNotBookAhead() {
+        HostRateLimiter limiter = new HostRateLimiter(1.0, 0.1, 4.0, 8000);
+
+        assertEquals(0, limiter.tryAcquire("pracuj.pl"));
+        // Brak tokena - czas oczekiwania, ale bez rezerwacji: kolejne pytanie zwraca ten sam czas, a nie dłuższy
+        long first = limiter.tryAcquire("pracuj.pl");
+        long second = limiter.tryAcquire("pracuj.pl");
+        assertTrue(first > TimeUnit.MILLISECONDS.toNanos(900), "first=" + first);
+        assertTrue(second <= first, "second=" + second);
+
+        // Spowolnienie po 429 wydłuża czekanie żądań, które jeszcze nie dostały tokena
+        limiter.onResponse("pracuj.pl", 429, 300);
+        assertTrue(limiter.tryAcquire("pracuj.pl") > TimeUnit.MILLISECONDS.toNanos(1900));
+
+        // Inny host ma własny limit
+        assertEquals(0, limiter.tryAcquire("justjoin.it"));
+    }
+
+    @Test
+    void testAimdAdjustsRate() {
+        HostRateLimiter limiter = new HostRateLimiter(1.0, 0.1, 4.0, 8000);
+
+        limiter.onResponse("pracuj.pl", 200, 300);
+        limiter.onResponse("pracuj.pl", 200, 300);
+        assertEquals(1.1, limiter.getRate("pracuj.pl"), 1e-9);
+
+        // 429, 5xx i zbyt wolna odpowiedź zmniejszają tempo o połowę
+        limiter.onResponse("pracuj.pl", 429, 300);
+        assertEquals(0.55, limiter.getRate("pracuj.pl"), 1e-9);
+        limiter.onResponse("pracuj.pl", 503, 300);
+        assertEquals(0.275, limiter.getRate("pracuj.pl"), 1e-9);
+        limiter.onResponse("pracuj.pl", 200, 20000);
+        assertEquals(0.1375, limiter.getRate("pracuj.pl"), 1e-9);
+
+        // Tempo nie spada poniżej minimum
+        limiter.onFailure("pracuj.pl");
+        assertEquals(0.1, limiter.getRate("pracuj.pl"), 1e-9);
+    }
+
+    @Test
+    void testRateDoesNotExceedMaximum() {
+        HostRateLimiter limiter = new HostRateLimiter(1.0, 0.1, 1.2, 8000);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onResponse("justjoin.it", 200, 100);
+        }
+
+        assertEquals(1.2, limiter.getRate("justjoin.it"), 1e-9);
+        assertEquals(1, limiter.getRates().size());
+    }
+
+    @Test
+    void testHostOf() {
+        assertEquals("pracuj.pl", HostRateLimiter.hostOf("https://www.pracuj.pl/praca/java;kw"));
+        assertEquals("it.pracuj.pl", HostRateLimiter.hostOf("https://it.pracuj.pl/praca"));
+        assertEquals("justjoin.it", HostRateLimiter.hostOf("https://justjoin.it/job-offer/x"));
+        assertEquals("", HostRateLimiter.hostOf("not a url"));
+    }
+
+    @Test
+    void testSameSiteIncludesSubdomainsAndPort() {
+        assertTrue(HostRateLimiter.isSameSite("https://it.pracuj.pl/praca/java,oferta,1", "https://www.pracuj.pl/praca/"));
+        assertTrue(HostRateLimiter.isSameSite("https://www.pracuj.pl/praca/java,oferta,1", "https://pracuj.pl/praca/"));
+        assertFalse(HostRateLimiter.isSameSite("https://notpracuj.pl/praca/", "https://www.pracuj.pl/praca/"));
+        assertTrue(HostRateLimiter.isSameSite("http://127.0.0.1:8081/job-offer/a", "http://127.0.0.1:8081/job-offers/"));
+        assertFalse(HostRateLimiter.isSameSite("http://127.0.0.1:8082/job-offer/a", "http://127.0.0.1:8081/job-offers/"));
+    }
+}
@@ -0,0 +1,96 @@
+package org.jobscraper.jobscraper;
+
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpCacheTest {
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpCache newCache(long maxBytes) throws IOException {
+        return new HttpCache(cacheDir, maxBytes, HttpCache.defaultTtls(), HttpCache.DEFAULT_TTL, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testCanonicalUrlIgnoresHostCaseParamOrderAndFragment() {
+        assertEquals(HttpCache.canonicalUrl("https://www.pracuj.pl/praca/java;kw?wm=home-office&et=17#top"),
+                HttpCache.canonicalUrl("HTTPS://WWW.Pracuj.pl:443/praca/java;kw?et=17&wm=home-office"));
+        assertNotEquals(HttpCache.canonicalUrl("https://justjoin.it/job-offers/all-locations/java?page=1"),
+                HttpCache.canonicalUrl("https://justjoin.it/job-offers/all-locations/java?page=2"));
+    }
+
+    @Test
+    void testStoredEntryIsReadBackWithValidators() throws IOException {
+        HttpCache cache = newCache(HttpCache.DEFAULT_MAX_BYTES);
+        cache.store("https://example.com/offer?id=1", "https://example.com/offer?id=1",
+                "<html><body><h1>Java Developer</h1></body></html>".getBytes(StandardCharsets.UTF_8),
+                "text/html; charset=UTF-8", "UTF-8", "\"abc123\"", "Wed, 01 May 2024 08:00:00 GMT");
+
+        HttpCache.CachedResponse cached = cache.lookup("https://EXAMPLE.com/offer?id=1#apply");
+        assertNotNull(cached);
+        assertEquals("\"abc123\"", cached.etag());
+        assertEquals("Wed, 01 May 2024 08:00:00 GMT", cached.lastModified());
+
+        Document doc = cached.toDocument();
+        assertEquals("Java Developer", doc.selectFirst("h1").text());
+        assertEquals("https://example.com/offer?id=1", doc.location());
+
+        // Wpis przetrwał ponowne otwarcie cache
+        assertNotNull(newCache(HttpCache.DEFAULT_MAX_BYTES).lookup("https://example.com/offer?id=1"));
+    }
+
+    @Test
+    void testFreshnessDependsOnContentType() throws IOException {
+        HttpCache cache = newCache(HttpCache.DEFAULT_MAX_BYTES);
+        cache.store("https://example.com/page", null, new byte[]{1}, "text/html", null, null, null);
+        cache.store("https://example.com/data", null, new byte[]{1}, "application/json", null, null, null);
+
+        HttpCache.CachedResponse page = cache.lookup("https://example.com/page");
+        HttpCache.CachedResponse data = cache.lookup("https://example.com/data");
+        assertTrue(page.isFresh(NOW.plus(Duration.ofMinutes(20))));
+        assertFalse(data.isFresh(NOW.plus(Duration.ofMinutes(20))));
+        assertFalse(page.isFresh(NOW.plus(Duration.ofMinutes(31))));
+        assertEquals(Duration.ofDays(7), cache.ttlFor("image/png"));
+        assertEquals(HttpCache.DEFAULT_TTL, cache.ttlFor("application/octet-stream"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntriesAreEvictedOverSizeLimit() throws IOException {
+        HttpCache cache = newCache(250);
+        byte[] body = new byte[100];
+        cache.store("https://example.com/1", null, body, "text/html", null, null, null);
+        cache.store("https://example.com/2", null, body, "text/html", null, null, null);
+        assertNotNull(cache.lookup("https://example.com/1")); // 1 staje się ostatnio używanym
+
+        cache.store("https://example.com/3", null, body, "text/html", null, null, null);
+
+        assertEquals(2, cache.size());
+        assertEquals(200, cache.getTotalBytes());
+        assertNull(cache.lookup("https://example.com/2"));
+        assertNotNull(cache.lookup("https://example.com/1"));
+        assertNotNull(cache.lookup("https://example.com/3"));
+    }
+
+    @Test
+    void testCustomTtlOverridesDefaults() throws IOException {
+        HttpCache cache = new HttpCache(cacheDir, HttpCache.DEFAULT_MAX_BYTES, Map.of("text/html", Duration.ZERO),
+                HttpCache.DEFAULT_TTL, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.store("https://example.com/page", null, new byte[]{1}, "text/html", null, null, null);
+
+        assertFalse(cache.lookup("https://example.com/page").isFresh(NOW)); // Zawsze rewalidowany
+    }
+}
@@ -0,0 +1,71 @@
+package org.jobscraper.jobscraper;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JustJoinItListingParserTest {
+
+    private Document loadFixture(String name) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("fixtures/" + name)) {
+            assertNotNull(in, "Brak pliku testowego " + name);
+            return Jsoup.parse(in, "UTF-8", "https://justjoin.it/job-offers/krakow?keyword=java");
+        }
+    }
+
+    @Test
+    void testParseEmbeddedOffers() throws IOException {
+        JustJoinItListingParser.Listing listing = JustJoinItListingParser.parse(loadFixture("justjoin-listing.html"));
+
+        // Powtórzona oferta powinna zostać pominięta
+        List<JobOffer> offers = listing.offers();
+        assertEquals(2, offers.size());
+        assertEquals(2, listing.totalPages());
+        assertEquals(3, listing.totalItems());
+
+        JobOffer first = offers.get(0);
+        assertEquals("https://justjoin.it/job-offer/example-java-developer-krakow-java", first.getUrl());
+        assertEquals("Java Developer", first.getTitle());
+        assertEquals("Example", first.getCompany());
+        assertEquals("Kraków", first.getLocation());
+        assertEquals("18000 - 24000 PLN/month net", first.getSalary());
+        assertEquals("b2b, permanent", first.getTypeOfWork());
+        assertEquals("mid", first.getExperience());
+        assertEquals("hybrid", first.getOperatingMode());
+
+        JobOffer second = offers.get(1);
+        assertEquals("Undisclosed Salary", second.getSalary());
+        assertEquals("remote", second.getOperatingMode());
+    }
+
+    @Test
+    void testParsePageWithoutEmbeddedData() {
+        Document doc = Jsoup.parse("<html><body><script>window.x = 1;</script></body></html>");
+
+        JustJoinItListingParser.Listing listing = JustJoinItListingParser.parse(doc);
+
+        assertTrue(listing.offers().isEmpty());
+        assertEquals(0, listing.totalPages());
+    }
+
+    @Test
+    void testAddListingOffersFeedsSharedLinks() throws IOException {
+        LinkFrontier frontier = new LinkFrontier(1);
+        JustJoinItScraper scraper = new JustJoinItScraper(new OfferResults(), "java", "krakow",
+                frontier, null, null, null);
+
+        List<JobOffer> offers = JustJoinItListingParser.parse(loadFixture("justjoin-listing.html")).offers();
+
+        assertEquals(2, scraper.addListingOffers(offers));
+        // Ponowne dodanie tych samych kafelków nie daje nowych linków
+        assertEquals(0, scraper.addListingOffers(offers));
+        assertEquals(2, frontier.size());
+        assertTrue(frontier.contains("https://justjoin.it/job-offer/acme-senior-java-engineer-krakow-java"));
+    }
+}
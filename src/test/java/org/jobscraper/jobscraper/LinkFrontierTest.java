@@ -0,0 +1,102 @@
+package org.jobscraper.jobscraper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinkFrontierTest {
+
+    @Test
+    void testAddRejectsDuplicates() throws InterruptedException {
+        LinkFrontier frontier = new LinkFrontier(1);
+
+        assertTrue(frontier.add("https://example.com/1"));
+        assertFalse(frontier.add("https://example.com/1"));
+        assertTrue(frontier.add("https://example.com/2"));
+
+        assertEquals(2, frontier.size());
+        assertEquals(2, frontier.pending());
+        assertEquals("https://example.com/1", frontier.take());
+        assertEquals(1, frontier.pending());
+    }
+
+    @Test
+    void testTakeReturnsNullAfterAllProducersFinished() throws InterruptedException {
+        LinkFrontier frontier = new LinkFrontier(2);
+        frontier.add("https://example.com/1");
+
+        frontier.producerFinished();
+        assertFalse(frontier.isClosed());
+        frontier.producerFinished();
+        assertTrue(frontier.isClosed());
+
+        // Linki dodane przed zamknięciem są nadal wydawane, potem take() zwraca null
+        assertEquals("https://example.com/1", frontier.take());
+        assertNull(frontier.take());
+        assertNull(frontier.take());
+        assertFalse(frontier.add("https://example.com/2"));
+    }
+
+    @Test
+    void testNoProducersMeansImmediatelyComplete() throws InterruptedException {
+        LinkFrontier frontier = new LinkFrontier(0);
+
+        assertNull(frontier.take());
+    }
+
+    @Test
+    void testConsumerReceivesLinksAsTheyArrive() throws InterruptedException {
+        LinkFrontier frontier = new LinkFrontier(1);
+        List<String> received = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        Thread consumer = new Thread(() -> {
+            try {
+                String link;
+                while ((link = frontier.take()) != null) {
+                    received.add(link);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+        consumer.start();
+
+        for (int i = 0; i < 100; i++) {
+            frontier.add("https://example.com/" + i);
+        }
+        frontier.producerFinished();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(100, received.size());
+    }
+
+    @Test
+    void testSkippedLinksReduceExpectedCount() {
+        LinkFrontier frontier = new LinkFrontier(2);
+        frontier.addExpected(10);
+        frontier.addExpected(5);
+        frontier.removeExpected(3);
+        assertEquals(12, frontier.expectedSize());
+        frontier.removeExpected(20);
+        assertEquals(0, frontier.expectedSize());
+    }
+
+    @Test
+    void testCancelDropsPendingLinks() throws InterruptedException {
+        LinkFrontier frontier = new LinkFrontier(1);
+        frontier.add("https://example.com/1");
+        frontier.add("https://example.com/2");
+
+        frontier.cancel();
+
+        assertNull(frontier.take());
+        assertEquals(0, frontier.pending());
+    }
+}
@@ -0,0 +1,73 @@
+package org.jobscraper.jobscraper;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    void testCountersAreKeyedByLabels() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.failure("pracuj", new TimeoutException());
+        metrics.failure("pracuj", "TimeoutException");
+        metrics.failure("justjoin", "IOException");
+
+        assertEquals(2, metrics.counter("jobscraper_failures_total", "", "cause", "TimeoutException", "site", "pracuj").get());
+        assertEquals(1, metrics.counter("jobscraper_failures_total", "", "site", "justjoin", "cause", "IOException").get());
+        assertThrows(IllegalArgumentException.class, () -> metrics.histogram("jobscraper_failures_total", ""));
+    }
+
+    @Test
+    void testPrometheusTextFormat() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.listingFetch("pracuj").observe(0.2);
+        metrics.listingFetch("pracuj").observe(3);
+        metrics.gauge("jobscraper_links_pending", "Links waiting", () -> 7);
+
+        String text = metrics.toPrometheus();
+        assertTrue(text.contains("# TYPE jobscraper_listing_fetch_seconds histogram"));
+        assertTrue(text.contains("jobscraper_listing_fetch_seconds_bucket{site=\"pracuj\",le=\"0.1\"} 0"));
+        assertTrue(text.contains("jobscraper_listing_fetch_seconds_bucket{site=\"pracuj\",le=\"0.25\"} 1"));
+        assertTrue(text.contains("jobscraper_listing_fetch_seconds_bucket{site=\"pracuj\",le=\"+Inf\"} 2"));
+        assertTrue(text.contains("jobscraper_listing_fetch_seconds_sum{site=\"pracuj\"} 3.2"));
+        assertTrue(text.contains("jobscraper_listing_fetch_seconds_count{site=\"pracuj\"} 2"));
+        assertTrue(text.contains("jobscraper_links_pending 7"));
+    }
+
+    @Test
+    void testHistogramQuantileInterpolatesWithinBucket() {
+        MetricsRegistry.Histogram histogram = new MetricsRegistry().offerLatency("pracuj");
+        assertTrue(Double.isNaN(histogram.quantile(0.5)));
+        for (int i = 0; i < 9; i++) {
+            histogram.observe(0.2);
+        }
+        histogram.observe(7);
+
+        assertEquals(0.1 + 0.15 * 5 / 9, histogram.quantile(0.5), 1e-9); // Kubełek 0.1-0.25
+        assertEquals(9.5, histogram.quantile(0.99), 1e-9); // Kubełek 5-10
+    }
+
+    @Test
+    void testJsonDumpIsWritten(@TempDir Path dir) throws IOException {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.offerScraped("justjoin", "detail");
+        metrics.queueWait().observe(0.5);
+
+        JsonObject json = metrics.toJson();
+        JsonObject queueWait = json.getAsJsonObject("jobscraper_queue_wait_seconds").getAsJsonArray("series").get(0).getAsJsonObject();
+        assertEquals(1, queueWait.get("count").getAsLong());
+        assertEquals(0.5, queueWait.get("mean").getAsDouble(), 1e-9);
+
+        metrics.writeTo(dir);
+        assertTrue(Files.readString(dir.resolve("metrics.prom")).contains("jobscraper_offers_total{site=\"justjoin\",source=\"detail\"} 1"));
+        assertTrue(Files.exists(dir.resolve("metrics.json")));
+    }
+}
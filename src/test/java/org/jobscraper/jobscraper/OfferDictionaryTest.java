@@ -0,0 +1,62 @@
+package org.jobscraper.jobscraper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OfferDictionaryTest {
+
+    @Test
+    void testEqualValuesShareOneCode() {
+        OfferDictionary dictionary = new OfferDictionary();
+        int b2b = dictionary.encode("B2B");
+        assertEquals(b2b, dictionary.encode(new String("B2B")));
+        assertNotEquals(b2b, dictionary.encode("Mid"));
+        assertEquals("B2B", dictionary.decode(b2b));
+        assertEquals(OfferDictionary.NULL_CODE, dictionary.encode(null));
+        assertNull(dictionary.decode(OfferDictionary.NULL_CODE));
+        assertEquals(2, dictionary.size());
+
+        // Oferta zwraca te same instancje napisów zamiast własnych kopii
+        JobOffer first = new JobOffer("A", new String("Example"), null, "Kraków", "https://example.com/1", "B2B", "Mid", "Remote");
+        JobOffer second = new JobOffer("B", new String("Example"), null, "Kraków", "https://example.com/2", "B2B", "Mid", "Remote");
+        assertSame(first.getCompany(), second.getCompany());
+        assertEquals("Example", second.getCompany());
+    }
+
+    @Test
+    void testConcurrentEncodingIsConsistent() throws Exception {
+        OfferDictionary dictionary = new OfferDictionary();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<int[]>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tasks.add(() -> {
+                    int[] codes = new int[500];
+                    for (int i = 0; i < codes.length; i++) {
+                        codes[i] = dictionary.encode("value-" + i);
+                    }
+                    return codes;
+                });
+            }
+            List<Future<int[]>> results = executor.invokeAll(tasks);
+            int[] expected = results.get(0).get();
+            for (Future<int[]> result : results) {
+                assertArrayEquals(expected, result.get());
+            }
+            assertEquals(500, dictionary.size());
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals("value-" + i, dictionary.decode(expected[i]));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.jobscraper.jobscraper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OfferResultsTest {
+
+    @Test
+    void testSnapshotIsNotAffectedByLaterAdds() {
+        OfferResults results = new OfferResults();
+        JobOffer first = offer(1);
+        results.add(first);
+        List<JobOffer> snapshot = results.snapshot();
+
+        results.add(offer(2));
+        assertEquals(List.of(first), snapshot);
+        assertEquals(2, results.size());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(offer(3)));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(1));
+    }
+
+    @Test
+    void testConcurrentAddsAcrossChunks() throws InterruptedException {
+        OfferResults results = new OfferResults();
+        int threads = 4;
+        int perThread = 5000; // Kilkanaście bloków i powiększenie katalogu
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    results.add(offer(base + i));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Set<String> urls = new HashSet<>();
+        for (JobOffer offer : results.snapshot()) {
+            urls.add(offer.getUrl());
+        }
+        assertEquals(threads * perThread, results.size());
+        assertEquals(threads * perThread, urls.size());
+    }
+
+    private static JobOffer offer(int id) {
+        return new JobOffer("Title " + id, "Company", "Salary", "Location", "https://example.com/" + id, "B2B", "Mid", "Remote");
+    }
+}
@@ -0,0 +1,116 @@
+package org.jobscraper.jobscraper;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PracujPlScraperTest {
+
+    private Document loadFixture(String name, String url) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("fixtures/" + name)) {
+            assertNotNull(in, "Brak pliku testowego " + name);
+            return Jsoup.parse(in, "UTF-8", url);
+        }
+    }
+
+    @Test
+    void testParseOfferDetails() throws IOException {
+        String url = "https://www.pracuj.pl/praca/java-developer-krakow,oferta,1000000001";
+        Document doc = loadFixture("pracuj-offer.html", url);
+
+        JobOffer offer = PracujPlScraper.parseOfferDetails(doc, url);
+
+        // Pola powinny odpowiadać temu, co zwraca tryb przeglądarkowy
+        assertNotNull(offer);
+        assertEquals("Java Developer", offer.getTitle());
+        assertEquals("Example Sp. z o.o.", offer.getCompany());
+        assertEquals("15 000–20 000 zł netto (+ VAT) / mies.", offer.getSalary().replace('\u00a0', ' '));
+        assertEquals("Kraków, Kazimierz", offer.getLocation());
+        assertEquals(url, offer.getUrl());
+        assertEquals("kontrakt B2B", offer.getTypeOfWork());
+        assertEquals("specjalista (Mid / Regular)", offer.getExperience());
+        assertEquals("praca hybrydowa", offer.getOperatingMode());
+    }
+
+    @Test
+    void testParseOfferDetailsDefaults() throws IOException {
+        String url = "https://www.pracuj.pl/praca/tester-manualny-warszawa,oferta,1000000002";
+        Document doc = loadFixture("pracuj-offer-minimal.html", url);
+
+        JobOffer offer = PracujPlScraper.parseOfferDetails(doc, url);
+
+        // Brakujące pola dostają te same wartości domyślne co w trybie przeglądarkowym
+        assertNotNull(offer);
+        assertEquals("Firma Testowa S.A.", offer.getCompany());
+        assertEquals("Undisclosed Salary", offer.getSalary());
+        assertEquals("Warszawa, mazowieckie", offer.getLocation());
+        assertEquals("Brak danych", offer.getTypeOfWork());
+        assertEquals("Brak danych", offer.getExperience());
+        assertEquals("Brak danych", offer.getOperatingMode());
+    }
+
+    @Test
+    void testParseOfferDetailsWithoutServerRenderedData() {
+        Document doc = Jsoup.parse("<html><body><div id=\"__next\"></div></body></html>");
+
+        // Brak tytułu oznacza, że trzeba sięgnąć po przeglądarkę
+        assertNull(PracujPlScraper.parseOfferDetails(doc, "https://www.pracuj.pl/praca/x,oferta,1"));
+    }
+
+    @Test
+    void testParsePaginationFromFirstListingPage() throws IOException {
+        Document doc = loadFixture("pracuj-listing.html", "https://www.pracuj.pl/praca/java;kw/krakow;wp?rd=0");
+
+        assertEquals(12, PracujPlScraper.parseMaxPage(doc));
+        assertEquals(581, PracujPlScraper.parseTotalOffers(doc));
+    }
+
+    @Test
+    void testParseListingTile() throws IOException {
+        Document doc = loadFixture("pracuj-listing.html", "https://www.pracuj.pl/praca/java;kw/krakow;wp?rd=0");
+        Element link = doc.select("a.tiles_cnb3rfy.core_n194fgoq").get(0);
+
+        JobOffer tile = PracujPlScraper.parseTile(link, link.absUrl("href"));
+
+        assertNotNull(tile);
+        assertEquals("Java Developer", tile.getTitle());
+        assertEquals("Example Sp. z o.o.", tile.getCompany());
+        assertEquals("Kraków", tile.getLocation());
+        assertEquals("Kontrakt B2B", tile.getTypeOfWork());
+        assertEquals("Specjalista (Mid / Regular)", tile.getExperience());
+        assertEquals("Praca hybrydowa", tile.getOperatingMode());
+        assertTrue(tile.hasSalary());
+
+        // Kafelek bez wynagrodzenia i bez dodatkowych informacji, link względny
+        Element minimal = doc.select("a.tiles_cnb3rfy.core_n194fgoq").get(2);
+        JobOffer minimalTile = PracujPlScraper.parseTile(minimal, minimal.absUrl("href"));
+        assertEquals("https://www.pracuj.pl/praca/mlodszy-programista-java-krakow,oferta,1000000003", minimalTile.getUrl());
+        assertEquals("Brak danych", minimalTile.getTypeOfWork());
+
+        // Link poza kafelkiem
+        Element loose = Jsoup.parse("<a href=\"/praca/x,oferta,1\">X</a>").selectFirst("a");
+        assertNull(PracujPlScraper.parseTile(loose, "https://www.pracuj.pl/praca/x,oferta,1"));
+    }
+
+    @Test
+    void testParsePaginationFallbacks() {
+        Document buttonsOnly = Jsoup.parse("<div><button data-test=\"bottom-pagination-button-page-1\">1</button>"
+                + "<button data-test=\"bottom-pagination-button-page-2\">2</button>"
+                + "<button data-test=\"bottom-pagination-button-page-3\">3</button></div>"
+                + "<h1 data-test=\"list-header-offers-count\">(1 234 ofert)</h1>");
+
+        assertEquals(3, PracujPlScraper.parseMaxPage(buttonsOnly));
+        assertEquals(1234, PracujPlScraper.parseTotalOffers(buttonsOnly));
+
+        // Brak paginacji - scraper przejdzie do pobierania stron po kolei
+        Document noPagination = Jsoup.parse("<html><body></body></html>");
+        assertEquals(0, PracujPlScraper.parseMaxPage(noPagination));
+        assertEquals(0, PracujPlScraper.parseTotalOffers(noPagination));
+    }
+}
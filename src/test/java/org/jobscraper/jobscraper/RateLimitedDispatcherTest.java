@@ -0,0 +1,77 @@
+package org.jobscraper.jobscraper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitedDispatcherTest {
+
+    @Test
+    void testTasksRunInOrderAtHostRate() throws InterruptedException {
+        HostRateLimiter limiter = new HostRateLimiter(20.0, 0.1, 20.0, 8000);
+        RateLimitedDispatcher dispatcher = new RateLimitedDispatcher(limiter);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < 6; i++) {
+                final int task = i;
+                dispatcher.execute("https://www.pracuj.pl/praca/oferta," + i, () -> order.add(task), executor);
+            }
+            assertTrue(dispatcher.awaitIdle(5, TimeUnit.SECONDS));
+            // Pierwsze żądanie od razu, kolejne co 50 ms
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+            assertEquals(List.of(0, 1, 2, 3, 4, 5), order);
+        } finally {
+            dispatcher.shutdown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSlowdownAppliesToWaitingTasks() throws Exception {
+        HostRateLimiter limiter = new HostRateLimiter(1.0, 0.1, 4.0, 8000);
+        RateLimitedDispatcher dispatcher = new RateLimitedDispatcher(limiter);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<String> first = dispatcher.submit("https://justjoin.it/job-offer/a", () -> "a", executor);
+            assertEquals("a", first.get(5, TimeUnit.SECONDS));
+            // Zadanie czeka na token, a w tym czasie serwer odpowiada 429 - nic nie zostało zarezerwowane z góry,
+            // więc czekające zadanie dostaje token według nowego, wolniejszego tempa
+            CompletableFuture<String> second = dispatcher.submit("https://justjoin.it/job-offer/b", () -> "b", executor);
+            limiter.onResponse("justjoin.it", 429, 100);
+            limiter.onResponse("justjoin.it", 429, 100);
+            assertFalse(dispatcher.awaitIdle(1500, TimeUnit.MILLISECONDS));
+            assertEquals(1, dispatcher.queuedCount());
+            assertEquals("b", second.get(10, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.shutdown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCancelAbandonsWaitingTasks() throws InterruptedException {
+        HostRateLimiter limiter = new HostRateLimiter(0.1, 0.1, 0.1, 8000);
+        RateLimitedDispatcher dispatcher = new RateLimitedDispatcher(limiter);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            dispatcher.submit("https://www.pracuj.pl/a", () -> 1, executor);
+            CompletableFuture<Integer> waiting = dispatcher.submit("https://www.pracuj.pl/b", () -> 2, executor);
+            dispatcher.cancel();
+            assertThrows(CancellationException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+            assertTrue(dispatcher.awaitIdle(5, TimeUnit.SECONDS));
+            assertTrue(dispatcher.submit("https://www.pracuj.pl/c", () -> 3, executor).isCompletedExceptionally());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
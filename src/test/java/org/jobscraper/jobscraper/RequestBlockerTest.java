@@ -0,0 +1,49 @@
+package org.jobscraper.jobscraper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestBlockerTest {
+
+    @Test
+    void testProfiles() {
+        RequestBlocker blocker = new RequestBlocker();
+        assertTrue(blocker.getRules(RequestBlocker.PRACUJ_DETAIL).resourceTypes().contains("Image"));
+        assertTrue(blocker.getRules(RequestBlocker.JUSTJOIN_DETAIL).resourceTypes().contains("Stylesheet"));
+        // Listing przewijany w przeglądarce potrzebuje układu strony
+        assertFalse(blocker.getRules(RequestBlocker.JUSTJOIN_LISTING).resourceTypes().contains("Stylesheet"));
+        assertFalse(blocker.getRules(RequestBlocker.JUSTJOIN_LISTING).urlPatterns().isEmpty());
+        assertEquals(RequestBlocker.Rules.NONE, blocker.getRules(null));
+        assertEquals(RequestBlocker.Rules.NONE, blocker.getRules("unknown"));
+        assertTrue(RequestBlocker.measureOnly().getRules(RequestBlocker.PRACUJ_DETAIL).isEmpty());
+
+        blocker.setRules(RequestBlocker.PRACUJ_DETAIL, new RequestBlocker.Rules(Set.of("Font"), List.of()));
+        assertEquals(Set.of("Font"), blocker.getRules(RequestBlocker.PRACUJ_DETAIL).resourceTypes());
+        // Nieznany typ zasobu to błąd konfiguracji
+        assertThrows(RuntimeException.class, () -> new RequestBlocker.Rules(Set.of("Images"), List.of()));
+    }
+
+    @Test
+    void testBlockedUrlsForTabs() {
+        RequestBlocker blocker = new RequestBlocker();
+        List<String> urls = blocker.blockedUrls(RequestBlocker.JUSTJOIN_DETAIL);
+        assertTrue(urls.containsAll(RequestBlocker.TRACKERS));
+        assertTrue(urls.contains("*.woff*"));
+        assertTrue(urls.contains("*.css"));
+        assertFalse(blocker.blockedUrls(RequestBlocker.JUSTJOIN_LISTING).contains("*.css"));
+        assertTrue(RequestBlocker.measureOnly().blockedUrls(RequestBlocker.JUSTJOIN_DETAIL).isEmpty());
+    }
+
+    @Test
+    void testStats() {
+        RequestBlocker.Stats stats = new RequestBlocker.Stats(4, 10, 8192, Map.of("Image", 10L));
+        assertEquals(2.5, stats.blockedPerPage());
+        assertEquals(2.0, stats.kilobytesPerPage());
+        assertEquals(0.0, new RequestBlocker().getStats().kilobytesPerPage());
+    }
+}
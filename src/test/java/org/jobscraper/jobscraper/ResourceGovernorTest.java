@@ -0,0 +1,136 @@
+package org.jobscraper.jobscraper;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceGovernorTest {
+    private static final long MB = 1L << 20;
+    private static final long GB = 1L << 30;
+
+    private static ResourceGovernor.Sample sample(long childrenRss, long available, long total, double loadPerCpu, double heapUsage) {
+        return new ResourceGovernor.Sample(200 * MB, childrenRss, available, total, loadPerCpu, heapUsage);
+    }
+
+    @Test
+    void testLimitsOnBigMachine() {
+        ResourceGovernor.Limits limits = ResourceGovernor.computeLimits(sample(0, 48 * GB, 64 * GB, 0.3, 0.2), 0, 8, 32);
+        assertEquals(new ResourceGovernor.Limits(8, 32), limits);
+        // Bez danych o pamięci (system bez /proc i MXBean) - górne limity
+        assertEquals(new ResourceGovernor.Limits(8, 32), ResourceGovernor.computeLimits(sample(-1, -1, -1, 0.3, 0.2), 0, 8, 32));
+    }
+
+    @Test
+    void testBrowsersFitInAvailableMemory() {
+        // 1 GB wolnego z 2 GB: 512 MB zapasu, pierwsza przeglądarka szacowana na 300 MB
+        assertEquals(1, ResourceGovernor.computeLimits(sample(0, GB, 2 * GB, 0.3, 0.2), 0, 8, 32).browsers());
+        // Dwie działające zajmują 1 GB - koszt kolejnej mierzony na nich (512 MB), a wolne jest tylko 600 MB
+        assertEquals(2, ResourceGovernor.computeLimits(sample(GB, 600 * MB, 2 * GB, 0.3, 0.2), 2, 8, 32).browsers());
+        // Pamięci ubyło poniżej zapasu - limit spada poniżej liczby działających, ale nie do zera
+        assertEquals(1, ResourceGovernor.computeLimits(sample(GB, 300 * MB, 2 * GB, 0.3, 0.2), 2, 8, 32).browsers());
+        // Mały koszt przeglądarki (współdzielone strony) liczony co najmniej jako 150 MB
+        assertEquals(8, ResourceGovernor.computeLimits(sample(20 * MB, 512 * MB + 900 * MB, 4 * GB, 0.3, 0.2), 2, 16, 32).browsers());
+    }
+
+    @Test
+    void testHighLoadAndHeapPressure() {
+        // CPU przeciążone dwukrotnie ponad próg: bez nowych przeglądarek, wątki proporcjonalnie mniej
+        ResourceGovernor.Limits loaded = ResourceGovernor.computeLimits(sample(GB, 32 * GB, 64 * GB, 3.0, 0.2), 2, 8, 32);
+        assertEquals(new ResourceGovernor.Limits(2, 16), loaded);
+        assertEquals(1, ResourceGovernor.computeLimits(sample(0, 32 * GB, 64 * GB, 3.0, 0.2), 0, 8, 32).browsers());
+        assertEquals(2, ResourceGovernor.computeLimits(sample(0, 32 * GB, 64 * GB, 100.0, 0.2), 0, 8, 32).workers());
+        // Sterta prawie pełna - tylko dwa zadania naraz
+        assertEquals(new ResourceGovernor.Limits(8, 2), ResourceGovernor.computeLimits(sample(0, 48 * GB, 64 * GB, 0.3, 0.9), 0, 8, 32));
+    }
+
+    @Test
+    void testOnlyTenuredPoolCountsAsHeapUsage() {
+        // Serial GC: Survivor prawie pełny po młodym GC, stara generacja prawie pusta - bez ograniczania wątków
+        List<ResourceGovernor.HeapPool> pools = List.of(
+                new ResourceGovernor.HeapPool("Eden Space", false, new MemoryUsage(0, 0, 32 * MB, 32 * MB)),
+                new ResourceGovernor.HeapPool("Survivor Space", false, new MemoryUsage(0, 95 * MB / 10, 10 * MB, 10 * MB)),
+                new ResourceGovernor.HeapPool("Tenured Gen", true, new MemoryUsage(0, 20 * MB, 200 * MB, 200 * MB)));
+        double heapUsage = ResourceGovernor.tenuredUsageAfterGc(pools);
+        assertEquals(0.1, heapUsage, 1e-9);
+        assertEquals(new ResourceGovernor.Limits(8, 32), ResourceGovernor.computeLimits(sample(0, 48 * GB, 64 * GB, 0.3, heapUsage), 0, 8, 32));
+
+        // Bez odczytu starej generacji (jeszcze bez GC) - brak danych zamiast zajętości młodych pul
+        assertEquals(-1, ResourceGovernor.tenuredUsageAfterGc(List.of(pools.get(1),
+                new ResourceGovernor.HeapPool("Tenured Gen", true, null))));
+    }
+
+    @Test
+    void testBrowserPermits() {
+        // Miejsce na jedną przeglądarkę
+        ResourceGovernor governor = new ResourceGovernor(4, 8, () -> sample(0, 900 * MB, GB, 0.3, 0.2));
+        assertTrue(governor.tryAcquireBrowser());
+        assertFalse(governor.tryAcquireBrowser());
+        assertFalse(governor.shouldRetireBrowser());
+        governor.releaseBrowser();
+        assertTrue(governor.tryAcquireBrowser());
+
+        ResourceGovernor.Stats stats = governor.getStats();
+        assertEquals(1, stats.liveBrowsers());
+        assertEquals(1, stats.browserLimit());
+        assertEquals(1, stats.browsersDeferred());
+        assertTrue(stats.toString().contains("browsers=1/1"));
+        assertThrows(IllegalArgumentException.class, () -> new ResourceGovernor(0, 8));
+    }
+
+    @Test
+    void testRefusedPoolReclaimsIdleBrowsersOfOtherPools() {
+        // Miejsce na jedną przeglądarkę, zajętą przez bezczynną kartę puli kart
+        ResourceGovernor governor = new ResourceGovernor(4, 8, () -> sample(0, 900 * MB, GB, 0.3, 0.2));
+        Object tabPool = new Object();
+        Object driverPool = new Object();
+        AtomicInteger tabPoolReclaims = new AtomicInteger();
+        governor.addIdleBrowserReclaimer(tabPool, () -> {
+            tabPoolReclaims.incrementAndGet();
+            governor.releaseBrowser();
+            return true;
+        });
+        assertTrue(governor.tryAcquireBrowser());
+        assertFalse(governor.tryAcquireBrowser());
+
+        // Pula nie zamyka własnych przeglądarek na własną prośbę
+        assertFalse(governor.reclaimIdleBrowsers(tabPool));
+        assertEquals(0, tabPoolReclaims.get());
+
+        assertTrue(governor.reclaimIdleBrowsers(driverPool));
+        assertEquals(1, tabPoolReclaims.get());
+        assertTrue(governor.tryAcquireBrowser());
+
+        governor.removeIdleBrowserReclaimer(tabPool);
+        assertFalse(governor.reclaimIdleBrowsers(driverPool));
+    }
+
+    @Test
+    void testWorkersWaitForFreeSlot() throws InterruptedException {
+        // Sterta prawie pełna - limit dwóch zadań
+        ResourceGovernor governor = new ResourceGovernor(4, 8, () -> sample(0, 48 * GB, 64 * GB, 0.3, 0.9));
+        governor.acquireWorker();
+        governor.acquireWorker();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiting = new Thread(() -> {
+            try {
+                governor.acquireWorker();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiting.start();
+        assertFalse(acquired.await(300, TimeUnit.MILLISECONDS));
+        governor.releaseWorker();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiting.join();
+        assertEquals(2, governor.getStats().activeWorkers());
+        assertEquals(1, governor.getStats().workersDeferred());
+    }
+}
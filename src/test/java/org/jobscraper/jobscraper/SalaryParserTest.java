@@ -0,0 +1,68 @@
+package org.jobscraper.jobscraper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalaryParserTest {
+
+    @Test
+    void testPracujFormats() {
+        SalaryParser.Salary monthly = SalaryParser.parse("15 000–20 000 zł netto (+ VAT) / mies.", "kontrakt B2B");
+        assertEquals(15000, monthly.min());
+        assertEquals(20000, monthly.max());
+        assertEquals(SalaryParser.Currency.PLN, monthly.currency());
+        assertEquals(SalaryParser.Period.MONTH, monthly.period());
+        assertEquals(SalaryParser.Basis.NET, monthly.basis());
+        assertEquals(SalaryParser.ContractType.B2B, monthly.contractType());
+        assertEquals(20000, monthly.monthlyMaxPln());
+
+        SalaryParser.Salary hourly = SalaryParser.parse("50–70 zł netto (+ VAT) / godz.", null);
+        assertEquals(SalaryParser.Period.HOUR, hourly.period());
+        assertEquals(SalaryParser.ContractType.B2B, hourly.contractType()); // Z "+ VAT"
+        assertEquals(50 * 168, hourly.monthlyMinPln());
+
+        SalaryParser.Salary gross = SalaryParser.parse("8 500 zł brutto / mies.", "umowa o pracę");
+        assertEquals(8500, gross.min());
+        assertEquals(8500, gross.max());
+        assertEquals(SalaryParser.Basis.GROSS, gross.basis());
+        assertEquals(SalaryParser.ContractType.EMPLOYMENT, gross.contractType());
+    }
+
+    @Test
+    void testJustJoinFormatsAndMissingSalary() {
+        SalaryParser.Salary eur = SalaryParser.parse("5000 - 6000 EUR/month net", "b2b, permanent");
+        assertEquals(SalaryParser.Currency.EUR, eur.currency());
+        assertEquals(SalaryParser.ContractType.B2B, eur.contractType());
+        assertEquals(Math.round(6000 * 4.30), eur.monthlyMaxPln());
+
+        SalaryParser.Salary yearly = SalaryParser.parse("120000 PLN/year gross", "permanent");
+        assertEquals(10000, yearly.monthlyMinPln());
+
+        assertFalse(SalaryParser.parse("Undisclosed Salary", "B2B").isDisclosed());
+        assertFalse(SalaryParser.parse("No data", null).isDisclosed());
+        assertFalse(SalaryParser.parse(null, null).isDisclosed());
+    }
+
+    @Test
+    void testSalaryIndexSortsAndFilters() {
+        JobOffer low = offer("1", "7 000–9 000 zł brutto / mies.");
+        JobOffer high = offer("2", "25 000–30 000 zł netto (+ VAT) / mies.");
+        JobOffer mid = offer("3", "15 000–20 000 zł netto (+ VAT) / mies.");
+        JobOffer hidden = offer("4", "Undisclosed Salary");
+        SalaryIndex index = SalaryIndex.of(List.of(low, high, mid, hidden));
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(high, mid, low), index.sortedByMax(true));
+        assertEquals(List.of(low, mid, high), index.sortedByMin(false));
+        assertEquals(List.of(low, mid), index.overlapping(9000, 15000));
+        assertEquals(List.of(high, mid), index.atLeast(20000));
+        assertEquals(20000, index.medianMax());
+    }
+
+    private static JobOffer offer(String id, String salary) {
+        return new JobOffer("Java Developer", "Example", salary, "Kraków", "https://example.com/" + id, "B2B", "Mid", "Remote");
+    }
+}
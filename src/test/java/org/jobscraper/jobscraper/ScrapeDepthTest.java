@@ -0,0 +1,44 @@
+package org.jobscraper.jobscraper;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScrapeDepthTest {
+
+    @Test
+    void testTilesAcceptedPerDepth() throws IOException {
+        Document doc;
+        try (InputStream in = getClass().getResourceAsStream("fixtures/pracuj-listing.html")) {
+            assertNotNull(in);
+            doc = Jsoup.parse(in, "UTF-8", "https://www.pracuj.pl/praca/java;kw/krakow;wp?rd=0");
+        }
+        Element completeLink = doc.select("a.tiles_cnb3rfy.core_n194fgoq").get(0);
+        Element incompleteLink = doc.select("a.tiles_cnb3rfy.core_n194fgoq").get(2); // Bez listy dodatkowych informacji
+        JobOffer complete = PracujPlScraper.parseTile(completeLink, completeLink.absUrl("href"));
+        JobOffer incomplete = PracujPlScraper.parseTile(incompleteLink, incompleteLink.absUrl("href"));
+        assertFalse(complete.isMissingDetails());
+        assertTrue(incomplete.isMissingDetails());
+
+        assertFalse(ScrapeDepth.DEEP.acceptsTile(complete));
+        assertTrue(ScrapeDepth.SHALLOW.acceptsTile(complete));
+        assertTrue(ScrapeDepth.SHALLOW.acceptsTile(incomplete));
+        assertTrue(ScrapeDepth.SHALLOW_WITH_DEEP_FILL.acceptsTile(complete));
+        assertFalse(ScrapeDepth.SHALLOW_WITH_DEEP_FILL.acceptsTile(incomplete));
+        // Link bez kafelka (np. z przewijania w przeglądarce) zawsze idzie na stronę szczegółów
+        assertFalse(ScrapeDepth.SHALLOW.acceptsTile(null));
+    }
+
+    @Test
+    void testParse() {
+        assertEquals(ScrapeDepth.SHALLOW_WITH_DEEP_FILL, ScrapeDepth.parse("shallow-with-deep-fill"));
+        assertEquals(ScrapeDepth.SHALLOW, ScrapeDepth.parse(" Shallow "));
+        assertThrows(IllegalArgumentException.class, () -> ScrapeDepth.parse("medium"));
+    }
+}
@@ -0,0 +1,142 @@
+package org.jobscraper.jobscraper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScrapeJournalTest {
+    private static final String SEARCH = ScrapeJournal.searchKey("java", "krakow", "0", "https://www.pracuj.pl/praca/", null);
+    private static final String FIRST = "https://www.pracuj.pl/praca/java-developer,oferta,1";
+    private static final String SECOND = "https://www.pracuj.pl/praca/java-developer,oferta,2";
+    private static final String THIRD = "https://www.pracuj.pl/praca/java-developer,oferta,3";
+
+    @TempDir
+    Path dir;
+
+    private static JobOffer offer(String url, String title) {
+        return new JobOffer(title, "Acme", "10 000 zł", "Kraków", url, "B2B", "Mid", "Hybrid");
+    }
+
+    @Test
+    void testResumeRestoresCompletedOffersAndPendingLinks() throws IOException {
+        Path file = dir.resolve("journal.jsonl");
+        try (ScrapeJournal journal = ScrapeJournal.open(file, SEARCH, false)) {
+            journal.linkDiscovered(FIRST, offer(FIRST, "Java Developer"));
+            journal.linkDiscovered(SECOND, null);
+            journal.linkDiscovered(THIRD, offer(THIRD, "Senior Java Developer"));
+            JobOffer scraped = offer(FIRST, "Java Developer");
+            scraped.addAlternateUrls(List.of("https://justjoin.it/job-offer/acme-java-developer"));
+            journal.offerCompleted(FIRST, scraped, true);
+            journal.offerFailed(SECOND);
+        }
+        // Awaria w trakcie zapisu - ucięta ostatnia linia
+        Files.writeString(file, "{\"type\":\"offer\",\"url\":\"" + THIRD + "\",\"off", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (ScrapeJournal resumed = ScrapeJournal.open(file, SEARCH, true)) {
+            List<ScrapeJournal.Completed> completed = resumed.completedOffers();
+            assertEquals(1, completed.size());
+            assertEquals(FIRST, completed.get(0).link());
+            assertTrue(completed.get(0).knownBefore());
+            assertEquals("10 000 zł", completed.get(0).offer().getSalary());
+            assertEquals(List.of("https://justjoin.it/job-offer/acme-java-developer"), completed.get(0).offer().getAlternateUrls());
+            assertEquals(List.of(SECOND, THIRD), resumed.pendingLinks());
+            assertEquals("Senior Java Developer", resumed.tile(THIRD).getTitle());
+            assertNull(resumed.tile(SECOND));
+            assertFalse(resumed.isListingComplete());
+        }
+    }
+
+    @Test
+    void testNewRunOrDifferentSearchStartsOver() throws IOException {
+        Path file = dir.resolve("journal.jsonl");
+        try (ScrapeJournal journal = ScrapeJournal.open(file, SEARCH, false)) {
+            journal.linkDiscovered(FIRST, null);
+            journal.listingFinished();
+        }
+        String otherSearch = ScrapeJournal.searchKey("python", "krakow", "0", "https://www.pracuj.pl/praca/", null);
+        try (ScrapeJournal other = ScrapeJournal.open(file, otherSearch, true)) {
+            assertTrue(other.pendingLinks().isEmpty());
+            assertFalse(other.isListingComplete());
+        }
+        try (ScrapeJournal fresh = ScrapeJournal.open(file, SEARCH, false)) {
+            assertTrue(fresh.pendingLinks().isEmpty());
+        }
+    }
+
+    @Test
+    void testFailedLinksAreAbandonedAfterMaxAttempts() throws IOException {
+        Path file = dir.resolve("journal.jsonl");
+        for (int attempt = 1; attempt <= ScrapeJournal.MAX_ATTEMPTS; attempt++) {
+            try (ScrapeJournal journal = ScrapeJournal.open(file, SEARCH, true)) {
+                journal.linkDiscovered(FIRST, null);
+                journal.linkDiscovered(SECOND, null);
+                journal.offerFailed(FIRST);
+                journal.listingFinished();
+            }
+        }
+        try (ScrapeJournal resumed = ScrapeJournal.open(file, SEARCH, true)) {
+            assertEquals(List.of(SECOND), resumed.pendingLinks());
+            assertEquals(1, resumed.abandonedLinks());
+            assertTrue(resumed.isListingComplete());
+        }
+    }
+
+    @Test
+    void testCompactionKeepsOneRecordPerLink() throws IOException {
+        Path file = dir.resolve("journal.jsonl");
+        int links = 3000;
+        try (ScrapeJournal journal = ScrapeJournal.open(file, SEARCH, false)) {
+            for (int i = 0; i < links; i++) {
+                String url = "https://www.pracuj.pl/praca/oferta," + i;
+                journal.linkDiscovered(url, offer(url, "Tile " + i));
+                journal.offerCompleted(url, offer(url, "Offer " + i), false);
+            }
+            assertTrue(journal.getCompactions() > 1);
+            // Link i oferta pod tym samym adresem - po przepisaniu zostaje jeden rekord
+            assertTrue(journal.lineCount() < links * 2);
+        }
+        try (ScrapeJournal resumed = ScrapeJournal.open(file, SEARCH, true)) {
+            assertEquals(links, resumed.completedOffers().size());
+            assertEquals("Offer 0", resumed.completedOffers().get(0).offer().getTitle());
+            assertTrue(resumed.pendingLinks().isEmpty());
+            assertEquals(links + 1, Files.readAllLines(file).size());
+        }
+    }
+
+    @Test
+    void testListingOffersKeepTheirOrigin() throws IOException {
+        Path file = dir.resolve("journal.jsonl");
+        try (ScrapeJournal journal = ScrapeJournal.open(file, SEARCH, false)) {
+            JobOffer tile = offer(FIRST, "Java Developer");
+            journal.linkDiscovered(FIRST, tile);
+            journal.linkDiscovered(SECOND, null);
+            journal.offerCompleted(FIRST, tile, false, true); // Oferta z kafelka w trybie płytkim
+            journal.offerCompleted(SECOND, offer(SECOND, "Python Developer"), false);
+        }
+        try (ScrapeJournal resumed = ScrapeJournal.open(file, SEARCH, true)) {
+            List<ScrapeJournal.Completed> completed = resumed.completedOffers();
+            assertTrue(completed.get(0).fromListing());
+            assertFalse(completed.get(1).fromListing());
+        }
+    }
+
+    @Test
+    void testFinishDeletesJournal() throws IOException {
+        Path file = dir.resolve("journal.jsonl");
+        ScrapeJournal journal = ScrapeJournal.open(file, SEARCH, false);
+        journal.linkDiscovered(FIRST, null);
+        assertTrue(Files.exists(file));
+        journal.finish();
+        assertFalse(Files.exists(file));
+        journal.linkDiscovered(SECOND, null); // Po zamknięciu zapis jest pomijany
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,35 @@
+package org.jobscraper.jobscraper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScraperCliTest {
+
+    @Test
+    void testOptionsAndFlagsAreParsed() {
+        Map<String, String> options = ScraperCli.parseArgs(new String[]{
+                "--keywords", "java developer", "--location", "kraków", "--sites", "pracuj", "--only-new", "--output", "out.csv"});
+
+        assertEquals("java developer", options.get("keywords"));
+        assertEquals("kraków", options.get("location"));
+        assertEquals("pracuj", options.get("sites"));
+        assertEquals("out.csv", options.get("output"));
+        assertTrue(options.containsKey("only-new"));
+        assertFalse(options.containsKey("no-cache"));
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ScraperCli.parseArgs(new String[]{"--keywords"}));
+        assertThrows(IllegalArgumentException.class, () -> ScraperCli.parseArgs(new String[]{"--unknown", "x"}));
+        assertThrows(IllegalArgumentException.class, () -> ScraperCli.parseArgs(new String[]{"java"}));
+        assertEquals(2, ScraperCli.run(new String[]{"--sites", "linkedin"}));
+        assertEquals(2, ScraperCli.run(new String[]{"--sites", "pracuj", "--depth", "medium"}));
+        assertEquals(2, ScraperCli.run(new String[]{"--sites", "pracuj", "--tabs", "-1"}));
+        assertEquals(2, ScraperCli.run(new String[]{"--sites", "pracuj", "--max-browsers", "0"}));
+        assertEquals(2, ScraperCli.run(new String[]{"--sites", "pracuj", "--max-workers", "many"}));
+    }
+}
@@ -0,0 +1,114 @@
+package org.jobscraper.jobscraper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeenOfferStoreTest {
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testOffersSurviveSaveAndLoad() throws IOException {
+        Path file = dir.resolve("seen-offers.json");
+        SeenOfferStore store = SeenOfferStore.load(file);
+        assertEquals(0, store.size());
+
+        store.record(new JobOffer("Java Developer", "Acme", "Undisclosed Salary", "Kraków",
+                "https://www.pracuj.pl/praca/java-developer,oferta,1", "B2B", null, "Hybrid"), NOW);
+        store.save();
+
+        SeenOfferStore reloaded = SeenOfferStore.load(file);
+        JobOffer offer = reloaded.getFresh("https://www.pracuj.pl/praca/java-developer,oferta,1", Duration.ofHours(1), NOW);
+        assertNotNull(offer);
+        assertEquals("Java Developer", offer.getTitle());
+        assertEquals("Kraków", offer.getLocation());
+        assertNull(offer.getExperience());
+    }
+
+    @Test
+    void testOnlyRecentOffersAreReused() throws IOException {
+        SeenOfferStore store = SeenOfferStore.load(dir.resolve("seen-offers.json"));
+        String url = "https://justjoin.it/job-offer/acme-java-developer";
+        store.record(new JobOffer("Java Developer", "Acme", "", "", url, "", "", ""), NOW);
+
+        assertNotNull(store.getFresh(url, Duration.ofHours(24), NOW.plus(Duration.ofHours(23))));
+        assertNull(store.getFresh(url, Duration.ofHours(24), NOW.plus(Duration.ofHours(25))));
+        assertNull(store.getFresh(url, Duration.ZERO, NOW.plusSeconds(1)));
+        assertTrue(store.contains(url));
+        assertNull(store.getFresh("https://justjoin.it/job-offer/other", Duration.ofHours(24), NOW));
+    }
+
+    @Test
+    void testListingTilesAreNotReusedByDeepRuns() throws IOException {
+        Path file = dir.resolve("seen-offers.json");
+        SeenOfferStore store = SeenOfferStore.load(file);
+        String url = "https://www.pracuj.pl/praca/java-developer,oferta,1";
+        // Kafelek bez doświadczenia - niepełna oferta z trybu płytkiego
+        store.record(new JobOffer("Java Developer", "Acme", "10 000 zł", "Kraków", url, "B2B", null, "Hybrid"), NOW, true);
+        store.save();
+
+        SeenOfferStore reloaded = SeenOfferStore.load(file);
+        assertTrue(reloaded.isFromListing(url));
+        assertNotNull(reloaded.getFresh(url, Duration.ofHours(24), NOW, ScrapeDepth.SHALLOW));
+        assertNull(reloaded.getFresh(url, Duration.ofHours(24), NOW, ScrapeDepth.SHALLOW_WITH_DEEP_FILL));
+        assertNull(reloaded.getFresh(url, Duration.ofHours(24), NOW, ScrapeDepth.DEEP));
+        assertTrue(reloaded.contains(url));
+
+        // Oferta ze strony szczegółów jest dobra dla każdego trybu
+        reloaded.record(new JobOffer("Java Developer", "Acme", "10 000 zł", "Kraków", url, "B2B", "Mid", "Hybrid"), NOW);
+        assertNotNull(reloaded.getFresh(url, Duration.ofHours(24), NOW, ScrapeDepth.DEEP));
+    }
+
+    @Test
+    void testOldEntriesArePruned() throws IOException {
+        Path file = dir.resolve("seen-offers.json");
+        SeenOfferStore store = SeenOfferStore.load(file);
+        String old = "https://www.pracuj.pl/praca/old,oferta,1";
+        String recent = "https://www.pracuj.pl/praca/recent,oferta,2";
+        store.record(new JobOffer("Old", "Acme", "", "", old, "", "", ""), NOW.minus(Duration.ofDays(40)));
+        store.record(new JobOffer("Recent", "Acme", "", "", recent, "", "", ""), NOW.minus(Duration.ofDays(10)));
+
+        // Dla 24 h ponownego użycia wpisy są trzymane 30 dni, dla 2 dni - 60 dni
+        assertEquals(Duration.ofDays(30), SeenOfferStore.retentionFor(Duration.ofHours(24)));
+        assertEquals(Duration.ofDays(60), SeenOfferStore.retentionFor(Duration.ofDays(2)));
+        assertEquals(1, store.prune(SeenOfferStore.retentionFor(Duration.ofHours(24)), NOW));
+        store.save();
+
+        SeenOfferStore reloaded = SeenOfferStore.load(file);
+        assertFalse(reloaded.contains(old));
+        assertTrue(reloaded.contains(recent));
+    }
+
+    @Test
+    void testCorruptedFileStartsEmpty() throws IOException {
+        Path file = dir.resolve("seen-offers.json");
+        Files.writeString(file, "{\"offers\": [ {\"url\": ");
+
+        assertEquals(0, SeenOfferStore.load(file).size());
+    }
+
+    @Test
+    void testUnreadableEntriesAreSkipped() throws IOException {
+        Path file = dir.resolve("seen-offers.json");
+        Files.writeString(file, "{\"offers\": ["
+                + "{\"url\": \"https://justjoin.it/job-offer/a\", \"lastScraped\": \"yesterday\"},"
+                + "{\"url\": \"https://justjoin.it/job-offer/b\", \"lastScraped\": {}},"
+                + "{\"url\": \"https://justjoin.it/job-offer/c\"},"
+                + "\"not an offer\","
+                + "{\"url\": \"https://justjoin.it/job-offer/d\", \"title\": \"Java Developer\", \"lastScraped\": " + NOW.toEpochMilli() + "}]}");
+
+        SeenOfferStore store = SeenOfferStore.load(file);
+        assertEquals(1, store.size());
+        assertEquals("Java Developer", store.getFresh("https://justjoin.it/job-offer/d", Duration.ofHours(1), NOW).getTitle());
+    }
+}
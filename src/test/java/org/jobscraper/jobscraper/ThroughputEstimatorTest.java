@@ -0,0 +1,51 @@
+package org.jobscraper.jobscraper;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThroughputEstimatorTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testSteadyRateAndEta() {
+        ThroughputEstimator estimator = new ThroughputEstimator();
+        assertNull(estimator.estimateRemaining(10)); // Tempo jeszcze nieznane
+
+        for (int second = 0; second <= 20; second++) {
+            estimator.update(second * 2, second * SECOND);
+        }
+
+        assertEquals(2.0, estimator.ratePerSecond(), 1e-9);
+        assertEquals(Duration.ofSeconds(50), estimator.estimateRemaining(100));
+        assertEquals(Duration.ZERO, estimator.estimateRemaining(0));
+    }
+
+    @Test
+    void testRateFollowsSlowdownGradually() {
+        ThroughputEstimator estimator = new ThroughputEstimator(Duration.ofSeconds(10));
+        int completed = 0;
+        long now = 0;
+        estimator.update(completed, now);
+        for (int i = 0; i < 30; i++) {
+            now += SECOND;
+            completed += 10;
+            estimator.update(completed, now);
+        }
+        assertEquals(10.0, estimator.ratePerSecond(), 1e-9);
+
+        // Zatrzymanie na 10 s (jedna stała czasowa) - średnia spada o ok. 63%, ale nie do zera
+        now += 10 * SECOND;
+        estimator.update(completed, now);
+        assertEquals(10.0 * Math.exp(-1), estimator.ratePerSecond(), 1e-9);
+    }
+
+    @Test
+    void testFormat() {
+        assertEquals("12s", ThroughputEstimator.format(Duration.ofSeconds(12)));
+        assertEquals("4m 07s", ThroughputEstimator.format(Duration.ofSeconds(247)));
+        assertEquals("1h 05m", ThroughputEstimator.format(Duration.ofMinutes(65)));
+    }
+}